@@ -0,0 +1,45 @@
+-- Migration d'une base existante vers les dictionnaires categories / auteurs
+-- (à exécuter une seule fois)
+
+BEGIN;
+
+CREATE TABLE categories (
+    id SMALLSERIAL PRIMARY KEY,
+    nom VARCHAR(100) UNIQUE NOT NULL
+);
+
+CREATE TABLE auteurs (
+    id SERIAL PRIMARY KEY,
+    nom VARCHAR(255) UNIQUE NOT NULL
+);
+
+-- Les vues dépendent des colonnes texte supprimées plus bas
+DROP VIEW IF EXISTS vue_emprunts_complets;
+DROP VIEW IF EXISTS vue_livres_disponibles;
+
+INSERT INTO categories (nom) SELECT DISTINCT categorie FROM livres ON CONFLICT (nom) DO NOTHING;
+INSERT INTO auteurs (nom) SELECT DISTINCT auteur FROM livres ON CONFLICT (nom) DO NOTHING;
+
+ALTER TABLE livres ADD COLUMN auteur_id INTEGER;
+ALTER TABLE livres ADD COLUMN categorie_id SMALLINT;
+
+UPDATE livres l SET
+    auteur_id = (SELECT a.id FROM auteurs a WHERE a.nom = l.auteur),
+    categorie_id = (SELECT c.id FROM categories c WHERE c.nom = l.categorie);
+
+ALTER TABLE livres ALTER COLUMN auteur_id SET NOT NULL;
+ALTER TABLE livres ALTER COLUMN categorie_id SET NOT NULL;
+ALTER TABLE livres ADD CONSTRAINT fk_auteur FOREIGN KEY (auteur_id) REFERENCES auteurs(id);
+ALTER TABLE livres ADD CONSTRAINT fk_categorie FOREIGN KEY (categorie_id) REFERENCES categories(id);
+
+DROP INDEX IF EXISTS idx_livres_auteur;
+DROP INDEX IF EXISTS idx_livres_categorie;
+ALTER TABLE livres DROP COLUMN auteur;
+ALTER TABLE livres DROP COLUMN categorie;
+CREATE INDEX idx_livres_auteur ON livres(auteur_id);
+CREATE INDEX idx_livres_categorie ON livres(categorie_id);
+
+COMMIT;
+
+-- Créer ensuite depuis schema.sql: la vue vue_livres, les fonctions id_categorie
+-- et id_auteur, puis les vues vue_emprunts_complets et vue_livres_disponibles
@@ -0,0 +1,24 @@
+-- Migration d'une base existante vers les index vérifiés par --plans
+-- (à exécuter une seule fois, hors transaction: CONCURRENTLY ne bloque pas les écritures)
+
+-- LOWER(email) = LOWER(?) ne pouvait pas utiliser l'index sur email, et
+-- l'unicité de email laissait passer le même email écrit avec une autre casse
+-- (échoue si de tels doublons existent: SELECT LOWER(email) FROM membres
+--  GROUP BY 1 HAVING COUNT(*) > 1, à fusionner d'abord)
+DROP INDEX CONCURRENTLY IF EXISTS idx_membres_email;
+CREATE UNIQUE INDEX CONCURRENTLY idx_membres_email ON membres(LOWER(email));
+ALTER TABLE membres DROP CONSTRAINT IF EXISTS membres_email_key;
+
+-- Indexées par échéance puis par ID, les lignes en cours servent les pages
+-- triées (clé échéance, ID) et les comptages par parcours d'index seul
+DROP INDEX CONCURRENTLY IF EXISTS idx_emprunts_en_cours;
+CREATE INDEX CONCURRENTLY idx_emprunts_en_cours ON emprunts(date_retour_prevue, id_emprunt)
+    WHERE date_retour_effective IS NULL;
+
+-- LOWER(titre) LIKE '%...%' ne pouvait pas utiliser l'index B-tree sur titre
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+DROP INDEX CONCURRENTLY IF EXISTS idx_livres_titre;
+CREATE INDEX CONCURRENTLY idx_livres_titre ON livres USING gin (LOWER(titre) gin_trgm_ops);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_auteurs_nom ON auteurs USING gin (LOWER(nom) gin_trgm_ops);
+
+VACUUM (ANALYZE) livres, auteurs, membres, emprunts;
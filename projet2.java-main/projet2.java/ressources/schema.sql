@@ -9,27 +9,94 @@ CREATE DATABASE bibliotheque_db;
 DROP TABLE IF EXISTS emprunts CASCADE;
 DROP TABLE IF EXISTS membres CASCADE;
 DROP TABLE IF EXISTS livres CASCADE;
+DROP TABLE IF EXISTS auteurs CASCADE;
+DROP TABLE IF EXISTS categories CASCADE;
+
+-- TABLES: categories et auteurs (dictionnaires)
+-- Chaque nom n'est stocké qu'une fois; les livres n'en gardent que l'ID
+
+CREATE TABLE categories (
+    id SMALLSERIAL PRIMARY KEY,
+    nom VARCHAR(100) UNIQUE NOT NULL
+);
+
+CREATE TABLE auteurs (
+    id SERIAL PRIMARY KEY,
+    nom VARCHAR(255) UNIQUE NOT NULL
+);
 
 -- TABLE: livres
 
 CREATE TABLE livres (
     id SERIAL PRIMARY KEY,
     titre VARCHAR(255) NOT NULL,
-    auteur VARCHAR(255) NOT NULL,
-    categorie VARCHAR(100) NOT NULL,
+    auteur_id INTEGER NOT NULL,
+    categorie_id SMALLINT NOT NULL,
     nombre_exemplaires INTEGER NOT NULL DEFAULT 1,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     
+    CONSTRAINT fk_auteur FOREIGN KEY (auteur_id) 
+        REFERENCES auteurs(id),
+    CONSTRAINT fk_categorie FOREIGN KEY (categorie_id) 
+        REFERENCES categories(id),
     CONSTRAINT chk_nombre_exemplaires CHECK (nombre_exemplaires >= 0)
 );
 
+-- Vue des livres avec les noms d'auteur et de catégorie (lectures de LivreDAO)
+CREATE OR REPLACE VIEW vue_livres AS
+SELECT 
+    l.id,
+    l.titre,
+    a.nom as auteur,
+    c.nom as categorie,
+    l.nombre_exemplaires,
+    l.created_at,
+    l.auteur_id,
+    l.categorie_id
+FROM livres l
+JOIN auteurs a ON a.id = l.auteur_id
+JOIN categories c ON c.id = l.categorie_id;
+
+-- ID d'une catégorie ou d'un auteur, créé s'il n'existe pas encore
+-- (utilisées dans les INSERT/UPDATE de livres: une seule requête, dans la même transaction)
+CREATE OR REPLACE FUNCTION id_categorie(p_nom VARCHAR) RETURNS SMALLINT AS $$
+DECLARE
+    v_id SMALLINT;
+BEGIN
+    SELECT id INTO v_id FROM categories WHERE nom = p_nom;
+    IF v_id IS NULL THEN
+        INSERT INTO categories (nom) VALUES (p_nom) ON CONFLICT (nom) DO NOTHING RETURNING id INTO v_id;
+        IF v_id IS NULL THEN
+            -- Créée entre-temps par une autre transaction
+            SELECT id INTO v_id FROM categories WHERE nom = p_nom;
+        END IF;
+    END IF;
+    RETURN v_id;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION id_auteur(p_nom VARCHAR) RETURNS INTEGER AS $$
+DECLARE
+    v_id INTEGER;
+BEGIN
+    SELECT id INTO v_id FROM auteurs WHERE nom = p_nom;
+    IF v_id IS NULL THEN
+        INSERT INTO auteurs (nom) VALUES (p_nom) ON CONFLICT (nom) DO NOTHING RETURNING id INTO v_id;
+        IF v_id IS NULL THEN
+            SELECT id INTO v_id FROM auteurs WHERE nom = p_nom;
+        END IF;
+    END IF;
+    RETURN v_id;
+END;
+$$ LANGUAGE plpgsql;
+
 -- TABLE: membres
 
 CREATE TABLE membres (
     id SERIAL PRIMARY KEY,
     nom VARCHAR(100) NOT NULL,
     prenom VARCHAR(100) NOT NULL,
-    email VARCHAR(255) UNIQUE NOT NULL,
+    email VARCHAR(255) NOT NULL,
     adhesion_date DATE NOT NULL DEFAULT CURRENT_DATE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     
@@ -59,36 +126,44 @@ CREATE TABLE emprunts (
 -- INDEX POUR OPTIMISER LES PERFORMANCES:
 
 -- Index sur les recherches fréquentes de livres
-CREATE INDEX idx_livres_titre ON livres(titre);
-CREATE INDEX idx_livres_auteur ON livres(auteur);
-CREATE INDEX idx_livres_categorie ON livres(categorie);
+-- Recherche par titre ou auteur (LOWER(...) LIKE '%texte%'): index trigrammes,
+-- un index B-tree ne sert pas un motif commençant par %
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX idx_livres_titre ON livres USING gin (LOWER(titre) gin_trgm_ops);
+CREATE INDEX idx_auteurs_nom ON auteurs USING gin (LOWER(nom) gin_trgm_ops);
+CREATE INDEX idx_livres_auteur ON livres(auteur_id);
+CREATE INDEX idx_livres_categorie ON livres(categorie_id);
 
 -- Index sur les recherches de membres
 CREATE INDEX idx_membres_nom ON membres(nom);
 CREATE INDEX idx_membres_prenom ON membres(prenom);
-CREATE INDEX idx_membres_email ON membres(email);
+-- Email unique sans tenir compte de la casse, et recherche par LOWER(email)
+CREATE UNIQUE INDEX idx_membres_email ON membres(LOWER(email));
 
 -- Index sur les emprunts
 CREATE INDEX idx_emprunts_membre ON emprunts(membre_id);
 CREATE INDEX idx_emprunts_livre ON emprunts(livre_id);
 CREATE INDEX idx_emprunts_date_retour ON emprunts(date_retour_prevue);
-CREATE INDEX idx_emprunts_en_cours ON emprunts(date_retour_effective) 
+-- Emprunts en cours par échéance puis par ID: pages en cours / en retard
+-- (clé échéance, ID) déjà triées, et comptage par échéance
+-- (EcheancierEmprunts) sans lire la table
+CREATE INDEX idx_emprunts_en_cours ON emprunts(date_retour_prevue, id_emprunt)
     WHERE date_retour_effective IS NULL;
 
 -- DONNÉES DE TEST
 
 -- Insertion de livres
-INSERT INTO livres (titre, auteur, categorie, nombre_exemplaires) VALUES
-('Le Petit Prince', 'Antoine de Saint-Exupéry', 'Roman', 5),
-('1984', 'George Orwell', 'Science-Fiction', 3),
-('L''Étranger', 'Albert Camus', 'Roman', 4),
-('Les Misérables', 'Victor Hugo', 'Roman', 2),
-('Introduction à Java', 'Kathy Sierra', 'Informatique', 6),
-('Harry Potter à l''école des sorciers', 'J.K. Rowling', 'Fantasy', 8),
-('Le Seigneur des Anneaux', 'J.R.R. Tolkien', 'Fantasy', 4),
-('Une brève histoire du temps', 'Stephen Hawking', 'Science', 3),
-('L''Alchimiste', 'Paulo Coelho', 'Roman', 5),
-('Sapiens', 'Yuval Noah Harari', 'Histoire', 3);
+INSERT INTO livres (titre, auteur_id, categorie_id, nombre_exemplaires) VALUES
+('Le Petit Prince', id_auteur('Antoine de Saint-Exupéry'), id_categorie('Roman'), 5),
+('1984', id_auteur('George Orwell'), id_categorie('Science-Fiction'), 3),
+('L''Étranger', id_auteur('Albert Camus'), id_categorie('Roman'), 4),
+('Les Misérables', id_auteur('Victor Hugo'), id_categorie('Roman'), 2),
+('Introduction à Java', id_auteur('Kathy Sierra'), id_categorie('Informatique'), 6),
+('Harry Potter à l''école des sorciers', id_auteur('J.K. Rowling'), id_categorie('Fantasy'), 8),
+('Le Seigneur des Anneaux', id_auteur('J.R.R. Tolkien'), id_categorie('Fantasy'), 4),
+('Une brève histoire du temps', id_auteur('Stephen Hawking'), id_categorie('Science'), 3),
+('L''Alchimiste', id_auteur('Paulo Coelho'), id_categorie('Roman'), 5),
+('Sapiens', id_auteur('Yuval Noah Harari'), id_categorie('Histoire'), 3);
 
 -- Insertion de membres
 INSERT INTO membres (nom, prenom, email, adhesion_date) VALUES
@@ -138,7 +213,7 @@ SELECT
     END as statut
 FROM emprunts e
 JOIN membres m ON e.membre_id = m.id
-JOIN livres l ON e.livre_id = l.id;
+JOIN vue_livres l ON e.livre_id = l.id;
 
 -- Vue pour les livres disponibles
 CREATE OR REPLACE VIEW vue_livres_disponibles AS
@@ -152,7 +227,7 @@ SELECT
         WHEN nombre_exemplaires > 0 THEN 'DISPONIBLE'
         ELSE 'INDISPONIBLE'
     END as disponibilite
-FROM livres
+FROM vue_livres
 WHERE nombre_exemplaires > 0
 ORDER BY categorie, titre;
 
@@ -222,6 +297,75 @@ CREATE TRIGGER trg_update_penalite
     FOR EACH ROW
     EXECUTE FUNCTION update_penalite_on_retour();
 
+-- NOTIFICATIONS DE CHANGEMENT (invalidation des caches entre instances)
+
+-- Payload: 'table:OPERATION:id'
+-- (emprunts: 'emprunts:OPERATION:id_emprunt:livre_id:membre_id:date_retour_prevue:variation:date_emprunt',
+--  variation du nombre d'emprunts en cours à cette échéance: 1, -1 ou 0; sans les trois
+--  derniers champs si l'échéance a été modifiée)
+-- Un livre dont seul le stock change envoie 'livres:STOCK:id:stock'
+-- Les chargements massifs font SET LOCAL bibliotheque.notifications = 'off'
+-- puis envoient une seule notification 'table:IMPORT' (invalidation complète)
+CREATE OR REPLACE FUNCTION notifier_changement()
+RETURNS TRIGGER AS $$
+DECLARE
+    v_ligne RECORD;
+    v_payload TEXT;
+    v_variation INTEGER;
+BEGIN
+    IF current_setting('bibliotheque.notifications', true) = 'off' THEN
+        RETURN NULL;
+    END IF;
+
+    IF TG_OP = 'DELETE' THEN
+        v_ligne := OLD;
+    ELSE
+        v_ligne := NEW;
+    END IF;
+
+    IF TG_TABLE_NAME = 'emprunts' THEN
+        v_payload := 'emprunts:' || TG_OP || ':' || v_ligne.id_emprunt || ':' || v_ligne.livre_id || ':' || v_ligne.membre_id;
+        -- Échéancier des emprunts en cours tenu par l'application
+        -- (échéance modifiée: pas de variation, l'application recharge son échéancier)
+        IF TG_OP = 'INSERT' THEN
+            v_variation := CASE WHEN NEW.date_retour_effective IS NULL THEN 1 ELSE 0 END;
+        ELSIF TG_OP = 'DELETE' THEN
+            v_variation := CASE WHEN OLD.date_retour_effective IS NULL THEN -1 ELSE 0 END;
+        ELSIF NEW.date_retour_prevue = OLD.date_retour_prevue THEN
+            v_variation := (NEW.date_retour_effective IS NULL)::INTEGER - (OLD.date_retour_effective IS NULL)::INTEGER;
+        END IF;
+        IF v_variation IS NOT NULL THEN
+            v_payload := v_payload || ':' || to_char(v_ligne.date_retour_prevue, 'YYYY-MM-DD') || ':' || v_variation
+                         || ':' || to_char(v_ligne.date_emprunt, 'YYYY-MM-DD');
+        END IF;
+    ELSIF TG_TABLE_NAME = 'livres' AND TG_OP = 'UPDATE'
+          AND NEW.titre = OLD.titre AND NEW.auteur_id = OLD.auteur_id AND NEW.categorie_id = OLD.categorie_id THEN
+        -- Emprunt ou retour: le nouveau stock voyage avec la notification
+        v_payload := 'livres:STOCK:' || NEW.id || ':' || NEW.nombre_exemplaires;
+    ELSE
+        v_payload := TG_TABLE_NAME || ':' || TG_OP || ':' || v_ligne.id;
+    END IF;
+
+    PERFORM pg_notify('bibliotheque_changements', v_payload);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_notifier_livres
+    AFTER INSERT OR UPDATE OR DELETE ON livres
+    FOR EACH ROW
+    EXECUTE FUNCTION notifier_changement();
+
+CREATE TRIGGER trg_notifier_membres
+    AFTER INSERT OR UPDATE OR DELETE ON membres
+    FOR EACH ROW
+    EXECUTE FUNCTION notifier_changement();
+
+CREATE TRIGGER trg_notifier_emprunts
+    AFTER INSERT OR UPDATE OR DELETE ON emprunts
+    FOR EACH ROW
+    EXECUTE FUNCTION notifier_changement();
+
 -- REQUÊTES DE VÉRIFICATION
 
 -- Vérifier que les tables sont créées
@@ -250,6 +394,8 @@ SELECT * FROM vue_emprunts_en_retard;
 -- COMMENTAIRES SUR LES TABLES
 
 COMMENT ON TABLE livres IS 'Table contenant tous les livres de la bibliothèque';
+COMMENT ON TABLE categories IS 'Dictionnaire des catégories de livres';
+COMMENT ON TABLE auteurs IS 'Dictionnaire des auteurs';
 COMMENT ON TABLE membres IS 'Table contenant tous les membres inscrits';
 COMMENT ON TABLE emprunts IS 'Table contenant l''historique des emprunts';
 
@@ -262,7 +408,7 @@ COMMENT ON COLUMN emprunts.penalite IS 'Montant de la pénalité en F CFA (100 F
 DO $$
 BEGIN
     RAISE NOTICE '✓ Base de données bibliothèque_db créée avec succès!';
-    RAISE NOTICE '✓ 3 tables créées: livres, membres, emprunts';
+    RAISE NOTICE '✓ 5 tables créées: categories, auteurs, livres, membres, emprunts';
     RAISE NOTICE '✓ Données de test insérées';
     RAISE NOTICE '✓ Index créés pour optimisation';
     RAISE NOTICE '✓ Vues et fonctions créées';
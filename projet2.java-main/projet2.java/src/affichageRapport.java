@@ -0,0 +1,274 @@
+package com.bibliotheque.util;
+
+import com.bibliotheque.model.Emprunt;
+import com.bibliotheque.model.Livre;
+import com.bibliotheque.model.Membre;
+import java.io.PrintStream;
+import java.text.DecimalFormat;
+import java.time.LocalDate;
+
+/**
+ * Rendu des listes de livres, membres et emprunts pour la console.
+ * Tout le texte est accumulé dans un seul tampon et écrit en gros blocs
+ * (au plus tous les 64 Ko, et à la fin par terminer()), au lieu d'un
+ * println par champ. Le format des montants est créé une seule fois par
+ * rapport, et la date du jour est figée pour tout le rapport.
+ *
+ * Deux présentations: encadrée (fiche détaillée, comme afficherDetails)
+ * ou en tableau (une ligne par élément, pour les longues listes).
+ *
+ * Une instance n'est pas thread-safe: un rapport par affichage.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class AffichageRapport {
+    // Taille du tampon au-delà de laquelle le texte est écrit
+    private static final int TAILLE_TAMPON = 64 * 1024;
+
+    // Largeur des valeurs dans les fiches encadrées
+    private static final int LARGEUR_VALEUR = 19;
+
+    private final PrintStream sortie;
+    private final StringBuilder tampon = new StringBuilder(TAILLE_TAMPON + 1024);
+    private final DecimalFormat formatMontant = new DecimalFormat("0.00");
+    private final LocalDate aujourdhui = Dates.aujourdhui();
+
+    /**
+     * @param sortie Flux de destination (en général System.out)
+     */
+    public AffichageRapport(PrintStream sortie) {
+        this.sortie = sortie;
+    }
+
+    /**
+     * @return La date du jour utilisée pour les retards et pénalités du rapport
+     */
+    public LocalDate getAujourdhui() {
+        return aujourdhui;
+    }
+
+    /**
+     * Ajoute une ligne de texte libre.
+     */
+    public AffichageRapport ligne(String texte) {
+        tampon.append(texte).append('\n');
+        return verifierTampon();
+    }
+
+    /**
+     * Écrit tout le texte restant. À appeler à la fin du rapport.
+     */
+    public void terminer() {
+        vider();
+        sortie.flush();
+    }
+
+    // ==================== FICHES ENCADRÉES ====================
+
+    /**
+     * Fiche détaillée d'un livre.
+     */
+    public AffichageRapport livre(Livre livre) {
+        debutFiche("           DÉTAILS DU LIVRE             ");
+        champFiche("ID               : ", livre.getId());
+        champFiche("Titre            : ", livre.getTitre());
+        champFiche("Auteur           : ", livre.getAuteur());
+        champFiche("Catégorie        : ", livre.getCategorie());
+        champFiche("Exemplaires      : ", livre.getNombreExemplaires());
+        return finFiche();
+    }
+
+    /**
+     * Fiche détaillée d'un membre.
+     */
+    public AffichageRapport membre(Membre membre) {
+        debutFiche("          DÉTAILS DU MEMBRE             ");
+        champFiche("ID               : ", membre.getId());
+        champFiche("Nom              : ", membre.getNom());
+        champFiche("Prénom           : ", membre.getPrenom());
+        champFiche("Email            : ", membre.getEmail());
+        champFiche("Date d'adhésion  : ", date(membre.getAdhesionDate()));
+        return finFiche();
+    }
+
+    /**
+     * Fiche détaillée d'un emprunt. Retard et pénalité sont calculés
+     * par rapport à la date du jour du rapport.
+     */
+    public AffichageRapport emprunt(Emprunt emprunt) {
+        debutFiche("         DÉTAILS DE L'EMPRUNT           ");
+        champFiche("ID Emprunt       : ", emprunt.getIdEmprunt());
+        champFiche("ID Membre        : ", emprunt.getMembreId());
+        champFiche("ID Livre         : ", emprunt.getLivreId());
+        champFiche("Date emprunt     : ", date(emprunt.getDateEmprunt()));
+        champFiche("Retour prévu     : ", date(emprunt.getDateRetourPrevue()));
+        champFiche("Retour effectif  : ", emprunt.estRetourne()
+                ? date(emprunt.getDateRetourEffective()) : "Non retourné");
+        champFiche("Pénalité         : ", montant(emprunt.calculerPenalite(aujourdhui)));
+
+        if (emprunt.estEnRetard(aujourdhui)) {
+            tampon.append("║ ⚠️  STATUT        : EN RETARD          ║\n");
+            champFiche("Jours de retard  : ", emprunt.getJoursRetard(aujourdhui));
+        } else {
+            tampon.append("║ ✓ STATUT         : À JOUR              ║\n");
+        }
+        return finFiche();
+    }
+
+    // ==================== TABLEAUX ====================
+
+    /**
+     * En-tête du tableau des livres.
+     */
+    public AffichageRapport enteteLivres() {
+        colonne("ID", 6).colonne("Titre", 32).colonne("Auteur", 24).colonne("Catégorie", 16).colonne("Ex.", 4);
+        return finLigneTableau(82);
+    }
+
+    /**
+     * Ligne du tableau des livres.
+     */
+    public AffichageRapport ligneLivre(Livre livre) {
+        colonne(livre.getId(), 6).colonne(livre.getTitre(), 32).colonne(livre.getAuteur(), 24)
+                .colonne(livre.getCategorie(), 16).colonne(livre.getNombreExemplaires(), 4);
+        return finLigne();
+    }
+
+    /**
+     * En-tête du tableau des membres.
+     */
+    public AffichageRapport enteteMembres() {
+        colonne("ID", 6).colonne("Nom", 30).colonne("Email", 34).colonne("Adhésion", 10);
+        return finLigneTableau(80);
+    }
+
+    /**
+     * Ligne du tableau des membres.
+     */
+    public AffichageRapport ligneMembre(Membre membre) {
+        colonne(membre.getId(), 6).colonne(membre.getNomComplet(), 30).colonne(membre.getEmail(), 34)
+                .colonne(date(membre.getAdhesionDate()), 10);
+        return finLigne();
+    }
+
+    /**
+     * En-tête du tableau des emprunts.
+     */
+    public AffichageRapport enteteEmprunts() {
+        colonne("ID", 6).colonne("Membre", 22).colonne("Livre", 26).colonne("Emprunté", 10)
+                .colonne("Prévu", 10).colonne("Retourné", 10).colonne("Pénalité", 11).colonne("Statut", 6);
+        return finLigneTableau(108);
+    }
+
+    /**
+     * Ligne du tableau des emprunts.
+     *
+     * @param membre Le membre de l'emprunt (null si inconnu)
+     * @param livre Le livre de l'emprunt (null si inconnu)
+     */
+    public AffichageRapport ligneEmprunt(Emprunt emprunt, Membre membre, Livre livre) {
+        colonne(emprunt.getIdEmprunt(), 6)
+                .colonne(membre != null ? membre.getNomComplet() : "#" + emprunt.getMembreId(), 22)
+                .colonne(livre != null ? livre.getTitre() : "#" + emprunt.getLivreId(), 26)
+                .colonne(date(emprunt.getDateEmprunt()), 10)
+                .colonne(date(emprunt.getDateRetourPrevue()), 10)
+                .colonne(emprunt.estRetourne() ? date(emprunt.getDateRetourEffective()) : "-", 10)
+                .colonne(formatMontant.format(emprunt.calculerPenalite(aujourdhui)), 11)
+                .colonne(emprunt.estEnRetard(aujourdhui) ? "RETARD" : "", 6);
+        return finLigne();
+    }
+
+    // ==================== OUTILS ====================
+
+    private void debutFiche(String titre) {
+        tampon.append("\n╔════════════════════════════════════════╗\n")
+              .append("║").append(titre).append("║\n")
+              .append("╠════════════════════════════════════════╣\n");
+    }
+
+    private AffichageRapport finFiche() {
+        tampon.append("╚════════════════════════════════════════╝\n");
+        return verifierTampon();
+    }
+
+    private void champFiche(String libelle, String valeur) {
+        tampon.append("║ ").append(libelle);
+        remplir(valeur, LARGEUR_VALEUR);
+        tampon.append("║\n");
+    }
+
+    private void champFiche(String libelle, long valeur) {
+        champFiche(libelle, Long.toString(valeur));
+    }
+
+    private AffichageRapport colonne(String valeur, int largeur) {
+        remplir(valeur, largeur);
+        tampon.append(' ');
+        return this;
+    }
+
+    private AffichageRapport colonne(long valeur, int largeur) {
+        return colonne(Long.toString(valeur), largeur);
+    }
+
+    private AffichageRapport finLigne() {
+        // Pas d'espaces en fin de ligne
+        int fin = tampon.length();
+        while (fin > 0 && tampon.charAt(fin - 1) == ' ') {
+            fin--;
+        }
+        tampon.setLength(fin);
+        tampon.append('\n');
+        return verifierTampon();
+    }
+
+    private AffichageRapport finLigneTableau(int largeur) {
+        finLigne();
+        for (int i = 0; i < largeur; i++) {
+            tampon.append('─');
+        }
+        tampon.append('\n');
+        return this;
+    }
+
+    /**
+     * Ajoute la valeur alignée à gauche sur la largeur donnée,
+     * tronquée avec "..." si elle est trop longue.
+     */
+    private void remplir(String valeur, int largeur) {
+        if (valeur == null) {
+            valeur = "";
+        }
+        if (valeur.length() > largeur) {
+            tampon.append(valeur, 0, largeur - 3).append("...");
+            return;
+        }
+        tampon.append(valeur);
+        for (int i = valeur.length(); i < largeur; i++) {
+            tampon.append(' ');
+        }
+    }
+
+    private static String date(LocalDate date) {
+        return Dates.formater(date);
+    }
+
+    private String montant(double montant) {
+        return formatMontant.format(montant) + " F CFA";
+    }
+
+    private AffichageRapport verifierTampon() {
+        if (tampon.length() >= TAILLE_TAMPON) {
+            vider();
+        }
+        return this;
+    }
+
+    private void vider() {
+        if (tampon.length() > 0) {
+            sortie.print(tampon);
+            tampon.setLength(0);
+        }
+    }
+}
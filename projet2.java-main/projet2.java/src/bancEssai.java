@@ -0,0 +1,264 @@
+package com.bibliotheque;
+
+import com.bibliotheque.dao.EmpruntDAO;
+import com.bibliotheque.dao.LivreDAO;
+import com.bibliotheque.dao.MembreDAO;
+import com.bibliotheque.dao.Session;
+import com.bibliotheque.model.Emprunt;
+import com.bibliotheque.model.Livre;
+import com.bibliotheque.model.Membre;
+import com.bibliotheque.util.Json;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Banc d'essai des chemins critiques: calculs du modèle, sérialisation,
+ * lecture des lignes et opérations DAO principales.
+ *
+ * Chaque mesure enchaîne des tours de préchauffage (compilation JIT) puis
+ * des tours mesurés de durée fixe; le temps moyen par opération de chaque
+ * tour est retenu. Les résultats sont écrits en JSON (une mesure par ligne)
+ * pour comparer deux versions du programme, fichier contre fichier.
+ *
+ * Les opérations d'écriture (emprunt, retour) sont faites dans une Session
+ * jamais validée: la base n'est pas modifiée par le banc.
+ *
+ * Réglages: bibliotheque.banc.prechauffage (tours, 3 par défaut),
+ * bibliotheque.banc.tours (tours mesurés, 5), bibliotheque.banc.duree (ms par tour, 1000).
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class BancEssai {
+    private static final int PRECHAUFFAGE = Integer.getInteger("bibliotheque.banc.prechauffage", 3);
+    private static final int TOURS = Integer.getInteger("bibliotheque.banc.tours", 5);
+    private static final long DUREE_TOUR_NS = Long.getLong("bibliotheque.banc.duree", 1000L) * 1_000_000;
+
+    // Taille de page utilisée pour mesurer la lecture des lignes
+    private static final int TAILLE_PAGE = 100;
+
+    /**
+     * Opération mesurée. La valeur retournée est consommée par le banc pour
+     * que le JIT ne puisse pas supprimer le calcul.
+     */
+    @FunctionalInterface
+    interface Operation {
+        long executer() throws Exception;
+    }
+
+    /**
+     * Résultat d'une mesure, en nanosecondes par opération.
+     */
+    static class Resultat {
+        final String nom;
+        final double moyenne;
+        final double min;
+        final double max;
+        final double ecartType;
+
+        Resultat(String nom, double[] tours) {
+            this.nom = nom;
+            double somme = 0;
+            double mini = Double.MAX_VALUE;
+            double maxi = 0;
+            for (double t : tours) {
+                somme += t;
+                mini = Math.min(mini, t);
+                maxi = Math.max(maxi, t);
+            }
+            this.moyenne = somme / tours.length;
+            double variance = 0;
+            for (double t : tours) {
+                variance += (t - moyenne) * (t - moyenne);
+            }
+            this.ecartType = Math.sqrt(variance / tours.length);
+            this.min = mini;
+            this.max = maxi;
+        }
+    }
+
+    // Valeurs consommées (voir Operation)
+    private static volatile long puits;
+
+    private final List<Resultat> resultats = new ArrayList<>();
+
+    /**
+     * Lance toutes les mesures.
+     *
+     * @param avecBase false pour ne mesurer que le modèle (sans PostgreSQL)
+     * @param journal Progression et résultats lisibles
+     * @throws Exception si une opération échoue (le banc s'arrête)
+     */
+    public void executer(boolean avecBase, PrintStream journal) throws Exception {
+        mesurerModele(journal);
+        if (avecBase) {
+            mesurerDAO(journal);
+        }
+    }
+
+    private void mesurerModele(PrintStream journal) throws Exception {
+        LocalDate debut = LocalDate.of(2024, 1, 1);
+        Emprunt enRetard = new Emprunt(1, 1, 1, debut, debut.plusDays(Emprunt.DUREE_EMPRUNT_JOURS), null);
+        // Dates de retour variées: le JIT ne peut pas sortir le calcul de la boucle
+        LocalDate[] retours = new LocalDate[64];
+        for (int i = 0; i < retours.length; i++) {
+            retours[i] = debut.plusDays(i);
+        }
+        int[] suivant = {0};
+        Livre livre = new Livre(1, "Le Petit Prince", "Antoine de Saint-Exupéry", "Roman", 3);
+        StringBuilder sb = new StringBuilder(256);
+
+        mesurer("Emprunt.calculerPenalite", journal,
+                () -> Double.doubleToRawLongBits(enRetard.calculerPenalite(retours[suivant[0]++ & 63])));
+        mesurer("Emprunt.getJoursRetard", journal, () -> enRetard.getJoursRetard(retours[suivant[0]++ & 63]));
+        mesurer("Json.livre", journal, () -> {
+            sb.setLength(0);
+            return Json.livre(sb, livre).length();
+        });
+        mesurer("Json.emprunt", journal, () -> {
+            sb.setLength(0);
+            return Json.emprunt(sb, enRetard).length();
+        });
+    }
+
+    private void mesurerDAO(PrintStream journal) throws Exception {
+        LivreDAO livreDAO = new LivreDAO();
+        MembreDAO membreDAO = new MembreDAO();
+        EmpruntDAO empruntDAO = new EmpruntDAO();
+
+        List<Livre> livres = livreDAO.getPageLivres(null, null, 0, TAILLE_PAGE);
+        List<Membre> membres = membreDAO.getPageMembres(null, null, 0, 1);
+        Livre disponible = null;
+        for (Livre livre : livres) {
+            if (livre.getNombreExemplaires() > 0) {
+                disponible = livre;
+                break;
+            }
+        }
+        if (disponible == null || membres.isEmpty()) {
+            journal.println("⚠️  Mesures DAO ignorées: il faut au moins un membre et un livre disponible.");
+            return;
+        }
+
+        int livreId = disponible.getId();
+        int membreId = membres.get(0).getId();
+        String titre = motCle(disponible.getTitre());
+        String auteur = motCle(disponible.getAuteur());
+
+        mesurer("LivreDAO.getLivreById", journal, () -> livreDAO.getLivreById(livreId).getId());
+        mesurer("LivreDAO.getPageLivres(" + TAILLE_PAGE + ")", journal,
+                () -> livreDAO.getPageLivres(null, null, 0, TAILLE_PAGE).size());
+        mesurer("LivreDAO.rechercherParTitre", journal, () -> livreDAO.rechercherParTitre(titre).size());
+        mesurer("LivreDAO.rechercherParAuteur", journal, () -> livreDAO.rechercherParAuteur(auteur).size());
+        mesurer("EmpruntDAO.getEmpruntsEnCours", journal, () -> empruntDAO.getEmpruntsEnCours().size());
+        mesurer("EmpruntDAO.enregistrerEmprunt+Retour (annulés)", journal, () -> {
+            try (Session session = Session.ouvrir()) {
+                Emprunt emprunt = Emprunt.nouveau(membreId, livreId);
+                if (!session.emprunter(emprunt)) {
+                    throw new IllegalStateException("Livre " + livreId + " plus disponible");
+                }
+                return session.retourner(emprunt.getIdEmprunt(), emprunt.getDateRetourPrevue()).getIdEmprunt();
+            }
+        });
+    }
+
+    /**
+     * Mesure une opération: préchauffage, puis TOURS tours de durée fixe.
+     */
+    private void mesurer(String nom, PrintStream journal, Operation operation) throws Exception {
+        journal.print("  " + nom + "... ");
+        journal.flush();
+
+        for (int i = 0; i < PRECHAUFFAGE; i++) {
+            mesurerTour(operation);
+        }
+        double[] tours = new double[TOURS];
+        for (int i = 0; i < TOURS; i++) {
+            tours[i] = mesurerTour(operation);
+        }
+
+        Resultat resultat = new Resultat(nom, tours);
+        resultats.add(resultat);
+        journal.printf("%s ± %s%n", formater(resultat.moyenne), formater(resultat.ecartType));
+    }
+
+    // Temps moyen par opération (ns) pendant DUREE_TOUR_NS
+    private static double mesurerTour(Operation operation) throws Exception {
+        long operations = 0;
+        long lot = 1;
+        long cumul = 0;
+        long debut = System.nanoTime();
+        long ecoule;
+        do {
+            for (long i = 0; i < lot; i++) {
+                cumul += operation.executer();
+            }
+            operations += lot;
+            ecoule = System.nanoTime() - debut;
+            // Opérations rapides: lire l'horloge moins souvent
+            if (ecoule < DUREE_TOUR_NS / 100) {
+                lot *= 2;
+            }
+        } while (ecoule < DUREE_TOUR_NS);
+        puits += cumul;
+        return (double) ecoule / operations;
+    }
+
+    /**
+     * Écrit les résultats en JSON, une mesure par ligne (différences lisibles
+     * d'une version à l'autre).
+     */
+    public void ecrireJson(Writer sortie) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"java\":");
+        Json.chaine(sb, System.getProperty("java.version"));
+        sb.append(",\"date\":");
+        Json.chaine(sb, OffsetDateTime.now().withNano(0).toString());
+        sb.append(",\"prechauffage\":").append(PRECHAUFFAGE)
+          .append(",\"tours\":").append(TOURS)
+          .append(",\"duree_tour_ms\":").append(DUREE_TOUR_NS / 1_000_000)
+          .append(",\"unite\":\"ns/op\",\"resultats\":[");
+        for (int i = 0; i < resultats.size(); i++) {
+            Resultat r = resultats.get(i);
+            sb.append(i == 0 ? "\n" : ",\n").append("{\"nom\":");
+            Json.chaine(sb, r.nom);
+            sb.append(",\"moyenne\":").append(arrondir(r.moyenne))
+              .append(",\"ecart_type\":").append(arrondir(r.ecartType))
+              .append(",\"min\":").append(arrondir(r.min))
+              .append(",\"max\":").append(arrondir(r.max))
+              .append('}');
+        }
+        sb.append("\n]}\n");
+        sortie.write(sb.toString());
+        sortie.flush();
+    }
+
+    // Premier mot d'au moins 3 lettres, pour une recherche partielle réaliste
+    private static String motCle(String texte) {
+        for (String mot : texte.split("\\s+")) {
+            if (mot.length() >= 3) {
+                return mot;
+            }
+        }
+        return texte;
+    }
+
+    private static double arrondir(double ns) {
+        return Math.round(ns * 10) / 10.0;
+    }
+
+    private static String formater(double ns) {
+        if (ns >= 1_000_000) {
+            return String.format("%.2f ms", ns / 1_000_000);
+        }
+        if (ns >= 1_000) {
+            return String.format("%.2f µs", ns / 1_000);
+        }
+        return String.format("%.1f ns", ns);
+    }
+}
@@ -2,13 +2,38 @@ package com.bibliotheque;
 
 import com.bibliotheque.dao.*;
 import com.bibliotheque.model.*;
+import com.bibliotheque.util.AffichageRapport;
 import com.bibliotheque.util.DatabaseConnection;
+import com.bibliotheque.util.Dates;
+import com.bibliotheque.util.EntiersParId;
+import com.bibliotheque.util.TableParId;
+import com.bibliotheque.util.Traces;
 
-import java.text.SimpleDateFormat;
-import java.util.Calendar;
-import java.util.Date;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.ToIntFunction;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Application principale de gestion de bibliothèque.
@@ -25,14 +50,60 @@ public class BibliothequeApp {
     private static final LivreDAO livreDAO = new LivreDAO();
     private static final MembreDAO membreDAO = new MembreDAO();
     private static final EmpruntDAO empruntDAO = new EmpruntDAO();
+    private static final StatistiquesDAO statistiquesDAO = new StatistiquesDAO();
     
-    // Format de date
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
+    // Façade asynchrone pour lancer des lectures indépendantes en parallèle
+    private static final DAOAsynchrone daoAsync = new DAOAsynchrone(livreDAO, membreDAO, empruntDAO);
+    
+    // Au-delà de ce nombre d'éléments, les listes sont affichées en tableau
+    private static final int SEUIL_TABLEAU = 20;
+    
+    // Point d'accès Prometheus, si -Dbibliotheque.metriques.port est donné
+    private static MetriquesPrometheus metriques;
     
     /**
      * Point d'entrée principal de l'application.
+     * Options: --serveur [port] pour lancer l'API HTTP au lieu du menu,
+     * --batch [fichier] [--lot N] pour exécuter des commandes sans interaction,
+     * --import livres|membres fichier [--tsv] [--entete] pour un import massif,
+     * --export emprunts|livres fichier [--ndjson] [--gzip] pour un export en flux,
+     * --banc [fichier.json] [--sans-base] pour mesurer les chemins critiques,
+     * --generer livres membres emprunts [--graine N] [--annees N] [--retards T] [--date AAAA-MM-JJ]
+     * pour remplir la base de données synthétiques,
+     * --charge [--clients N] [--duree S] [--debit OP/S] [--pause MS] [--melange R,E,T,L] [--livres N]
+     * pour un essai de charge de la circulation,
+     * --plans pour vérifier les plans d'exécution des requêtes DAO.
+     * -Dbibliotheque.traces=fichier trace chaque action (menu ou requête HTTP).
      */
     public static void main(String[] args) {
+        demarrerMetriques();
+        
+        if (args.length > 0 && args[0].equals("--serveur")) {
+            lancerServeur(args);
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--batch")) {
+            System.exit(lancerBatch(args));
+        }
+        if (args.length > 0 && args[0].equals("--import")) {
+            System.exit(lancerImport(args));
+        }
+        if (args.length > 0 && args[0].equals("--export")) {
+            System.exit(lancerExport(args));
+        }
+        if (args.length > 0 && args[0].equals("--banc")) {
+            System.exit(lancerBanc(args));
+        }
+        if (args.length > 0 && args[0].equals("--generer")) {
+            System.exit(lancerGeneration(args));
+        }
+        if (args.length > 0 && args[0].equals("--charge")) {
+            System.exit(lancerCharge(args));
+        }
+        if (args.length > 0 && args[0].equals("--plans")) {
+            System.exit(lancerPlans());
+        }
+        
         afficherBanniere();
         
         // Tester la connexion à la base de données
@@ -41,9 +112,13 @@ public class BibliothequeApp {
             System.err.println("  Vérifiez que PostgreSQL est démarré et configuré correctement.");
             System.err.println("  Appuyez sur Entrée pour quitter...");
             scanner.nextLine();
+            arreterMetriques();
             return;
         }
         
+        // Invalidation des caches locaux sur les changements des autres instances
+        EcouteurChangements.demarrer();
+        
         boolean continuer = true;
         
         while (continuer) {
@@ -62,13 +137,13 @@ public class BibliothequeApp {
                     gererEmprunts();
                     break;
                 case 4:
-                    rechercherLivres();
+                    tracer("rechercherLivres", BibliothequeApp::rechercherLivres);
                     break;
                 case 5:
-                    afficherEmpruntsEnRetard();
+                    tracer("afficherEmpruntsEnRetard", BibliothequeApp::afficherEmpruntsEnRetard);
                     break;
                 case 6:
-                    afficherStatistiques();
+                    tracer("afficherStatistiques", BibliothequeApp::afficherStatistiques);
                     break;
                 case 0:
                     continuer = false;
@@ -84,9 +159,488 @@ public class BibliothequeApp {
             }
         }
         
+        EcouteurChangements.arreter();
+        arreterMetriques();
+        daoAsync.fermer();
         scanner.close();
     }
     
+    /**
+     * Démarre le point d'accès /metrics (format Prometheus) sur le port donné
+     * par -Dbibliotheque.metriques.port, quel que soit le mode de lancement.
+     */
+    private static void demarrerMetriques() {
+        int port = Integer.getInteger("bibliotheque.metriques.port", 0);
+        if (port <= 0) {
+            return;
+        }
+        try {
+            metriques = new MetriquesPrometheus(port);
+            metriques.demarrer();
+        } catch (IOException e) {
+            System.err.println("✗ Impossible de démarrer les métriques sur le port " + port + ": " + e.getMessage());
+        }
+    }
+    
+    private static void arreterMetriques() {
+        if (metriques != null) {
+            metriques.arreter();
+            metriques = null;
+        }
+    }
+    
+    /**
+     * Lance le mode serveur HTTP (API JSON) au lieu du menu interactif.
+     * 
+     * @param args Arguments de la ligne de commande (--serveur [port])
+     */
+    private static void lancerServeur(String[] args) {
+        int port = ServeurHttp.PORT_DEFAUT;
+        if (args.length > 1) {
+            try {
+                port = Integer.parseInt(args[1]);
+            } catch (NumberFormatException e) {
+                System.err.println("✗ Port invalide: " + args[1]);
+                return;
+            }
+        }
+        
+        if (!DatabaseConnection.testConnection()) {
+            System.err.println("\n✗ Impossible de se connecter à la base de données.");
+            return;
+        }
+        
+        EcouteurChangements.demarrer();
+        
+        // Rappels: emprunts passés en retard, signalés une fois à minuit par l'échéancier
+        EcheancierEmprunts.surRetard(emprunts -> {
+            for (Emprunt emprunt : emprunts) {
+                System.out.println("🔔 Emprunt " + emprunt.getIdEmprunt() + " en retard, échéance du " +
+                                   Dates.formater(emprunt.getDateRetourPrevue()) + " (membre " +
+                                   emprunt.getMembreId() + ", livre " + emprunt.getLivreId() + ")");
+            }
+        });
+        
+        // Grandes collections: catalogue hors tas (-Dbibliotheque.catalogue.colonnes=true)
+        if (Boolean.getBoolean("bibliotheque.catalogue.colonnes")) {
+            LivreDAO.chargerCatalogue();
+        }
+        
+        // Résumé périodique des latences DAO sur stderr (-Dbibliotheque.mesures.journal=60)
+        long periodeMesures = Long.getLong("bibliotheque.mesures.journal", 0);
+        if (periodeMesures > 0) {
+            MesureDAO.demarrerJournal(periodeMesures);
+        }
+        
+        try {
+            ServeurHttp serveur = new ServeurHttp(port);
+            serveur.demarrer();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                serveur.arreter();
+                EcouteurChangements.arreter();
+                MesureDAO.arreterJournal();
+            }));
+        } catch (IOException e) {
+            System.err.println("✗ Impossible de démarrer le serveur HTTP: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Lance le mode batch: commandes lues depuis un fichier (ou l'entrée
+     * standard si absent ou "-"), résultats NDJSON sur la sortie standard.
+     * 
+     * @param args Arguments de la ligne de commande (--batch [fichier] [--lot N])
+     * @return Code de sortie: 0 si tout a réussi, 1 sinon, 2 si erreur de démarrage
+     */
+    private static int lancerBatch(String[] args) {
+        String fichier = "-";
+        int tailleLot = TraitementLots.TAILLE_LOT_DEFAUT;
+        
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--lot") && i + 1 < args.length) {
+                try {
+                    tailleLot = Integer.parseInt(args[++i]);
+                } catch (NumberFormatException e) {
+                    System.err.println("✗ Taille de lot invalide: " + args[i]);
+                    return 2;
+                }
+            } else {
+                fichier = args[i];
+            }
+        }
+        
+        // Les résultats vont sur la vraie sortie standard; tous les autres
+        // messages (connexion, erreurs DAO) sont redirigés vers stderr
+        PrintStream sortieStandard = System.out;
+        System.setOut(System.err);
+        
+        if (!DatabaseConnection.testConnection()) {
+            System.err.println("✗ Impossible de se connecter à la base de données.");
+            return 2;
+        }
+        
+        try (InputStream flux = fichier.equals("-") ? System.in : new FileInputStream(fichier);
+             BufferedReader entree = new BufferedReader(new InputStreamReader(flux, StandardCharsets.UTF_8), 64 * 1024)) {
+            
+            Writer sortie = new BufferedWriter(new OutputStreamWriter(sortieStandard, StandardCharsets.UTF_8), 64 * 1024);
+            boolean succes = new TraitementLots(sortie, tailleLot).executer(entree);
+            return succes ? 0 : 1;
+            
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("✗ Erreur du mode batch: " + e.getMessage());
+            return 2;
+        }
+    }
+    
+    /**
+     * Lance un import massif de livres ou de membres depuis un fichier CSV
+     * (séparateur ',' ou ';' détecté sur la première ligne) ou TSV.
+     * Les lignes rejetées sont écrites dans "fichier.rejets".
+     * 
+     * @param args Arguments de la ligne de commande (--import livres|membres fichier [--tsv] [--entete])
+     * @return Code de sortie: 0 si aucune ligne rejetée, 1 sinon, 2 si l'import a échoué
+     */
+    private static int lancerImport(String[] args) {
+        ImportMassif.Cible cible = null;
+        String fichier = null;
+        boolean tsv = false;
+        boolean entete = false;
+        
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--tsv")) {
+                tsv = true;
+            } else if (args[i].equals("--entete")) {
+                entete = true;
+            } else if (cible == null && args[i].equals("livres")) {
+                cible = ImportMassif.Cible.LIVRES;
+            } else if (cible == null && args[i].equals("membres")) {
+                cible = ImportMassif.Cible.MEMBRES;
+            } else {
+                fichier = args[i];
+            }
+        }
+        
+        if (cible == null || fichier == null) {
+            System.err.println("Usage: --import livres|membres fichier [--tsv] [--entete]");
+            return 2;
+        }
+        
+        if (!DatabaseConnection.testConnection()) {
+            System.err.println("✗ Impossible de se connecter à la base de données.");
+            return 2;
+        }
+        
+        try (BufferedReader entree = new BufferedReader(
+                 new InputStreamReader(new FileInputStream(fichier), StandardCharsets.UTF_8), 64 * 1024);
+             Writer rejets = new BufferedWriter(
+                 new OutputStreamWriter(new FileOutputStream(fichier + ".rejets"), StandardCharsets.UTF_8))) {
+            
+            char separateur = '\t';
+            if (!tsv) {
+                // Détection du séparateur CSV sur la première ligne
+                entree.mark(64 * 1024);
+                String premiere = entree.readLine();
+                entree.reset();
+                separateur = premiere != null && premiere.indexOf(';') >= 0 && premiere.indexOf(',') < 0 ? ';' : ',';
+            }
+            
+            ImportMassif.Rapport rapport = new ImportMassif(separateur, entete)
+                    .importer(cible, entree, System.err, rejets);
+            System.out.println("✓ " + rapport);
+            if (rapport.getRejets() > 0) {
+                System.out.println("  Lignes rejetées: voir " + fichier + ".rejets");
+                return 1;
+            }
+            return 0;
+            
+        } catch (IOException | SQLException e) {
+            System.err.println("✗ Import annulé: " + e.getMessage());
+            return 2;
+        }
+    }
+    
+    /**
+     * Lance un export en flux de l'historique des emprunts ou du catalogue,
+     * vers un fichier ou la sortie standard ("-"). Le fichier est compressé
+     * en gzip avec --gzip ou si son nom se termine par ".gz".
+     * 
+     * @param args Arguments de la ligne de commande (--export emprunts|livres fichier [--ndjson] [--gzip])
+     * @return Code de sortie: 0 si l'export a réussi, 2 sinon
+     */
+    private static int lancerExport(String[] args) {
+        ExportDonnees.Source source = null;
+        String fichier = null;
+        ExportDonnees.Format format = ExportDonnees.Format.CSV;
+        boolean gzip = false;
+        
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--ndjson")) {
+                format = ExportDonnees.Format.NDJSON;
+            } else if (args[i].equals("--gzip")) {
+                gzip = true;
+            } else if (source == null && args[i].equals("emprunts")) {
+                source = ExportDonnees.Source.EMPRUNTS;
+            } else if (source == null && args[i].equals("livres")) {
+                source = ExportDonnees.Source.LIVRES;
+            } else {
+                fichier = args[i];
+            }
+        }
+        
+        if (source == null || fichier == null) {
+            System.err.println("Usage: --export emprunts|livres fichier|- [--ndjson] [--gzip]");
+            return 2;
+        }
+        gzip = gzip || fichier.endsWith(".gz");
+        
+        // Seules les données vont sur la sortie standard
+        PrintStream sortieStandard = System.out;
+        System.setOut(System.err);
+        
+        if (!DatabaseConnection.testConnection()) {
+            System.err.println("✗ Impossible de se connecter à la base de données.");
+            return 2;
+        }
+        
+        OutputStream flux = null;
+        try {
+            flux = fichier.equals("-") ? sortieStandard : new FileOutputStream(fichier);
+            flux = gzip ? new GZIPOutputStream(flux, 64 * 1024) : new BufferedOutputStream(flux, 64 * 1024);
+            Writer sortie = new OutputStreamWriter(flux, StandardCharsets.UTF_8);
+            
+            long debut = System.nanoTime();
+            long lignes = new ExportDonnees(format).exporter(source, sortie, System.err);
+            sortie.close();
+            
+            System.err.println("✓ " + lignes + " lignes exportées en "
+                    + (System.nanoTime() - debut) / 1_000_000 + " ms");
+            return 0;
+            
+        } catch (IOException | SQLException e) {
+            System.err.println("✗ Export interrompu: " + e.getMessage());
+            if (flux != null) {
+                try {
+                    flux.close();
+                } catch (IOException ignoree) {
+                    // Le message d'erreur principal a déjà été affiché
+                }
+            }
+            return 2;
+        }
+    }
+    
+    /**
+     * Lance le banc d'essai et écrit les résultats en JSON dans un fichier
+     * (ou sur la sortie standard si absent ou "-"), pour comparer deux versions.
+     * 
+     * @param args Arguments de la ligne de commande (--banc [fichier.json] [--sans-base])
+     * @return Code de sortie: 0 si toutes les mesures ont abouti, 2 sinon
+     */
+    private static int lancerBanc(String[] args) {
+        String fichier = "-";
+        boolean avecBase = true;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--sans-base")) {
+                avecBase = false;
+            } else {
+                fichier = args[i];
+            }
+        }
+        
+        // Seuls les résultats vont sur la sortie standard
+        PrintStream sortieStandard = System.out;
+        System.setOut(System.err);
+        
+        if (avecBase && !DatabaseConnection.testConnection()) {
+            System.err.println("✗ Impossible de se connecter à la base de données (--sans-base pour le modèle seul).");
+            return 2;
+        }
+        
+        BancEssai banc = new BancEssai();
+        try {
+            banc.executer(avecBase, System.err);
+            
+            if (fichier.equals("-")) {
+                banc.ecrireJson(new OutputStreamWriter(sortieStandard, StandardCharsets.UTF_8));
+            } else {
+                try (Writer sortie = new OutputStreamWriter(new FileOutputStream(fichier), StandardCharsets.UTF_8)) {
+                    banc.ecrireJson(sortie);
+                }
+                System.err.println("✓ Résultats écrits dans " + fichier);
+            }
+            return 0;
+            
+        } catch (Exception e) {
+            System.err.println("✗ Banc d'essai interrompu: " + e.getMessage());
+            return 2;
+        }
+    }
+    
+    /**
+     * Remplit la base de données synthétiques pour les essais à grande échelle.
+     * La date du jour peut être fixée (--date) pour reproduire exactement
+     * une génération avec la même graine.
+     * 
+     * @param args Arguments de la ligne de commande
+     *             (--generer livres membres emprunts [--graine N] [--annees N] [--retards T] [--date AAAA-MM-JJ])
+     * @return Code de sortie: 0 si la génération a réussi, 2 sinon
+     */
+    private static int lancerGeneration(String[] args) {
+        List<String> volumes = new ArrayList<>();
+        long graine = 42;
+        int annees = 3;
+        double retards = 0.15;
+        try {
+            for (int i = 1; i < args.length; i++) {
+                if (args[i].equals("--graine") && i + 1 < args.length) {
+                    graine = Long.parseLong(args[++i]);
+                } else if (args[i].equals("--annees") && i + 1 < args.length) {
+                    annees = Integer.parseInt(args[++i]);
+                } else if (args[i].equals("--retards") && i + 1 < args.length) {
+                    retards = Double.parseDouble(args[++i]);
+                } else if (args[i].equals("--date") && i + 1 < args.length) {
+                    LocalDate date = LocalDate.parse(args[++i]);
+                    Dates.setHorloge(Clock.fixed(date.atStartOfDay(ZoneId.systemDefault()).toInstant(),
+                                                 ZoneId.systemDefault()));
+                } else {
+                    volumes.add(args[i]);
+                }
+            }
+            if (volumes.size() != 3) {
+                throw new IllegalArgumentException("trois volumes attendus");
+            }
+            
+            GenerateurDonnees generateur = new GenerateurDonnees(graine);
+            generateur.setAnnees(annees);
+            generateur.setTauxRetard(retards);
+            int livres = Integer.parseInt(volumes.get(0));
+            int membres = Integer.parseInt(volumes.get(1));
+            long emprunts = Long.parseLong(volumes.get(2));
+            
+            if (!DatabaseConnection.testConnection()) {
+                System.err.println("✗ Impossible de se connecter à la base de données.");
+                return 2;
+            }
+            System.out.println("✓ " + generateur.generer(livres, membres, emprunts, System.err));
+            return 0;
+            
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.err.println("Usage: --generer livres membres emprunts [--graine N] [--annees N] " +
+                               "[--retards 0.15] [--date AAAA-MM-JJ]");
+            return 2;
+            
+        } catch (SQLException e) {
+            System.err.println("✗ Génération annulée: " + e.getMessage());
+            return 2;
+        }
+    }
+    
+    /**
+     * Lance un essai de charge de la circulation (recherches, emprunts,
+     * retours, listes) et affiche débits, latences, conflits et erreurs.
+     * 
+     * @param args Arguments de la ligne de commande (--charge [--clients N] [--duree S]
+     *             [--debit OP/S] [--pause MS] [--melange R,E,T,L] [--livres N])
+     * @return Code de sortie: 0 si les stocks sont restés cohérents, 1 sinon, 2 en cas d'erreur
+     */
+    private static int lancerCharge(String[] args) {
+        ChargeCirculation charge = new ChargeCirculation();
+        try {
+            for (int i = 1; i < args.length; i++) {
+                String valeur = i + 1 < args.length ? args[i + 1] : "";
+                switch (args[i]) {
+                    case "--clients":
+                        charge.setClients(Integer.parseInt(valeur));
+                        break;
+                    case "--duree":
+                        charge.setDureeSecondes(Integer.parseInt(valeur));
+                        break;
+                    case "--debit":
+                        charge.setDebit(Double.parseDouble(valeur));
+                        break;
+                    case "--pause":
+                        charge.setPauseMs(Long.parseLong(valeur));
+                        break;
+                    case "--livres":
+                        charge.setTailleEchantillon(Integer.parseInt(valeur));
+                        break;
+                    case "--melange":
+                        String[] poids = valeur.split(",");
+                        if (poids.length != 4) {
+                            throw new IllegalArgumentException("mélange attendu: recherche,emprunt,retour,liste");
+                        }
+                        charge.setMelange(Integer.parseInt(poids[0]), Integer.parseInt(poids[1]),
+                                          Integer.parseInt(poids[2]), Integer.parseInt(poids[3]));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("option inconnue: " + args[i]);
+                }
+                i++;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("✗ " + e.getMessage());
+            System.err.println("Usage: --charge [--clients N] [--duree S] [--debit OP/S] [--pause MS] " +
+                               "[--melange R,E,T,L] [--livres N]");
+            return 2;
+        }
+        
+        if (!DatabaseConnection.testConnection()) {
+            System.err.println("✗ Impossible de se connecter à la base de données.");
+            return 2;
+        }
+        
+        try {
+            return charge.executer(System.out) == 0 ? 0 : 1;
+        } catch (IllegalStateException e) {
+            System.err.println("✗ " + e.getMessage());
+            return 2;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 2;
+        }
+    }
+    
+    /**
+     * Vérifie les plans d'exécution des requêtes DAO (index utilisés,
+     * parcours séquentiels, lignes et temps) sur la base courante, de
+     * préférence remplie à l'échelle avec --generer.
+     * 
+     * @return Code de sortie: 0 si tous les plans sont conformes, 1 sinon, 2 en cas d'erreur
+     */
+    private static int lancerPlans() {
+        if (!DatabaseConnection.testConnection()) {
+            System.err.println("✗ Impossible de se connecter à la base de données.");
+            return 2;
+        }
+        
+        try {
+            return new VerificationPlans().verifier(System.out) == 0 ? 0 : 1;
+        } catch (IllegalStateException e) {
+            System.err.println("✗ " + e.getMessage());
+            return 2;
+        } catch (SQLException e) {
+            System.err.println("✗ Vérification annulée: " + e.getMessage());
+            return 2;
+        }
+    }
+    
+    /**
+     * Exécute une action du menu sous le segment racine de sa trace
+     * (saisies de l'utilisateur comprises), si les traces sont actives.
+     * 
+     * @param action Nom de l'action, par exemple "afficherEmpruntsEnRetard"
+     * @param execution L'action
+     */
+    private static void tracer(String action, Runnable execution) {
+        Traces.Segment segment = Traces.demarrer("menu." + action);
+        try {
+            execution.run();
+        } finally {
+            segment.close();
+        }
+    }
+    
     /**
      * Affiche la bannière de démarrage.
      */
@@ -139,19 +693,19 @@ public class BibliothequeApp {
         
         switch (choix) {
             case 1:
-                ajouterLivre();
+                tracer("ajouterLivre", BibliothequeApp::ajouterLivre);
                 break;
             case 2:
-                modifierLivre();
+                tracer("modifierLivre", BibliothequeApp::modifierLivre);
                 break;
             case 3:
-                supprimerLivre();
+                tracer("supprimerLivre", BibliothequeApp::supprimerLivre);
                 break;
             case 4:
-                afficherTousLesLivres();
+                tracer("afficherTousLesLivres", BibliothequeApp::afficherTousLesLivres);
                 break;
             case 5:
-                afficherLivresDisponibles();
+                tracer("afficherLivresDisponibles", BibliothequeApp::afficherLivresDisponibles);
                 break;
         }
     }
@@ -281,19 +835,19 @@ public class BibliothequeApp {
         }
     }
     /**
-     * Affiche tous les livres.
+     * Affiche tous les livres, page par page.
      */
     private static void afficherTousLesLivres() {
-        System.out.println("═══════════ TOUS LES LIVRES ═══════════");
-        List<Livre> livres = livreDAO.afficherTousLivres();
-        
-        if (livres.isEmpty()) {
+        Pagineur<Livre> pagineur = new Pagineur<>("TOUS LES LIVRES", daoAsync::getPageLivresAsync,
+                Livre::getId, (rapport, livres) -> {
+                    rapport.enteteLivres();
+                    for (Livre livre : livres) {
+                        rapport.ligneLivre(livre);
+                    }
+                }, scanner, Pagineur.TAILLE_PAGE_DEFAUT);
+        
+        if (!pagineur.parcourir()) {
             System.out.println("📭 Aucun livre dans la bibliothèque.");
-        } else {
-            System.out.println("📚 Nombre total de livres: " + livres.size());
-            for (Livre livre : livres) {
-                livre.afficherDetails();
-            }
         }
     }
     
@@ -308,9 +862,7 @@ public class BibliothequeApp {
             System.out.println("📭 Aucun livre disponible actuellement.");
         } else {
             System.out.println("✅ Nombre de livres disponibles: " + livres.size());
-            for (Livre livre : livres) {
-                livre.afficherDetails();
-            }
+            afficherListeLivres(livres);
         }
     }
     
@@ -333,16 +885,16 @@ public class BibliothequeApp {
         
         switch (choix) {
             case 1:
-                ajouterMembre();
+                tracer("ajouterMembre", BibliothequeApp::ajouterMembre);
                 break;
             case 2:
-                supprimerMembre();
+                tracer("supprimerMembre", BibliothequeApp::supprimerMembre);
                 break;
             case 3:
-                rechercherMembre();
+                tracer("rechercherMembre", BibliothequeApp::rechercherMembre);
                 break;
             case 4:
-                afficherTousLesMembres();
+                tracer("afficherTousLesMembres", BibliothequeApp::afficherTousLesMembres);
                 break;
         }
     }
@@ -389,7 +941,7 @@ public class BibliothequeApp {
         if (membreDAO.ajouterMembre(membre)) {
             System.out.println("\n✅ Membre inscrit avec succès!");
             System.out.println("   ID attribué: " + membre.getId());
-            System.out.println("   Date d'adhésion: " + dateFormat.format(membre.getAdhesionDate()));
+            System.out.println("   Date d'adhésion: " + Dates.formater(membre.getAdhesionDate()));
         } else {
             System.out.println("\n❌ Erreur lors de l'inscription.");
         }
@@ -414,7 +966,7 @@ public class BibliothequeApp {
         // Vérifier si le membre a des emprunts en cours
         List<Emprunt> empruntsEnCours = empruntDAO.getEmpruntsByMembre(id);
         long empruntsActifs = empruntsEnCours.stream()
-            .filter(e -> e.getDateRetourEffective() == null)
+            .filter(e -> !e.estRetourne())
             .count();
         
         if (empruntsActifs > 0) {
@@ -454,26 +1006,24 @@ public class BibliothequeApp {
             System.out.println("❌ Aucun membre trouvé avec ce nom.");
         } else {
             System.out.println("\n✅ " + membres.size() + " membre(s) trouvé(s):");
-            for (Membre membre : membres) {
-                membre.afficherDetails();
-            }
+            afficherListeMembres(membres);
         }
     }
     
     /**
-     * Affiche tous les membres.
+     * Affiche tous les membres, page par page.
      */
     private static void afficherTousLesMembres() {
-        System.out.println("═══════════ TOUS LES MEMBRES ═══════════");
-        List<Membre> membres = membreDAO.afficherTousMembres();
-        
-        if (membres.isEmpty()) {
+        Pagineur<Membre> pagineur = new Pagineur<>("TOUS LES MEMBRES", daoAsync::getPageMembresAsync,
+                Membre::getId, (rapport, membres) -> {
+                    rapport.enteteMembres();
+                    for (Membre membre : membres) {
+                        rapport.ligneMembre(membre);
+                    }
+                }, scanner, Pagineur.TAILLE_PAGE_DEFAUT);
+        
+        if (!pagineur.parcourir()) {
             System.out.println("📭 Aucun membre inscrit.");
-        } else {
-            System.out.println("👥 Nombre total de membres: " + membres.size());
-            for (Membre membre : membres) {
-                membre.afficherDetails();
-            }
         }
     }
     
@@ -496,16 +1046,16 @@ public class BibliothequeApp {
         
         switch (choix) {
             case 1:
-                enregistrerEmprunt();
+                tracer("enregistrerEmprunt", BibliothequeApp::enregistrerEmprunt);
                 break;
             case 2:
-                enregistrerRetour();
+                tracer("enregistrerRetour", BibliothequeApp::enregistrerRetour);
                 break;
             case 3:
-                afficherEmpruntsEnCours();
+                tracer("afficherEmpruntsEnCours", BibliothequeApp::afficherEmpruntsEnCours);
                 break;
             case 4:
-                afficherHistoriqueEmprunts();
+                tracer("afficherHistoriqueEmprunts", BibliothequeApp::afficherHistoriqueEmprunts);
                 break;
         }
     }
@@ -527,39 +1077,45 @@ public class BibliothequeApp {
         System.out.println("\n👤 Membre: " + membre.getNomComplet());
         
         int livreId = lireEntier("🔢 ID du livre: ");
-        Livre livre = livreDAO.getLivreById(livreId);
-        
-        if (livre == null) {
-            System.out.println("❌ Aucun livre trouvé avec l'ID " + livreId);
-            return;
-        }
         
-        System.out.println("📖 Livre: " + livre.getTitre());
-        System.out.println("✍️  Auteur: " + livre.getAuteur());
-        System.out.println("📊 Exemplaires disponibles: " + livre.getNombreExemplaires());
+        // Événement JFR: de la dernière saisie à la fin de l'emprunt
+        EvenementCirculation evenement = new EvenementCirculation(EvenementCirculation.EMPRUNT);
+        evenement.membreId = membreId;
+        evenement.livreId = livreId;
+        evenement.begin();
+        try {
+            Livre livre = livreDAO.getLivreById(livreId);
         
-        if (!livre.estDisponible()) {
-            System.out.println("\n❌ Ce livre n'est pas disponible actuellement.");
-            return;
-        }
+            if (livre == null) {
+                System.out.println("❌ Aucun livre trouvé avec l'ID " + livreId);
+                return;
+            }
         
-        // Dates
-        Date dateEmprunt = new Date(); // Aujourd'hui
-        Calendar cal = Calendar.getInstance();
-        cal.setTime(dateEmprunt);
-        cal.add(Calendar.DAY_OF_MONTH, 14); // +14 jours
-        Date dateRetourPrevue = cal.getTime();
+            System.out.println("📖 Livre: " + livre.getTitre());
+            System.out.println("✍️  Auteur: " + livre.getAuteur());
+            System.out.println("📊 Exemplaires disponibles: " + livre.getNombreExemplaires());
         
-        Emprunt emprunt = new Emprunt(membreId, livreId, dateEmprunt, dateRetourPrevue);
+            if (!livre.estDisponible()) {
+                System.out.println("\n❌ Ce livre n'est pas disponible actuellement.");
+                return;
+            }
         
-        if (empruntDAO.enregistrerEmprunt(emprunt)) {
-            System.out.println("\n✅ Emprunt enregistré avec succès!");
-            System.out.println("   ID de l'emprunt: " + emprunt.getIdEmprunt());
-            System.out.println("   Date d'emprunt: " + dateFormat.format(dateEmprunt));
-            System.out.println("   Date de retour prévue: " + dateFormat.format(dateRetourPrevue));
-            System.out.println("\n⚠️  Rappel: Pénalité de 100 F CFA par jour de retard.");
-        } else {
-            System.out.println("\n❌ Erreur lors de l'enregistrement de l'emprunt.");
+            // Emprunt à partir d'aujourd'hui, retour prévu dans 14 jours
+            Emprunt emprunt = Emprunt.nouveau(membreId, livreId);
+        
+            if (empruntDAO.enregistrerEmprunt(emprunt)) {
+                evenement.empruntId = emprunt.getIdEmprunt();
+                evenement.succes = true;
+                System.out.println("\n✅ Emprunt enregistré avec succès!");
+                System.out.println("   ID de l'emprunt: " + emprunt.getIdEmprunt());
+                System.out.println("   Date d'emprunt: " + Dates.formater(emprunt.getDateEmprunt()));
+                System.out.println("   Date de retour prévue: " + Dates.formater(emprunt.getDateRetourPrevue()));
+                System.out.println("\n⚠️  Rappel: Pénalité de 100 F CFA par jour de retard.");
+            } else {
+                System.out.println("\n❌ Erreur lors de l'enregistrement de l'emprunt.");
+            }
+        } finally {
+            evenement.commit();
         }
     }
     
@@ -571,26 +1127,35 @@ public class BibliothequeApp {
         
         int idEmprunt = lireEntier("🔢 ID de l'emprunt: ");
         
-        Emprunt emprunt = empruntDAO.getEmpruntById(idEmprunt);
-        if (emprunt == null) {
-            System.out.println("❌ Aucun emprunt trouvé avec l'ID " + idEmprunt);
-            return;
-        }
+        EvenementCirculation evenement = new EvenementCirculation(EvenementCirculation.RETOUR);
+        evenement.empruntId = idEmprunt;
+        evenement.begin();
+        try {
+            Emprunt emprunt = empruntDAO.getEmpruntById(idEmprunt);
+            if (emprunt == null) {
+                System.out.println("❌ Aucun emprunt trouvé avec l'ID " + idEmprunt);
+                return;
+            }
         
-        System.out.println("\n📋 Détails de l'emprunt:");
-        emprunt.afficherDetails();
+            evenement.membreId = emprunt.getMembreId();
+            evenement.livreId = emprunt.getLivreId();
         
-        if (emprunt.getDateRetourEffective() != null) {
-            System.out.println("\n❌ Ce livre a déjà été retourné.");
-            return;
-        }
+            System.out.println("\n📋 Détails de l'emprunt:");
+            emprunt.afficherDetails();
         
-        Date dateRetour = new Date(); // Aujourd'hui
+            if (emprunt.estRetourne()) {
+                System.out.println("\n❌ Ce livre a déjà été retourné.");
+                return;
+            }
         
-        if (empruntDAO.enregistrerRetour(idEmprunt, dateRetour)) {
-            System.out.println("\n✅ Retour enregistré avec succès!");
-        } else {
-            System.out.println("\n❌ Erreur lors de l'enregistrement du retour.");
+            if (empruntDAO.enregistrerRetour(idEmprunt, Dates.aujourdhui())) {
+                evenement.succes = true;
+                System.out.println("\n✅ Retour enregistré avec succès!");
+            } else {
+                System.out.println("\n❌ Erreur lors de l'enregistrement du retour.");
+            }
+        } finally {
+            evenement.commit();
         }
     }
     
@@ -605,56 +1170,156 @@ public class BibliothequeApp {
             System.out.println("✅ Aucun emprunt en cours.");
         } else {
             System.out.println("📋 Nombre d'emprunts en cours: " + emprunts.size());
-            for (Emprunt emprunt : emprunts) {
-                emprunt.afficherDetails();
-                
-                // Afficher les infos du membre et du livre
-                Membre membre = membreDAO.getMembreById(emprunt.getMembreId());
-                Livre livre = livreDAO.getLivreById(emprunt.getLivreId());
-                
-                if (membre != null && livre != null) {
-                    System.out.println("   👤 Membre: " + membre.getNomComplet());
-                    System.out.println("   📖 Livre: " + livre.getTitre());
-                }
-                System.out.println();
-            }
+            AffichageRapport rapport = new AffichageRapport(System.out);
+            afficherListeEmprunts(rapport, emprunts, false);
+            rapport.terminer();
         }
     }
     
     /**
-     * Affiche l'historique complet des emprunts.
+     * Affiche l'historique des emprunts, du plus récent au plus ancien, page par page.
+     * Le filtre porte sur le nom du membre ou le titre du livre.
      */
     private static void afficherHistoriqueEmprunts() {
-        System.out.println("═══════════ HISTORIQUE DES EMPRUNTS ═══════════");
-        List<Emprunt> emprunts = empruntDAO.getHistoriqueEmprunts();
-        
-        if (emprunts.isEmpty()) {
+        Pagineur<Emprunt> pagineur = new Pagineur<>("HISTORIQUE DES EMPRUNTS", daoAsync::getPageHistoriqueAsync,
+                Emprunt::getIdEmprunt, (rapport, emprunts) -> {
+                    CompletableFuture<TableParId<Membre>> membresAVenir = prechargerMembres(emprunts);
+                    TableParId<Livre> livres = prechargerLivres(emprunts).join();
+                    TableParId<Membre> membres = membresAVenir.join();
+                    
+                    rapport.enteteEmprunts();
+                    for (Emprunt emprunt : emprunts) {
+                        rapport.ligneEmprunt(emprunt, membres.get(emprunt.getMembreId()), livres.get(emprunt.getLivreId()));
+                    }
+                }, scanner, Pagineur.TAILLE_PAGE_DEFAUT);
+        
+        if (!pagineur.parcourir()) {
             System.out.println("📭 Aucun emprunt enregistré.");
+        }
+    }
+    
+    /**
+     * Affiche une liste de livres: fiches détaillées, ou tableau si la liste est longue.
+     */
+    private static void afficherListeLivres(List<Livre> livres) {
+        AffichageRapport rapport = new AffichageRapport(System.out);
+        if (livres.size() > SEUIL_TABLEAU) {
+            rapport.ligne("").enteteLivres();
+            for (Livre livre : livres) {
+                rapport.ligneLivre(livre);
+            }
         } else {
-            System.out.println("📜 Nombre total d'emprunts: " + emprunts.size());
-            
-            long empruntsActifs = emprunts.stream()
-                .filter(e -> e.getDateRetourEffective() == null)
-                .count();
-            long empruntsTermines = emprunts.size() - empruntsActifs;
+            for (Livre livre : livres) {
+                rapport.livre(livre);
+            }
+        }
+        rapport.terminer();
+    }
+    
+    /**
+     * Affiche une liste de membres: fiches détaillées, ou tableau si la liste est longue.
+     */
+    private static void afficherListeMembres(List<Membre> membres) {
+        AffichageRapport rapport = new AffichageRapport(System.out);
+        if (membres.size() > SEUIL_TABLEAU) {
+            rapport.ligne("").enteteMembres();
+            for (Membre membre : membres) {
+                rapport.ligneMembre(membre);
+            }
+        } else {
+            for (Membre membre : membres) {
+                rapport.membre(membre);
+            }
+        }
+        rapport.terminer();
+    }
+    
+    /**
+     * Ajoute une liste d'emprunts au rapport, avec le membre et le livre de chacun:
+     * fiches détaillées, ou tableau si la liste est longue.
+     * 
+     * @param rapport Le rapport en cours (terminé par l'appelant)
+     * @param emprunts Les emprunts à afficher
+     * @param avecEmail true pour afficher aussi l'email du membre dans les fiches
+     */
+    private static void afficherListeEmprunts(AffichageRapport rapport, List<Emprunt> emprunts, boolean avecEmail) {
+        CompletableFuture<TableParId<Membre>> membresAVenir = prechargerMembres(emprunts);
+        TableParId<Livre> livres = prechargerLivres(emprunts).join();
+        TableParId<Membre> membres = membresAVenir.join();
+        boolean tableau = emprunts.size() > SEUIL_TABLEAU;
+        
+        if (tableau) {
+            rapport.ligne("").enteteEmprunts();
+        }
+        
+        for (Emprunt emprunt : emprunts) {
+            Membre membre = membres.get(emprunt.getMembreId());
+            Livre livre = livres.get(emprunt.getLivreId());
             
-            System.out.println("   ✅ Terminés: " + empruntsTermines);
-            System.out.println("   📋 En cours: " + empruntsActifs);
-            System.out.println();
+            if (tableau) {
+                rapport.ligneEmprunt(emprunt, membre, livre);
+                continue;
+            }
             
-            for (Emprunt emprunt : emprunts) {
-                emprunt.afficherDetails();
-                
-                Membre membre = membreDAO.getMembreById(emprunt.getMembreId());
-                Livre livre = livreDAO.getLivreById(emprunt.getLivreId());
-                
-                if (membre != null && livre != null) {
-                    System.out.println("   👤 Membre: " + membre.getNomComplet());
-                    System.out.println("   📖 Livre: " + livre.getTitre());
+            rapport.emprunt(emprunt);
+            if (membre != null && livre != null) {
+                rapport.ligne("   👤 Membre: " + membre.getNomComplet());
+                if (avecEmail) {
+                    rapport.ligne("   📧 Email: " + membre.getEmail());
                 }
-                System.out.println();
+                rapport.ligne("   📖 Livre: " + livre.getTitre());
+            }
+            rapport.ligne("");
+        }
+    }
+    
+    /**
+     * Lance la récupération des membres des emprunts, en une seule requête
+     * pour leurs IDs distincts (en parallèle de celle des livres).
+     * 
+     * @param emprunts Les emprunts à afficher
+     * @return Les membres à venir, par ID (absents si introuvables)
+     */
+    private static CompletableFuture<TableParId<Membre>> prechargerMembres(List<Emprunt> emprunts) {
+        return daoAsync.getMembresByIdsAsync(idsDistincts(emprunts, Emprunt::getMembreId)).thenApply(membres -> {
+            TableParId<Membre> parId = new TableParId<>(membres.size());
+            for (Membre membre : membres) {
+                parId.put(membre.getId(), membre);
+            }
+            return parId;
+        });
+    }
+    
+    /**
+     * Lance la récupération des livres des emprunts, en une seule requête
+     * pour leurs IDs distincts (en parallèle de celle des membres).
+     * 
+     * @param emprunts Les emprunts à afficher
+     * @return Les livres à venir, par ID (absents si introuvables)
+     */
+    private static CompletableFuture<TableParId<Livre>> prechargerLivres(List<Emprunt> emprunts) {
+        return daoAsync.getLivresByIdsAsync(idsDistincts(emprunts, Emprunt::getLivreId)).thenApply(livres -> {
+            TableParId<Livre> parId = new TableParId<>(livres.size());
+            for (Livre livre : livres) {
+                parId.put(livre.getId(), livre);
+            }
+            return parId;
+        });
+    }
+    
+    // IDs lus par la fonction sur chaque emprunt, doublons retirés
+    private static int[] idsDistincts(List<Emprunt> emprunts, ToIntFunction<Emprunt> id) {
+        int[] ids = new int[emprunts.size()];
+        int nombre = 0;
+        EntiersParId vus = new EntiersParId(emprunts.size());
+        for (Emprunt emprunt : emprunts) {
+            int valeur = id.applyAsInt(emprunt);
+            if (!vus.contient(valeur)) {
+                vus.put(valeur, 1);
+                ids[nombre++] = valeur;
             }
         }
+        return Arrays.copyOf(ids, nombre);
     }
     
     /**
@@ -700,9 +1365,7 @@ public class BibliothequeApp {
             System.out.println("\n❌ Aucun livre trouvé.");
         } else {
             System.out.println("\n✅ " + livres.size() + " livre(s) trouvé(s):");
-            for (Livre livre : livres) {
-                livre.afficherDetails();
-            }
+            afficherListeLivres(livres);
         }
     }
     
@@ -710,33 +1373,30 @@ public class BibliothequeApp {
      * Affiche les emprunts en retard.
      */
     private static void afficherEmpruntsEnRetard() {
-        System.out.println("═══════════ ⚠️  EMPRUNTS EN RETARD ═══════════");
-        List<Emprunt> emprunts = empruntDAO.getEmpruntsEnRetard();
-        
-        if (emprunts.isEmpty()) {
-            System.out.println("✅ Aucun emprunt en retard. Excellent!");
-        } else {
-            System.out.println("⚠️  " + emprunts.size() + " emprunt(s) en retard:");
+        EvenementCirculation evenement = new EvenementCirculation(EvenementCirculation.RAPPORT_RETARDS);
+        evenement.begin();
+        try {
+            System.out.println("═══════════ ⚠️  EMPRUNTS EN RETARD ═══════════");
+            List<Emprunt> emprunts = empruntDAO.getEmpruntsEnRetard();
+        
+            if (emprunts.isEmpty()) {
+                System.out.println("✅ Aucun emprunt en retard. Excellent!");
+            } else {
+                System.out.println("⚠️  " + emprunts.size() + " emprunt(s) en retard:");
             
-            double penaliteTotale = 0;
+                AffichageRapport rapport = new AffichageRapport(System.out);
+                afficherListeEmprunts(rapport, emprunts, true);
             
-            for (Emprunt emprunt : emprunts) {
-                emprunt.afficherDetails();
-                
-                Membre membre = membreDAO.getMembreById(emprunt.getMembreId());
-                Livre livre = livreDAO.getLivreById(emprunt.getLivreId());
-                
-                if (membre != null && livre != null) {
-                    System.out.println("   👤 Membre: " + membre.getNomComplet());
-                    System.out.println("   📧 Email: " + membre.getEmail());
-                    System.out.println("   📖 Livre: " + livre.getTitre());
+                double penaliteTotale = 0;
+                for (Emprunt emprunt : emprunts) {
+                    penaliteTotale += emprunt.calculerPenalite(rapport.getAujourdhui());
                 }
-                
-                penaliteTotale += emprunt.calculerPenalite();
-                System.out.println();
+                rapport.ligne("💰 Pénalités totales: " + penaliteTotale + " F CFA");
+                rapport.terminer();
             }
-            
-            System.out.println("💰 Pénalités totales: " + penaliteTotale + " F CFA");
+            evenement.succes = true;
+        } finally {
+            evenement.commit();
         }
     }
     
@@ -744,46 +1404,49 @@ public class BibliothequeApp {
      * Affiche des statistiques sur la bibliothèque.
      */
     private static void afficherStatistiques() {
-        System.out.println("╔══════════════════════════════════════════════════════════╗");
-        System.out.println("║                     STATISTIQUES                         ║");
-        System.out.println("╠══════════════════════════════════════════════════════════╣");
-        
-        // Livres
-        List<Livre> livres = livreDAO.afficherTousLivres();
-        List<Livre> livresDisponibles = livreDAO.afficherLivresDisponibles();
-        int totalExemplaires = livres.stream()
-            .mapToInt(Livre::getNombreExemplaires)
-            .sum();
-        
-        System.out.println("║  📚 LIVRES                                               ║");
-        System.out.println("║     Nombre de titres: " + String.format("%-33d", livres.size()) + "║");
-        System.out.println("║     Total d'exemplaires: " + String.format("%-30d", totalExemplaires) + "║");
-        System.out.println("║     Livres disponibles: " + String.format("%-31d", livresDisponibles.size()) + "║");
-        System.out.println("╠══════════════════════════════════════════════════════════╣");
-        
-        // Membres
-        List<Membre> membres = membreDAO.afficherTousMembres();
-        System.out.println("║  👥 MEMBRES                                              ║");
-        System.out.println("║     Nombre de membres inscrits: " + String.format("%-25d", membres.size()) + "║");
-        System.out.println("╠══════════════════════════════════════════════════════════╣");
-        
-        // Emprunts
-        List<Emprunt> empruntsEnCours = empruntDAO.getEmpruntsEnCours();
-        List<Emprunt> empruntsEnRetard = empruntDAO.getEmpruntsEnRetard();
-        List<Emprunt> historique = empruntDAO.getHistoriqueEmprunts();
-        
-        System.out.println("║  📋 EMPRUNTS                                             ║");
-        System.out.println("║     Total des emprunts: " + String.format("%-31d", historique.size()) + "║");
-        System.out.println("║     Emprunts en cours: " + String.format("%-32d", empruntsEnCours.size()) + "║");
-        System.out.println("║     Emprunts en retard: " + String.format("%-31d", empruntsEnRetard.size()) + "║");
-        
-        // Pénalités
-        double penalitesTotales = empruntsEnRetard.stream()
-            .mapToDouble(Emprunt::calculerPenalite)
-            .sum();
-        
-        System.out.println("║     Pénalités à percevoir: " + String.format("%-24.2f F CFA", penalitesTotales) + "║");
-        System.out.println("╚══════════════════════════════════════════════════════════╝");
+        EvenementCirculation evenement = new EvenementCirculation(EvenementCirculation.RAPPORT_STATISTIQUES);
+        evenement.begin();
+        try {
+            System.out.println("╔══════════════════════════════════════════════════════════╗");
+            System.out.println("║                     STATISTIQUES                         ║");
+            System.out.println("╠══════════════════════════════════════════════════════════╣");
+        
+            // Compteurs: une seule requête d'agrégation; emprunts en cours et
+            // retards depuis l'échéancier quand l'écouteur le tient à jour
+            Statistiques stats = statistiquesDAO.getStatistiques();
+            EcheancierEmprunts.Etat etat = EcheancierEmprunts.lire();
+            if (stats == null) {
+                System.out.println("║  ❌ Statistiques indisponibles                           ║");
+                System.out.println("╚══════════════════════════════════════════════════════════╝");
+                return;
+            }
+            long empruntsEnCours = etat != null ? etat.getEnCours() : stats.getEmpruntsEnCours();
+            long empruntsEnRetard = etat != null ? etat.getEnRetard() : stats.getEmpruntsEnRetard();
+            double penalitesTotales = etat != null ? etat.getPenalites() : stats.getPenalitesAPercevoir();
+        
+            System.out.println("║  📚 LIVRES                                               ║");
+            System.out.println("║     Nombre de titres: " + String.format("%-33d", stats.getNombreTitres()) + "║");
+            System.out.println("║     Total d'exemplaires: " + String.format("%-30d", stats.getTotalExemplaires()) + "║");
+            System.out.println("║     Livres disponibles: " + String.format("%-31d", stats.getLivresDisponibles()) + "║");
+            System.out.println("╠══════════════════════════════════════════════════════════╣");
+        
+            System.out.println("║  👥 MEMBRES                                              ║");
+            System.out.println("║     Nombre de membres inscrits: " + String.format("%-25d", stats.getNombreMembres()) + "║");
+            System.out.println("╠══════════════════════════════════════════════════════════╣");
+        
+            System.out.println("║  📋 EMPRUNTS                                             ║");
+            System.out.println("║     Total des emprunts: " + String.format("%-31d", stats.getTotalEmprunts()) + "║");
+            System.out.println("║     Emprunts en cours: " + String.format("%-32d", empruntsEnCours) + "║");
+            System.out.println("║     Emprunts en retard: " + String.format("%-31d", empruntsEnRetard) + "║");
+            System.out.println("║     Membres ayant un emprunt: " + String.format("%-25d", stats.getMembresAvecEmprunt()) + "║");
+            System.out.println("║     Emprunts max. par membre: " + String.format("%-25d", stats.getMaxEmpruntsParMembre()) + "║");
+        
+            System.out.println("║     Pénalités à percevoir: " + String.format("%-24.2f F CFA", penalitesTotales) + "║");
+            System.out.println("╚══════════════════════════════════════════════════════════╝");
+            evenement.succes = true;
+        } finally {
+            evenement.commit();
+        }
     }
     
     /**
@@ -0,0 +1,147 @@
+package com.bibliotheque.dao;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache local d'entités indexées par ID (livres, membres).
+ * Le cache n'est actif que lorsque l'écouteur de notifications PostgreSQL
+ * est connecté: sans lui, une autre instance pourrait modifier la base
+ * sans que ce cache soit invalidé.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class CacheEntites<T> {
+    // Tous les caches créés, pour pouvoir les vider d'un coup
+    private static final List<CacheEntites<?>> caches = new CopyOnWriteArrayList<>();
+
+    // Autres stockages locaux à vider avec les caches (voir surVidage)
+    private static final List<Runnable> actionsVidage = new CopyOnWriteArrayList<>();
+
+    // Activé par EcouteurChangements une fois le LISTEN en place
+    private static volatile boolean actif = false;
+
+    private final String nom;
+    private final Map<Integer, T> entites = new ConcurrentHashMap<>();
+
+    // Lectures servies depuis le cache / allées jusqu'à la base (cache actif seulement)
+    private final LongAdder succes = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+
+    // Incrémenté à chaque invalidation: une lecture concurrente ne peut pas
+    // remettre en cache une valeur devenue obsolète entre-temps
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * @param nom Nom du cache dans les métriques ("livres", "membres")
+     */
+    public CacheEntites(String nom) {
+        this.nom = nom;
+        caches.add(this);
+    }
+
+    /**
+     * @return Tous les caches créés
+     */
+    public static List<CacheEntites<?>> tous() {
+        return caches;
+    }
+
+    /**
+     * Active ou désactive tous les caches. La désactivation les vide.
+     */
+    public static void setActif(boolean etat) {
+        actif = etat;
+        if (!etat) {
+            viderTous();
+        }
+    }
+
+    public static boolean isActif() {
+        return actif;
+    }
+
+    /**
+     * Vide tous les caches (notification inconnue, reconnexion...).
+     */
+    public static void viderTous() {
+        for (CacheEntites<?> cache : caches) {
+            cache.vider();
+        }
+        for (Runnable action : actionsVidage) {
+            action.run();
+        }
+    }
+
+    /**
+     * Enregistre une action exécutée par chaque viderTous(), pour un stockage
+     * local qui n'est pas un CacheEntites (catalogue en colonnes).
+     */
+    public static void surVidage(Runnable action) {
+        actionsVidage.add(action);
+    }
+
+    /**
+     * Retourne l'entité en cache ou null si absente (ou cache inactif).
+     */
+    public T get(int id) {
+        if (!actif) {
+            return null;
+        }
+        T entite = entites.get(id);
+        (entite != null ? succes : echecs).increment();
+        return entite;
+    }
+
+    /**
+     * Génération courante, à lire AVANT la requête en base.
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Met une entité en cache si aucune invalidation n'a eu lieu
+     * depuis la lecture de la génération.
+     */
+    public void mettreEnCache(int id, T entite, long generationLue) {
+        if (!actif || entite == null) {
+            return;
+        }
+        entites.put(id, entite);
+        if (generation.get() != generationLue) {
+            entites.remove(id);
+        }
+    }
+
+    public void invalider(int id) {
+        generation.incrementAndGet();
+        entites.remove(id);
+    }
+
+    public void vider() {
+        generation.incrementAndGet();
+        entites.clear();
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public int getTaille() {
+        return entites.size();
+    }
+
+    public long getSucces() {
+        return succes.sum();
+    }
+
+    public long getEchecs() {
+        return echecs.sum();
+    }
+}
@@ -0,0 +1,115 @@
+package com.bibliotheque.dao;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cache local de résultats de requêtes (recherches répétées), indexé par une
+ * clé construite à partir de la méthode et de ses paramètres normalisés.
+ *
+ * Une version est associée à la table interrogée: toute écriture ou
+ * notification qui la concerne appelle invalider(), ce qui vide le cache.
+ * Comme CacheEntites, le cache n'est actif que lorsque l'écouteur de
+ * notifications PostgreSQL est connecté. Les résultats les moins récemment
+ * utilisés sont retirés au-delà de la capacité.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class CacheRequetes<T> {
+    // Tous les caches créés (métriques)
+    private static final List<CacheRequetes<?>> caches = new CopyOnWriteArrayList<>();
+
+    private final String nom;
+    private final Map<String, List<T>> resultats;
+
+    // Lectures servies depuis le cache / allées jusqu'à la base (cache actif seulement)
+    private final LongAdder succes = new LongAdder();
+    private final LongAdder echecs = new LongAdder();
+
+    // Incrémentée à chaque invalidation: une lecture concurrente ne peut pas
+    // remettre en cache un résultat devenu obsolète entre-temps
+    private final AtomicLong version = new AtomicLong();
+
+    /**
+     * @param nom Nom du cache dans les métriques ("recherches_livres")
+     * @param capacite Nombre maximal de résultats conservés
+     */
+    public CacheRequetes(String nom, int capacite) {
+        this.nom = nom;
+        // Ordre d'accès: le premier élément est le moins récemment utilisé
+        this.resultats = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<T>> eldest) {
+                return size() > capacite;
+            }
+        };
+        caches.add(this);
+    }
+
+    /**
+     * @return Tous les caches créés
+     */
+    public static List<CacheRequetes<?>> tous() {
+        return caches;
+    }
+
+    /**
+     * Retourne le résultat en cache ou null si absent (ou cache inactif).
+     */
+    public synchronized List<T> get(String cle) {
+        if (!CacheEntites.isActif()) {
+            return null;
+        }
+        List<T> resultat = resultats.get(cle);
+        (resultat != null ? succes : echecs).increment();
+        return resultat;
+    }
+
+    /**
+     * Version courante de la table, à lire AVANT la requête en base.
+     */
+    public long getVersion() {
+        return version.get();
+    }
+
+    /**
+     * Met un résultat en cache si la table n'a pas changé
+     * depuis la lecture de la version.
+     */
+    public synchronized void mettreEnCache(String cle, List<T> resultat, long versionLue) {
+        if (CacheEntites.isActif() && version.get() == versionLue) {
+            resultats.put(cle, resultat);
+        }
+    }
+
+    /**
+     * La table a changé: tous les résultats sont retirés.
+     */
+    public void invalider() {
+        version.incrementAndGet();
+        synchronized (this) {
+            resultats.clear();
+        }
+    }
+
+    public String getNom() {
+        return nom;
+    }
+
+    public synchronized int getTaille() {
+        return resultats.size();
+    }
+
+    public long getSucces() {
+        return succes.sum();
+    }
+
+    public long getEchecs() {
+        return echecs.sum();
+    }
+}
@@ -0,0 +1,314 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.model.Livre;
+import com.bibliotheque.util.Hachage;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+/**
+ * Catalogue des livres stocké hors du tas Java, en colonnes.
+ * Chaque livre occupe une ligne: ID, stock, ID de catégorie, ID d'auteur et
+ * position du titre (UTF-8) dans une zone commune. Un index à adressage
+ * ouvert associe l'ID d'un livre à sa ligne. Pour des millions de titres,
+ * le ramasse-miettes n'a ainsi que quelques tampons à suivre au lieu d'un
+ * objet Livre (et ses chaînes) par titre.
+ *
+ * Seul le stock change après le chargement: il est mis à jour en place par
+ * les notifications 'livres:STOCK' (emprunts et retours, toutes instances).
+ * Une ligne invalidée a un stock INCONNU: les lectures passent alors par la
+ * base, qui la rafraîchit. Les livres ajoutés après le chargement ne sont
+ * pas dans le catalogue et sont toujours lus en base.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class CatalogueColonnes {
+    // Stock d'une ligne à relire en base
+    public static final int INCONNU = -1;
+
+    // Pour compterDisponibles / parcourirDisponibles: toutes catégories
+    public static final int TOUTES_CATEGORIES = -1;
+
+    // Accès atomique à la colonne des stocks (écrite pendant les lectures)
+    private static final VarHandle STOCK =
+            MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+
+    // Lignes lues par aller-retour pendant le chargement
+    private static final int TAILLE_FETCH = 10_000;
+
+    private final Dictionnaire auteurs;
+    private final Dictionnaire categories;
+    private final int lignes;
+
+    // Colonnes (4 octets par ligne, 2 pour la catégorie)
+    private final ByteBuffer ids;
+    private final ByteBuffer stocks;
+    private final ByteBuffer categorieIds;
+    private final ByteBuffer auteurIds;
+    // Début du titre de chaque ligne dans "titres" (lignes + 1 entrées)
+    private final ByteBuffer debutsTitres;
+    private final ByteBuffer titres;
+
+    // Index ID → ligne + 1 (0 = case vide), taille puissance de deux
+    private final ByteBuffer index;
+    private final int masque;
+
+    // Incrémenté à chaque écriture de stock, comme CacheEntites
+    private final AtomicLong generation = new AtomicLong();
+
+    private CatalogueColonnes(Dictionnaire auteurs, Dictionnaire categories, int lignes, int octetsTitres) {
+        this.auteurs = auteurs;
+        this.categories = categories;
+        this.lignes = lignes;
+        this.ids = allouer(lignes * 4L);
+        this.stocks = allouer(lignes * 4L);
+        this.categorieIds = allouer(lignes * 2L);
+        this.auteurIds = allouer(lignes * 4L);
+        this.debutsTitres = allouer((lignes + 1) * 4L);
+        this.titres = allouer(octetsTitres);
+
+        // Taux de remplissage de l'index au plus 1/2
+        int cases = Integer.highestOneBit(Math.max(lignes, 1) * 2 - 1) << 1;
+        this.index = allouer(cases * 4L);
+        this.masque = cases - 1;
+    }
+
+    /**
+     * Charge tout le catalogue depuis vue_livres. Le comptage et la lecture se
+     * font dans le même instantané (REPEATABLE READ), via un curseur serveur.
+     *
+     * @param conn La connexion à utiliser (rendue dans son état d'origine)
+     * @param auteurs Dictionnaire des auteurs (noms rendus par getLivre)
+     * @param categories Dictionnaire des catégories
+     * @return Le catalogue chargé
+     * @throws SQLException en cas d'erreur d'accès aux données
+     */
+    public static CatalogueColonnes charger(Connection conn, Dictionnaire auteurs, Dictionnaire categories)
+            throws SQLException {
+        boolean autoCommit = conn.getAutoCommit();
+        int isolation = conn.getTransactionIsolation();
+        conn.setAutoCommit(false);
+        conn.setTransactionIsolation(Connection.TRANSACTION_REPEATABLE_READ);
+
+        try (Statement stmt = conn.createStatement()) {
+            CatalogueColonnes catalogue;
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT COUNT(*), COALESCE(SUM(octet_length(titre)), 0) FROM livres")) {
+                rs.next();
+                catalogue = new CatalogueColonnes(auteurs, categories, rs.getInt(1),
+                                                  Math.toIntExact(rs.getLong(2)));
+            }
+
+            stmt.setFetchSize(TAILLE_FETCH);
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT id, titre, auteur_id, auteur, categorie_id, categorie, nombre_exemplaires " +
+                    "FROM vue_livres")) {
+                int ligne = 0;
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    byte[] titre = rs.getString(2).getBytes(StandardCharsets.UTF_8);
+                    int auteurId = rs.getInt(3);
+                    int categorieId = rs.getInt(5);
+                    auteurs.canonique(auteurId, rs.getString(4));
+                    categories.canonique(categorieId, rs.getString(6));
+
+                    catalogue.ids.putInt(ligne * 4, id);
+                    catalogue.stocks.putInt(ligne * 4, rs.getInt(7));
+                    catalogue.categorieIds.putShort(ligne * 2, (short) categorieId);
+                    catalogue.auteurIds.putInt(ligne * 4, auteurId);
+                    int debut = catalogue.debutsTitres.getInt(ligne * 4);
+                    catalogue.titres.put(debut, titre);
+                    catalogue.debutsTitres.putInt((ligne + 1) * 4, debut + titre.length);
+                    catalogue.indexer(id, ligne);
+                    ligne++;
+                }
+            }
+            conn.commit();
+            return catalogue;
+
+        } finally {
+            conn.setAutoCommit(autoCommit);
+            conn.setTransactionIsolation(isolation);
+        }
+    }
+
+    /**
+     * @return Le nombre de livres chargés
+     */
+    public int taille() {
+        return lignes;
+    }
+
+    /**
+     * Stock d'un livre, sans allocation.
+     *
+     * @return Le nombre d'exemplaires disponibles, ou INCONNU si le livre
+     *         n'est pas chargé ou que sa ligne est à relire
+     */
+    public int getStock(int id) {
+        int ligne = ligne(id);
+        return ligne < 0 ? INCONNU : (int) STOCK.getVolatile(stocks, ligne * 4);
+    }
+
+    /**
+     * ID de catégorie d'un livre, sans allocation.
+     *
+     * @return L'ID de catégorie, ou -1 si le livre n'est pas chargé
+     */
+    public int getCategorieId(int id) {
+        int ligne = ligne(id);
+        return ligne < 0 ? -1 : categorieIds.getShort(ligne * 2);
+    }
+
+    /**
+     * Reconstruit un livre (seul le titre est alloué, les noms viennent des dictionnaires).
+     *
+     * @return Le livre, ou null s'il n'est pas chargé ou que sa ligne est à relire
+     */
+    public Livre getLivre(int id) {
+        int ligne = ligne(id);
+        if (ligne < 0) {
+            return null;
+        }
+        int stock = (int) STOCK.getVolatile(stocks, ligne * 4);
+        if (stock == INCONNU) {
+            return null;
+        }
+        return new Livre(id, titre(ligne),
+                         auteurs.nom(auteurIds.getInt(ligne * 4)),
+                         categories.nom(categorieIds.getShort(ligne * 2)),
+                         stock);
+    }
+
+    /**
+     * Compte les livres disponibles (stock > 0), sans allocation.
+     * Les lignes à relire ne sont pas comptées.
+     *
+     * @param categorieId ID de catégorie, ou TOUTES_CATEGORIES
+     */
+    public int compterDisponibles(int categorieId) {
+        int total = 0;
+        for (int ligne = 0; ligne < lignes; ligne++) {
+            if (disponible(ligne, categorieId)) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Passe l'ID de chaque livre disponible (stock > 0) à une action.
+     * Les lignes à relire sont ignorées.
+     *
+     * @param categorieId ID de catégorie, ou TOUTES_CATEGORIES
+     * @param action Reçoit l'ID de chaque livre disponible
+     */
+    public void parcourirDisponibles(int categorieId, IntConsumer action) {
+        for (int ligne = 0; ligne < lignes; ligne++) {
+            if (disponible(ligne, categorieId)) {
+                action.accept(ids.getInt(ligne * 4));
+            }
+        }
+    }
+
+    /**
+     * Génération courante, à lire AVANT la requête en base (voir rafraichir).
+     */
+    public long getGeneration() {
+        return generation.get();
+    }
+
+    /**
+     * Remplace en place le stock d'un livre (notification 'livres:STOCK').
+     */
+    public void majStock(int id, int stock) {
+        int ligne = ligne(id);
+        if (ligne >= 0) {
+            generation.incrementAndGet();
+            STOCK.setVolatile(stocks, ligne * 4, stock);
+        }
+    }
+
+    /**
+     * Marque la ligne d'un livre comme à relire.
+     */
+    public void invalider(int id) {
+        majStock(id, INCONNU);
+    }
+
+    /**
+     * Marque toutes les lignes comme à relire (import massif, reconnexion).
+     */
+    public void invaliderTout() {
+        generation.incrementAndGet();
+        for (int ligne = 0; ligne < lignes; ligne++) {
+            STOCK.setVolatile(stocks, ligne * 4, INCONNU);
+        }
+    }
+
+    /**
+     * Rafraîchit une ligne à relire avec un livre lu en base, si aucune
+     * écriture n'a eu lieu depuis la lecture de la génération. Si le titre,
+     * l'auteur ou la catégorie ont changé, la ligne reste à relire.
+     */
+    public void rafraichir(Livre livre, long generationLue) {
+        int ligne = ligne(livre.getId());
+        if (ligne < 0
+                || !livre.getTitre().equals(titre(ligne))
+                || !livre.getAuteur().equals(auteurs.nom(auteurIds.getInt(ligne * 4)))
+                || !livre.getCategorie().equals(categories.nom(categorieIds.getShort(ligne * 2)))) {
+            return;
+        }
+        STOCK.compareAndSet(stocks, ligne * 4, INCONNU, livre.getNombreExemplaires());
+        if (generation.get() != generationLue) {
+            STOCK.setVolatile(stocks, ligne * 4, INCONNU);
+        }
+    }
+
+    private boolean disponible(int ligne, int categorieId) {
+        return (int) STOCK.getVolatile(stocks, ligne * 4) > 0
+                && (categorieId == TOUTES_CATEGORIES || categorieIds.getShort(ligne * 2) == categorieId);
+    }
+
+    private String titre(int ligne) {
+        int debut = debutsTitres.getInt(ligne * 4);
+        byte[] octets = new byte[debutsTitres.getInt((ligne + 1) * 4) - debut];
+        titres.get(debut, octets);
+        return new String(octets, StandardCharsets.UTF_8);
+    }
+
+    private void indexer(int id, int ligne) {
+        int caseIndex = Hachage.disperser(id) & masque;
+        while (index.getInt(caseIndex * 4) != 0) {
+            caseIndex = (caseIndex + 1) & masque;
+        }
+        index.putInt(caseIndex * 4, ligne + 1);
+    }
+
+    /**
+     * @return La ligne du livre, ou -1 s'il n'est pas chargé
+     */
+    private int ligne(int id) {
+        int caseIndex = Hachage.disperser(id) & masque;
+        while (true) {
+            int ligne = index.getInt(caseIndex * 4) - 1;
+            if (ligne < 0 || ids.getInt(ligne * 4) == id) {
+                return ligne;
+            }
+            caseIndex = (caseIndex + 1) & masque;
+        }
+    }
+
+    private static ByteBuffer allouer(long octets) {
+        return ByteBuffer.allocateDirect(Math.toIntExact(octets)).order(ByteOrder.nativeOrder());
+    }
+}
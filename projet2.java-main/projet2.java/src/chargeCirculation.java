@@ -0,0 +1,383 @@
+package com.bibliotheque;
+
+import com.bibliotheque.dao.LivreDAO;
+import com.bibliotheque.dao.MembreDAO;
+import com.bibliotheque.dao.Session;
+import com.bibliotheque.model.Emprunt;
+import com.bibliotheque.model.Livre;
+import com.bibliotheque.model.Membre;
+import com.bibliotheque.util.Dates;
+import com.bibliotheque.util.EntiersParId;
+import com.bibliotheque.util.Executeurs;
+import com.bibliotheque.util.Histogramme;
+import java.io.PrintStream;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Essai de charge de la circulation: de nombreux guichets simulés (un thread
+ * virtuel chacun) enchaînent recherches, emprunts, retours et listes sur
+ * LivreDAO, MembreDAO et EmpruntDAO, selon un mélange réglable.
+ *
+ * Deux modes:
+ *  - boucle fermée (par défaut): chaque guichet enchaîne ses opérations,
+ *    avec une pause éventuelle entre deux;
+ *  - boucle ouverte (debit > 0): les opérations arrivent à un débit fixe,
+ *    qu'elles soient servies ou non; la latence est comptée depuis l'heure
+ *    d'arrivée prévue, attente comprise.
+ *
+ * Le rapport donne par opération le débit, les latences (p50, p99, p99,9,
+ * max), les taux de conflit (plus d'exemplaire, emprunt déjà rendu) et
+ * d'erreur. Les emprunts créés par l'essai sont rendus à la fin, puis les
+ * exemplaires possédés (stock + emprunts en cours) des livres utilisés sont
+ * comparés à ceux du début: toute différence est une violation du stock.
+ * Le contrôle suppose qu'aucune autre activité ne touche ces livres.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class ChargeCirculation {
+
+    /**
+     * Opérations simulées.
+     */
+    enum TypeOperation {
+        RECHERCHE("Recherche"),
+        EMPRUNT("Emprunt"),
+        RETOUR("Retour"),
+        LISTE("Liste");
+
+        final String libelle;
+
+        TypeOperation(String libelle) {
+            this.libelle = libelle;
+        }
+    }
+
+    private final LivreDAO livreDAO = new LivreDAO();
+    private final MembreDAO membreDAO = new MembreDAO();
+
+    private int clients = 50;
+    private int dureeSecondes = 60;
+    private double debit = 0;
+    private long pauseMs = 0;
+    private int tailleEchantillon = 1000;
+    private final int[] poids = {50, 15, 15, 20};
+
+    // Livres et membres utilisés par l'essai
+    private int[] livres;
+    private int[] membres;
+    private String[] motsCles;
+
+    // Emprunts créés par l'essai et pas encore rendus
+    private final Queue<Integer> empruntsOuverts = new ConcurrentLinkedQueue<>();
+
+    private final Mesures[] mesures = new Mesures[TypeOperation.values().length];
+
+    public ChargeCirculation() {
+        for (int i = 0; i < mesures.length; i++) {
+            mesures[i] = new Mesures();
+        }
+    }
+
+    /**
+     * @param clients Nombre de guichets simultanés (boucle fermée)
+     */
+    public void setClients(int clients) {
+        if (clients < 1) {
+            throw new IllegalArgumentException("Au moins un client");
+        }
+        this.clients = clients;
+    }
+
+    public void setDureeSecondes(int dureeSecondes) {
+        if (dureeSecondes < 1) {
+            throw new IllegalArgumentException("Durée d'au moins une seconde");
+        }
+        this.dureeSecondes = dureeSecondes;
+    }
+
+    /**
+     * @param debit Opérations par seconde en boucle ouverte (0: boucle fermée)
+     */
+    public void setDebit(double debit) {
+        this.debit = debit;
+    }
+
+    /**
+     * @param pauseMs Pause de chaque guichet entre deux opérations (boucle fermée)
+     */
+    public void setPauseMs(long pauseMs) {
+        this.pauseMs = pauseMs;
+    }
+
+    /**
+     * @param tailleEchantillon Nombre de livres et de membres utilisés
+     *        (petit: plus de conflits sur les mêmes livres)
+     */
+    public void setTailleEchantillon(int tailleEchantillon) {
+        if (tailleEchantillon < 1) {
+            throw new IllegalArgumentException("Échantillon d'au moins un livre");
+        }
+        this.tailleEchantillon = tailleEchantillon;
+    }
+
+    /**
+     * Poids relatifs des opérations.
+     */
+    public void setMelange(int recherche, int emprunt, int retour, int liste) {
+        if (recherche < 0 || emprunt < 0 || retour < 0 || liste < 0 || recherche + emprunt + retour + liste == 0) {
+            throw new IllegalArgumentException("Mélange invalide");
+        }
+        poids[0] = recherche;
+        poids[1] = emprunt;
+        poids[2] = retour;
+        poids[3] = liste;
+    }
+
+    /**
+     * Lance l'essai, rend les emprunts créés et contrôle les stocks.
+     *
+     * @param journal Progression et rapport
+     * @return Le nombre de livres dont le stock est incohérent (0 attendu)
+     * @throws IllegalStateException s'il n'y a ni livre ni membre à utiliser
+     * @throws InterruptedException si l'essai est interrompu
+     */
+    public int executer(PrintStream journal) throws InterruptedException {
+        preparer();
+        EntiersParId possedesAvant = livreDAO.getExemplairesPossedes(livres);
+
+        journal.println("  " + (debit > 0 ? "Boucle ouverte, " + debit + " op/s" : "Boucle fermée, " + clients
+                + " guichets") + ", " + dureeSecondes + " s, " + livres.length + " livres, "
+                + membres.length + " membres");
+
+        long debut = System.nanoTime();
+        long fin = debut + TimeUnit.SECONDS.toNanos(dureeSecondes);
+        ExecutorService executeur = Executeurs.parTache("charge");
+        if (debit > 0) {
+            boucleOuverte(executeur, debut, fin);
+        } else {
+            for (int i = 0; i < clients; i++) {
+                executeur.execute(() -> boucleFermee(fin));
+            }
+        }
+        executeur.shutdown();
+        if (!executeur.awaitTermination(dureeSecondes + 60L, TimeUnit.SECONDS)) {
+            journal.println("⚠️  Des opérations ne se sont pas terminées à temps.");
+            executeur.shutdownNow();
+        }
+        long ecoule = System.nanoTime() - debut;
+
+        afficherRapport(journal, ecoule);
+
+        journal.println("  Retour des " + empruntsOuverts.size() + " emprunts encore ouverts…");
+        Integer id;
+        while ((id = empruntsOuverts.poll()) != null) {
+            try (Session session = Session.ouvrir()) {
+                session.retourner(id, Dates.aujourdhui());
+                session.valider();
+            } catch (SQLException e) {
+                journal.println("✗ Retour de l'emprunt " + id + " impossible: " + e.getMessage());
+            }
+        }
+
+        return controlerStocks(journal, possedesAvant);
+    }
+
+    private void preparer() {
+        List<Livre> page = livreDAO.getPageLivres(null, null, 0, tailleEchantillon);
+        List<Membre> pageMembres = membreDAO.getPageMembres(null, null, 0, tailleEchantillon);
+        if (page.isEmpty() || pageMembres.isEmpty()) {
+            throw new IllegalStateException("Il faut au moins un livre et un membre en base");
+        }
+
+        livres = new int[page.size()];
+        motsCles = new String[page.size()];
+        for (int i = 0; i < livres.length; i++) {
+            livres[i] = page.get(i).getId();
+            String titre = page.get(i).getTitre();
+            int espace = titre.indexOf(' ', 3);
+            motsCles[i] = espace > 0 ? titre.substring(0, espace) : titre;
+        }
+        membres = new int[pageMembres.size()];
+        for (int i = 0; i < membres.length; i++) {
+            membres[i] = pageMembres.get(i).getId();
+        }
+    }
+
+    // Arrivées à intervalle fixe; chacune est servie sur son propre thread
+    private void boucleOuverte(ExecutorService executeur, long debut, long fin) {
+        long intervalle = (long) (1_000_000_000L / debit);
+        for (long prevue = debut; prevue < fin; prevue += intervalle) {
+            long attente = prevue - System.nanoTime();
+            if (attente > 0) {
+                LockSupport.parkNanos(attente);
+            }
+            long arrivee = prevue;
+            executeur.execute(() -> operer(tirerOperation(), arrivee));
+        }
+    }
+
+    private void boucleFermee(long fin) {
+        while (System.nanoTime() < fin) {
+            operer(tirerOperation(), System.nanoTime());
+            if (pauseMs > 0) {
+                try {
+                    Thread.sleep(pauseMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private TypeOperation tirerOperation() {
+        int tirage = ThreadLocalRandom.current().nextInt(poids[0] + poids[1] + poids[2] + poids[3]);
+        for (TypeOperation type : TypeOperation.values()) {
+            tirage -= poids[type.ordinal()];
+            if (tirage < 0) {
+                return type;
+            }
+        }
+        return TypeOperation.LISTE;
+    }
+
+    /**
+     * Exécute une opération et enregistre sa latence depuis debut.
+     */
+    private void operer(TypeOperation type, long debut) {
+        ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+        // Sans emprunt à rendre, le guichet en fait un
+        if (type == TypeOperation.RETOUR && empruntsOuverts.isEmpty()) {
+            type = TypeOperation.EMPRUNT;
+        }
+
+        boolean reussi;
+        try {
+            switch (type) {
+                case RECHERCHE:
+                    livreDAO.rechercherParTitre(motsCles[aleatoire.nextInt(motsCles.length)]);
+                    reussi = true;
+                    break;
+                case EMPRUNT:
+                    reussi = emprunter(livres[aleatoire.nextInt(livres.length)],
+                                       membres[aleatoire.nextInt(membres.length)]);
+                    break;
+                case RETOUR:
+                    reussi = retourner();
+                    break;
+                default:
+                    livreDAO.getPageLivres(null, livres[aleatoire.nextInt(livres.length)], 0, 20);
+                    reussi = true;
+            }
+        } catch (SQLException | RuntimeException e) {
+            mesures[type.ordinal()].erreurs.increment();
+            return;
+        }
+
+        Mesures m = mesures[type.ordinal()];
+        m.latences.enregistrer(System.nanoTime() - debut);
+        if (!reussi) {
+            m.conflits.increment();
+        }
+    }
+
+    private boolean emprunter(int livreId, int membreId) throws SQLException {
+        try (Session session = Session.ouvrir()) {
+            Emprunt emprunt = Emprunt.nouveau(membreId, livreId);
+            if (!session.emprunter(emprunt)) {
+                return false;
+            }
+            session.valider();
+            empruntsOuverts.add(emprunt.getIdEmprunt());
+            return true;
+        }
+    }
+
+    private boolean retourner() throws SQLException {
+        Integer id = empruntsOuverts.poll();
+        if (id == null) {
+            return false;
+        }
+        boolean ouvert = true;
+        try (Session session = Session.ouvrir()) {
+            if (session.retourner(id, Dates.aujourdhui()) == null) {
+                ouvert = false;
+                return false;
+            }
+            session.valider();
+            ouvert = false;
+            return true;
+        } finally {
+            // Retour en échec: l'emprunt reste ouvert en base, il sera rendu plus tard
+            if (ouvert) {
+                empruntsOuverts.add(id);
+            }
+        }
+    }
+
+    /**
+     * @return Le nombre de livres dont les exemplaires possédés ont changé
+     */
+    private int controlerStocks(PrintStream journal, EntiersParId avant) {
+        EntiersParId apres = livreDAO.getExemplairesPossedes(livres);
+        if (avant == null || apres == null) {
+            journal.println("⚠️  Contrôle des stocks impossible (erreur de lecture).");
+            return 0;
+        }
+        int violations = 0;
+        for (int id : livres) {
+            int attendu = avant.get(id, -1);
+            int obtenu = apres.get(id, -1);
+            if (attendu != obtenu) {
+                violations++;
+                journal.println("✗ Livre " + id + ": " + attendu + " exemplaires possédés avant, " + obtenu + " après");
+            }
+        }
+        journal.println(violations == 0
+                ? "✓ Stocks cohérents pour les " + livres.length + " livres utilisés"
+                : "✗ " + violations + " livres au stock incohérent");
+        return violations;
+    }
+
+    private void afficherRapport(PrintStream journal, long ecouleNs) {
+        double secondes = ecouleNs / 1e9;
+        journal.println();
+        journal.printf("%-10s %9s %9s %8s %8s %9s %9s %9s %9s%n",
+                "Opération", "Nombre", "op/s", "Conflits", "Erreurs", "p50 ms", "p99 ms", "p99,9 ms", "max ms");
+        long total = 0;
+        for (TypeOperation type : TypeOperation.values()) {
+            Mesures m = mesures[type.ordinal()];
+            long nombre = m.latences.nombre();
+            long erreurs = m.erreurs.sum();
+            total += nombre;
+            journal.printf("%-10s %9d %9.1f %7.2f%% %7.2f%% %9.2f %9.2f %9.2f %9.2f%n",
+                    type.libelle, nombre, nombre / secondes,
+                    pourcentage(m.conflits.sum(), nombre), pourcentage(erreurs, nombre + erreurs),
+                    m.latences.centile(0.50) / 1e6, m.latences.centile(0.99) / 1e6,
+                    m.latences.centile(0.999) / 1e6, m.latences.max() / 1e6);
+        }
+        journal.printf("%-10s %9d %9.1f%n%n", "Total", total, total / secondes);
+    }
+
+    private static double pourcentage(long part, long total) {
+        return total == 0 ? 0 : 100.0 * part / total;
+    }
+
+    /**
+     * Latences, conflits et erreurs d'un type d'opération.
+     */
+    private static final class Mesures {
+        final Histogramme latences = new Histogramme();
+        final LongAdder conflits = new LongAdder();
+        final LongAdder erreurs = new LongAdder();
+    }
+}
@@ -1,13 +1,21 @@
 package com.bibliotheque.util;
 
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
 import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Classe utilitaire pour gérer les connexions à la base de données PostgreSQL.
- * Cette classe utilise le pattern Singleton pour garantir une seule instance de connexion.
- * 
+ * Les connexions sont réutilisées via un pool de taille fixe: fermer une
+ * connexion obtenue par getConnection() la rend au pool.
+ *
  * @author Votre Nom
  * @version 1.0
  */
@@ -16,33 +24,88 @@ public class DatabaseConnection {
     private static final String URL = "jdbc:postgresql://localhost:5432/bibliotheque_db";
     private static final String USER = "postgres";
     private static final String PASSWORD = "votre_mot_de_passe"; // ⚠️ À MODIFIER
-    
+
+    // Taille du pool: par défaut 2 connexions par cœur + 1
+    private static final int TAILLE_POOL = Integer.getInteger("bibliotheque.pool.taille",
+            Runtime.getRuntime().availableProcessors() * 2 + 1);
+
+    // Attente maximale d'une connexion libre
+    private static final long ATTENTE_MAX_SECONDES = Long.getLong("bibliotheque.pool.attente", 30L);
+
+    // Au-delà de cette inactivité, une connexion est revalidée avant d'être prêtée
+    private static final long INACTIVITE_VALIDATION_MS = 30_000;
+
+    // Connexions physiques ouvertes et inutilisées
+    private static final BlockingQueue<ConnexionLibre> libres = new ArrayBlockingQueue<>(TAILLE_POOL);
+
+    // Un permis par connexion pouvant être prêtée
+    private static final Semaphore permis = new Semaphore(TAILLE_POOL, true);
+
     /**
-     * Établit et retourne une connexion à la base de données.
-     * 
+     * Emprunte une connexion au pool (en ouvre une si aucune n'est libre).
+     * La méthode close() de la connexion retournée la rend au pool.
+     *
      * @return Connection - Objet de connexion à la base de données
-     * @throws RuntimeException si la connexion échoue
+     * @throws RuntimeException si la connexion échoue ou si le pool reste saturé
      */
     public static Connection getConnection() {
+        try {
+            if (!permis.tryAcquire(ATTENTE_MAX_SECONDES, TimeUnit.SECONDS)) {
+                throw new RuntimeException("Pool de connexions saturé (" + TAILLE_POOL + " connexions)");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Attente d'une connexion interrompue", e);
+        }
+
+        try {
+            Connection physique = null;
+            ConnexionLibre libre;
+            while (physique == null && (libre = libres.poll()) != null) {
+                if (libre.estUtilisable()) {
+                    physique = libre.connexion;
+                } else {
+                    fermerSilencieusement(libre.connexion);
+                }
+            }
+            if (physique == null) {
+                physique = ouvrirConnexionDediee();
+            }
+            return envelopper(physique);
+
+        } catch (RuntimeException e) {
+            permis.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Ouvre une connexion physique hors pool, pour un usage long
+     * (écoute LISTEN/NOTIFY, export en flux...). L'appelant doit la fermer.
+     *
+     * @return Connection - Objet de connexion à la base de données
+     * @throws RuntimeException si la connexion échoue
+     */
+    public static Connection ouvrirConnexionDediee() {
         try {
             // Chargement du driver PostgreSQL
             Class.forName("org.postgresql.Driver");
-            
+
             // Établissement de la connexion
             Connection conn = DriverManager.getConnection(URL, USER, PASSWORD);
-            
+
             if (conn != null) {
                 System.out.println("✓ Connexion à la base de données établie avec succès!");
             }
-            
+
             return conn;
-            
+
         } catch (ClassNotFoundException e) {
             System.err.println("✗ ERREUR: Driver PostgreSQL non trouvé!");
             System.err.println("  Solution: Ajoutez postgresql-XX.jar au classpath");
             System.err.println("  Détails: " + e.getMessage());
             throw new RuntimeException("Driver PostgreSQL non disponible", e);
-            
+
         } catch (SQLException e) {
             System.err.println("✗ ERREUR: Impossible de se connecter à la base de données!");
             System.err.println("  Vérifiez que:");
@@ -53,7 +116,7 @@ public class DatabaseConnection {
             throw new RuntimeException("Erreur de connexion à la base de données", e);
         }
     }
-    
+
     /**
      * Teste la connexion à la base de données.
      * Utilisé pour vérifier que tout fonctionne correctement.
@@ -65,4 +128,108 @@ public class DatabaseConnection {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    // Statistiques du pool
+
+    public static int getTaillePool() {
+        return TAILLE_POOL;
+    }
+
+    public static int getConnexionsActives() {
+        return TAILLE_POOL - permis.availablePermits();
+    }
+
+    public static int getConnexionsLibres() {
+        return libres.size();
+    }
+
+    public static int getAttentesEnCours() {
+        return permis.getQueueLength();
+    }
+
+    /**
+     * Enveloppe une connexion physique: close() la rend au pool au lieu de la fermer.
+     */
+    private static Connection envelopper(Connection physique) {
+        AtomicBoolean rendue = new AtomicBoolean(false);
+
+        return (Connection) Proxy.newProxyInstance(
+            DatabaseConnection.class.getClassLoader(),
+            new Class<?>[] { Connection.class },
+            (proxy, methode, args) -> {
+                switch (methode.getName()) {
+                    case "close":
+                        if (rendue.compareAndSet(false, true)) {
+                            rendre(physique);
+                        }
+                        return null;
+                    case "isClosed":
+                        return rendue.get() || physique.isClosed();
+                    default:
+                        if (rendue.get()) {
+                            throw new SQLException("Connexion déjà rendue au pool");
+                        }
+                        try {
+                            return methode.invoke(physique, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                }
+            });
+    }
+
+    /**
+     * Remet une connexion physique dans le pool, dans un état propre.
+     */
+    private static void rendre(Connection physique) {
+        try {
+            if (!physique.getAutoCommit()) {
+                physique.rollback();
+                physique.setAutoCommit(true);
+            }
+            if (physique.isClosed() || !libres.offer(new ConnexionLibre(physique))) {
+                fermerSilencieusement(physique);
+            }
+        } catch (SQLException e) {
+            fermerSilencieusement(physique);
+        } finally {
+            permis.release();
+        }
+    }
+
+    private static void fermerSilencieusement(Connection physique) {
+        try {
+            physique.close();
+        } catch (SQLException e) {
+            // Connexion déjà inutilisable
+        }
+    }
+
+    /**
+     * Connexion au repos dans le pool, avec l'instant où elle a été rendue.
+     */
+    private static class ConnexionLibre {
+        final Connection connexion;
+        final long depuis = System.currentTimeMillis();
+
+        ConnexionLibre(Connection connexion) {
+            this.connexion = connexion;
+        }
+
+        /**
+         * Une connexion restée longtemps inactive peut avoir été coupée
+         * par le serveur: on ne la revalide (aller-retour réseau) que dans ce cas.
+         */
+        boolean estUtilisable() {
+            try {
+                if (connexion.isClosed()) {
+                    return false;
+                }
+                return System.currentTimeMillis() - depuis < INACTIVITE_VALIDATION_MS
+                        || connexion.isValid(2);
+            } catch (SQLException e) {
+                return false;
+            }
+        }
+    }
+}
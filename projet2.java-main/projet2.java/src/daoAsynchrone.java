@@ -0,0 +1,194 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.model.Emprunt;
+import com.bibliotheque.model.Livre;
+import com.bibliotheque.model.Membre;
+import com.bibliotheque.util.Executeurs;
+import com.bibliotheque.util.Traces;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * Façade asynchrone sur LivreDAO, MembreDAO et EmpruntDAO.
+ * Chaque appel s'exécute sur son propre thread virtuel (Java 21+) et
+ * retourne un CompletableFuture. Le nombre d'opérations simultanées en base
+ * est borné pour ne pas saturer PostgreSQL; sans threads virtuels, le pool
+ * a autant de threads que d'opérations permises, les autres appels
+ * attendent dans sa file.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class DAOAsynchrone {
+    // Nombre maximal d'opérations en base simultanées par défaut
+    private static final int MAX_EN_VOL_DEFAUT = Integer.getInteger("bibliotheque.async.max", 8);
+
+    private final LivreDAO livreDAO;
+    private final MembreDAO membreDAO;
+    private final EmpruntDAO empruntDAO;
+
+    private final ExecutorService executeur;
+    private final Semaphore enVol;
+
+    public DAOAsynchrone(LivreDAO livreDAO, MembreDAO membreDAO, EmpruntDAO empruntDAO) {
+        this(livreDAO, membreDAO, empruntDAO, MAX_EN_VOL_DEFAUT);
+    }
+
+    public DAOAsynchrone(LivreDAO livreDAO, MembreDAO membreDAO, EmpruntDAO empruntDAO, int maxEnVol) {
+        if (maxEnVol < 1) {
+            throw new IllegalArgumentException("maxEnVol doit être au moins 1");
+        }
+        this.livreDAO = livreDAO;
+        this.membreDAO = membreDAO;
+        this.empruntDAO = empruntDAO;
+        this.executeur = Executeurs.parTache("dao-async", maxEnVol);
+        this.enVol = new Semaphore(maxEnVol, true);
+    }
+
+    /**
+     * Exécute une opération DAO en respectant la limite d'opérations simultanées,
+     * sous le segment de trace de l'appelant.
+     */
+    private <T> CompletableFuture<T> soumettre(Supplier<T> operation) {
+        Supplier<T> tracee = Traces.propager(operation);
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                enVol.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return tracee.get();
+            } finally {
+                enVol.release();
+            }
+        }, executeur);
+    }
+
+    /**
+     * Arrête l'exécuteur (les opérations en cours se terminent).
+     */
+    public void fermer() {
+        executeur.shutdown();
+    }
+
+    // Livres
+
+    public CompletableFuture<Boolean> ajouterLivreAsync(Livre livre) {
+        return soumettre(() -> livreDAO.ajouterLivre(livre));
+    }
+
+    public CompletableFuture<Boolean> modifierLivreAsync(Livre livre) {
+        return soumettre(() -> livreDAO.modifierLivre(livre));
+    }
+
+    public CompletableFuture<Boolean> supprimerLivreAsync(int id) {
+        return soumettre(() -> livreDAO.supprimerLivre(id));
+    }
+
+    public CompletableFuture<List<Livre>> rechercherParTitreAsync(String titre) {
+        return soumettre(() -> livreDAO.rechercherParTitre(titre));
+    }
+
+    public CompletableFuture<List<Livre>> rechercherParAuteurAsync(String auteur) {
+        return soumettre(() -> livreDAO.rechercherParAuteur(auteur));
+    }
+
+    public CompletableFuture<List<Livre>> rechercherParCategorieAsync(String categorie) {
+        return soumettre(() -> livreDAO.rechercherParCategorie(categorie));
+    }
+
+    public CompletableFuture<Livre> getLivreByIdAsync(int id) {
+        return soumettre(() -> livreDAO.getLivreById(id));
+    }
+
+    public CompletableFuture<List<Livre>> getLivresByIdsAsync(int[] ids) {
+        return soumettre(() -> livreDAO.getLivresByIds(ids));
+    }
+
+    public CompletableFuture<List<Livre>> afficherTousLivresAsync() {
+        return soumettre(livreDAO::afficherTousLivres);
+    }
+
+    public CompletableFuture<List<Livre>> getPageLivresAsync(String filtre, Integer depuisId, int decalage, int taille) {
+        return soumettre(() -> livreDAO.getPageLivres(filtre, depuisId, decalage, taille));
+    }
+
+    public CompletableFuture<List<Livre>> afficherLivresDisponiblesAsync() {
+        return soumettre(livreDAO::afficherLivresDisponibles);
+    }
+
+    // Membres
+
+    public CompletableFuture<Boolean> ajouterMembreAsync(Membre membre) {
+        return soumettre(() -> membreDAO.ajouterMembre(membre));
+    }
+
+    public CompletableFuture<Boolean> supprimerMembreAsync(int id) {
+        return soumettre(() -> membreDAO.supprimerMembre(id));
+    }
+
+    public CompletableFuture<List<Membre>> rechercherParNomAsync(String nom) {
+        return soumettre(() -> membreDAO.rechercherParNom(nom));
+    }
+
+    public CompletableFuture<Membre> rechercherParEmailAsync(String email) {
+        return soumettre(() -> membreDAO.rechercherParEmail(email));
+    }
+
+    public CompletableFuture<Membre> getMembreByIdAsync(int id) {
+        return soumettre(() -> membreDAO.getMembreById(id));
+    }
+
+    public CompletableFuture<List<Membre>> getMembresByIdsAsync(int[] ids) {
+        return soumettre(() -> membreDAO.getMembresByIds(ids));
+    }
+
+    public CompletableFuture<List<Membre>> afficherTousMembresAsync() {
+        return soumettre(membreDAO::afficherTousMembres);
+    }
+
+    public CompletableFuture<List<Membre>> getPageMembresAsync(String filtre, Integer depuisId, int decalage, int taille) {
+        return soumettre(() -> membreDAO.getPageMembres(filtre, depuisId, decalage, taille));
+    }
+
+    // Emprunts
+
+    public CompletableFuture<Boolean> enregistrerEmpruntAsync(Emprunt emprunt) {
+        return soumettre(() -> empruntDAO.enregistrerEmprunt(emprunt));
+    }
+
+    public CompletableFuture<Boolean> enregistrerRetourAsync(int idEmprunt, LocalDate dateRetour) {
+        return soumettre(() -> empruntDAO.enregistrerRetour(idEmprunt, dateRetour));
+    }
+
+    public CompletableFuture<List<Emprunt>> getEmpruntsEnCoursAsync() {
+        return soumettre(empruntDAO::getEmpruntsEnCours);
+    }
+
+    public CompletableFuture<List<Emprunt>> getEmpruntsEnRetardAsync() {
+        return soumettre(empruntDAO::getEmpruntsEnRetard);
+    }
+
+    public CompletableFuture<List<Emprunt>> getHistoriqueEmpruntsAsync() {
+        return soumettre(empruntDAO::getHistoriqueEmprunts);
+    }
+
+    public CompletableFuture<List<Emprunt>> getPageHistoriqueAsync(String filtre, Integer depuisId, int decalage, int taille) {
+        return soumettre(() -> empruntDAO.getPageHistorique(filtre, depuisId, decalage, taille));
+    }
+
+    public CompletableFuture<List<Emprunt>> getEmpruntsByMembreAsync(int membreId) {
+        return soumettre(() -> empruntDAO.getEmpruntsByMembre(membreId));
+    }
+
+    public CompletableFuture<Emprunt> getEmpruntByIdAsync(int id) {
+        return soumettre(() -> empruntDAO.getEmpruntById(id));
+    }
+}
@@ -0,0 +1,54 @@
+package com.bibliotheque.util;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Classe utilitaire pour les dates: horloge de l'application et format
+ * d'affichage. Tout le code qui a besoin de "aujourd'hui" passe par ici,
+ * ce qui permet de fixer la date (tests, rejeu d'un traitement) avec
+ * setHorloge(Clock.fixed(...)).
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class Dates {
+    // Format d'affichage des dates (DateTimeFormatter est thread-safe)
+    public static final DateTimeFormatter FORMAT_AFFICHAGE = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+
+    private static volatile Clock horloge = Clock.systemDefaultZone();
+
+    private Dates() {
+    }
+
+    /**
+     * Remplace l'horloge de l'application.
+     *
+     * @param nouvelleHorloge L'horloge à utiliser (Clock.systemDefaultZone() par défaut)
+     */
+    public static void setHorloge(Clock nouvelleHorloge) {
+        if (nouvelleHorloge == null) {
+            throw new IllegalArgumentException("L'horloge ne peut pas être null");
+        }
+        horloge = nouvelleHorloge;
+    }
+
+    public static Clock getHorloge() {
+        return horloge;
+    }
+
+    /**
+     * @return La date du jour selon l'horloge de l'application
+     */
+    public static LocalDate aujourdhui() {
+        return LocalDate.now(horloge);
+    }
+
+    /**
+     * Formate une date pour l'affichage (jj/mm/aaaa), ou "" si null.
+     */
+    public static String formater(LocalDate date) {
+        return date != null ? FORMAT_AFFICHAGE.format(date) : "";
+    }
+}
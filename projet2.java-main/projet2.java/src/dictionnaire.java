@@ -0,0 +1,38 @@
+package com.bibliotheque.dao;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionnaire ID → nom d'une table de référence (categories, auteurs).
+ * Tous les livres d'une même catégorie ou d'un même auteur partagent la
+ * même instance de String au lieu d'en garder chacun une copie.
+ *
+ * Les noms ne sont jamais renommés et les IDs jamais réutilisés: une
+ * entrée connue reste valable, le dictionnaire n'a pas à être invalidé.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class Dictionnaire {
+    private final Map<Integer, String> noms = new ConcurrentHashMap<>();
+
+    /**
+     * Retourne l'instance partagée du nom associé à un ID.
+     *
+     * @param id L'ID lu en base
+     * @param nom Le nom lu avec cet ID (mémorisé s'il est encore inconnu)
+     * @return Le nom canonique
+     */
+    public String canonique(int id, String nom) {
+        String existant = noms.putIfAbsent(id, nom);
+        return existant != null ? existant : nom;
+    }
+
+    /**
+     * @return Le nom associé à un ID déjà rencontré, ou null
+     */
+    public String nom(int id) {
+        return noms.get(id);
+    }
+}
@@ -0,0 +1,371 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.model.Emprunt;
+import com.bibliotheque.util.Dates;
+import com.bibliotheque.util.Executeurs;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Échéancier des emprunts en cours: chaque emprunt non rendu, rangé par
+ * date de retour prévue, tenu à jour par EcouteurChangements à partir des
+ * notifications 'emprunts:...' (emprunt ouvert, rendu ou supprimé). Les
+ * emprunts et retours de cette instance y sont aussi portés dès leur
+ * validation (EmpruntDAO, Session), sans attendre leur notification.
+ *
+ * Les emprunts en cours, en retard, leurs nombres et les pénalités à
+ * percevoir sont servis depuis la mémoire, sans requête sur emprunts.
+ * Les emprunts étant rangés par ID, une notification reçue deux fois
+ * (emprunt validé entre le LISTEN et le chargement) est sans effet.
+ *
+ * Chaque nuit à minuit (horloge de Dates), les emprunts dont l'échéance
+ * vient de passer sont signalés une seule fois aux actions enregistrées
+ * par surRetard (rappels...), sans interroger la base: sur le thread de
+ * l'échéancier, ou de l'écouteur au retour d'une coupure. Les retards
+ * antérieurs au premier chargement, ou créés avec une échéance déjà
+ * passée, ne sont pas signalés. Chaque instance de l'application signale
+ * ses propres passages en retard.
+ *
+ * L'échéancier est rechargé par une requête à la connexion de l'écouteur,
+ * après un chargement massif ('table:IMPORT') ou une échéance modifiée,
+ * et périodiquement (notification perdue).
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class EcheancierEmprunts {
+    // Emprunts en cours par échéance puis par ID (écrits par l'écouteur et après chaque validation locale)
+    private static final TreeMap<LocalDate, TreeMap<Integer, Emprunt>> echeances = new TreeMap<>();
+
+    // Faux tant que l'échéancier n'a pas été (re)chargé
+    private static volatile boolean ajour = false;
+
+    // Incrémenté à chaque invalidation (sous le verrou de echeances)
+    private static long invalidations = 0;
+
+    // Les échéances antérieures à cette date ont été signalées (null: jamais chargé)
+    private static LocalDate signaleJusqua;
+
+    private static final List<Consumer<List<Emprunt>>> actionsRetard = new CopyOnWriteArrayList<>();
+    private static ScheduledExecutorService planificateur;
+
+    private static final String SQL_EN_COURS =
+        "SELECT id_emprunt, membre_id, livre_id, date_emprunt, date_retour_prevue FROM emprunts " +
+        "WHERE date_retour_effective IS NULL";
+
+    // Sans écouteur: nombres par échéance, par parcours d'index seul
+    private static final String SQL_ECHEANCES =
+        "SELECT date_retour_prevue, COUNT(*) FROM emprunts " +
+        "WHERE date_retour_effective IS NULL GROUP BY date_retour_prevue";
+
+    static {
+        // Notification inconnue, chargement massif, écoute interrompue
+        CacheEntites.surVidage(EcheancierEmprunts::invalider);
+    }
+
+    private EcheancierEmprunts() {
+    }
+
+    /**
+     * Recharge les emprunts en cours depuis la base, puis signale les
+     * retards survenus depuis le dernier signalement. Une invalidation
+     * reçue pendant la lecture laisse l'échéancier à recharger.
+     *
+     * @param conn La connexion à utiliser (celle de l'écouteur)
+     * @throws SQLException en cas d'erreur d'accès aux données
+     */
+    static void recharger(Connection conn) throws SQLException {
+        long invalidationsLues;
+        synchronized (echeances) {
+            invalidationsLues = invalidations;
+        }
+        TreeMap<LocalDate, TreeMap<Integer, Emprunt>> lus = new TreeMap<>();
+        for (Emprunt e : Jdbc.liste(conn, SQL_EN_COURS, Jdbc.SANS_PARAMETRES, rs ->
+                new Emprunt(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getDate(4).toLocalDate(),
+                            rs.getDate(5).toLocalDate(), null))) {
+            lus.computeIfAbsent(e.getDateRetourPrevue(), d -> new TreeMap<>()).put(e.getIdEmprunt(), e);
+        }
+        synchronized (echeances) {
+            echeances.clear();
+            echeances.putAll(lus);
+            if (signaleJusqua == null) {
+                signaleJusqua = Dates.aujourdhui();
+            }
+            ajour = invalidations == invalidationsLues;
+        }
+        signalerRetards();
+    }
+
+    static boolean isAJour() {
+        return ajour;
+    }
+
+    /**
+     * L'échéancier sera rechargé par l'écouteur (lu en base d'ici là).
+     */
+    static void invalider() {
+        synchronized (echeances) {
+            invalidations++;
+            ajour = false;
+        }
+    }
+
+    /**
+     * Emprunt validé par cette instance. Sa notification, reçue ensuite,
+     * est sans effet (emprunts rangés par ID).
+     */
+    static void emprunte(Emprunt emprunt) {
+        appliquer(copier(emprunt), 1);
+    }
+
+    /**
+     * Retour validé par cette instance.
+     */
+    static void rendu(Emprunt emprunt) {
+        appliquer(emprunt, -1);
+    }
+
+    /**
+     * Emprunt ouvert (variation +1) ou rendu / supprimé (-1), d'après une notification.
+     *
+     * @param emprunt L'emprunt (ID, membre, livre, dates d'emprunt et de retour prévue)
+     * @param variation +1, -1, ou 0 (sans effet)
+     */
+    static void appliquer(Emprunt emprunt, int variation) {
+        synchronized (echeances) {
+            if (variation > 0) {
+                echeances.computeIfAbsent(emprunt.getDateRetourPrevue(), d -> new TreeMap<>())
+                         .put(emprunt.getIdEmprunt(), emprunt);
+            } else if (variation < 0) {
+                TreeMap<Integer, Emprunt> jour = echeances.get(emprunt.getDateRetourPrevue());
+                if (jour != null) {
+                    jour.remove(emprunt.getIdEmprunt());
+                    if (jour.isEmpty()) {
+                        echeances.remove(emprunt.getDateRetourPrevue());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Les emprunts en cours par échéance croissante (copies), ou null
+     *         si l'échéancier n'est pas à jour (à lire en base)
+     */
+    static List<Emprunt> enCours() {
+        return jusqua(null);
+    }
+
+    /**
+     * @return Les emprunts dont l'échéance est passée, par échéance croissante
+     *         (copies), ou null si l'échéancier n'est pas à jour
+     */
+    static List<Emprunt> enRetard() {
+        return jusqua(Dates.aujourdhui());
+    }
+
+    // Emprunts d'échéance antérieure à la date (null: tous)
+    private static List<Emprunt> jusqua(LocalDate date) {
+        return page(date, null, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Page des emprunts en cours par échéance puis par ID, à partir de la
+     * clé (depuisEcheance, depuisId) incluse.
+     *
+     * @param avant Échéance exclue et au-delà (null: aucune borne)
+     * @param depuisEcheance Échéance du premier emprunt de la page (null: depuis le début)
+     * @param depuisId ID du premier emprunt de la page à cette échéance
+     * @param taille Nombre maximal d'emprunts retournés
+     * @return La page (copies), ou null si l'échéancier n'est pas à jour
+     */
+    static List<Emprunt> page(LocalDate avant, LocalDate depuisEcheance, int depuisId, int taille) {
+        if (!CacheEntites.isActif() || !ajour) {
+            return null;
+        }
+        List<Emprunt> emprunts = new ArrayList<>();
+        if (avant != null && depuisEcheance != null && !depuisEcheance.isBefore(avant)) {
+            return emprunts;
+        }
+        synchronized (echeances) {
+            NavigableMap<LocalDate, TreeMap<Integer, Emprunt>> jours = echeances;
+            if (depuisEcheance != null) {
+                jours = jours.tailMap(depuisEcheance, true);
+            }
+            if (avant != null) {
+                jours = jours.headMap(avant, false);
+            }
+            for (Map.Entry<LocalDate, TreeMap<Integer, Emprunt>> jour : jours.entrySet()) {
+                Map<Integer, Emprunt> lignes = jour.getKey().equals(depuisEcheance)
+                    ? jour.getValue().tailMap(depuisId, true) : jour.getValue();
+                for (Emprunt e : lignes.values()) {
+                    if (emprunts.size() == taille) {
+                        return emprunts;
+                    }
+                    emprunts.add(copier(e));
+                }
+            }
+        }
+        return emprunts;
+    }
+
+    private static Emprunt copier(Emprunt e) {
+        return new Emprunt(e.getIdEmprunt(), e.getMembreId(), e.getLivreId(), e.getDateEmprunt(),
+                           e.getDateRetourPrevue(), null);
+    }
+
+    /**
+     * Enregistre une action appelée avec les emprunts qui viennent de passer
+     * en retard (une fois par emprunt), sur le thread de l'échéancier.
+     *
+     * @param action L'action, par exemple l'envoi des rappels
+     */
+    public static void surRetard(Consumer<List<Emprunt>> action) {
+        actionsRetard.add(action);
+    }
+
+    /**
+     * Démarre le signalement des retards, à chaque changement de jour.
+     */
+    public static synchronized void demarrer() {
+        if (planificateur == null) {
+            planificateur = Executors.newSingleThreadScheduledExecutor(Executeurs.fabriqueDemons("echeancier"));
+            planifier();
+        }
+    }
+
+    public static synchronized void arreter() {
+        if (planificateur != null) {
+            planificateur.shutdownNow();
+            planificateur = null;
+        }
+    }
+
+    // Prochain passage: minuit, selon l'horloge de l'application
+    private static synchronized void planifier() {
+        if (planificateur == null) {
+            return;
+        }
+        ZonedDateTime maintenant = ZonedDateTime.now(Dates.getHorloge());
+        ZonedDateTime minuit = maintenant.toLocalDate().plusDays(1).atStartOfDay(maintenant.getZone());
+        long delaiMs = Math.max(1, Duration.between(maintenant, minuit).toMillis());
+        planificateur.schedule(() -> {
+            try {
+                signalerRetards();
+            } catch (RuntimeException e) {
+                System.err.println("✗ Erreur lors du signalement des retards: " + e.getMessage());
+                e.printStackTrace();
+            } finally {
+                planifier();
+            }
+        }, delaiMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Signale les emprunts dont l'échéance est passée depuis le dernier
+     * signalement. Sans échéancier à jour, le signalement attend le
+     * prochain chargement.
+     */
+    private static void signalerRetards() {
+        List<Emprunt> nouveaux = new ArrayList<>();
+        synchronized (echeances) {
+            LocalDate aujourdhui = Dates.aujourdhui();
+            if (!ajour || signaleJusqua == null || !signaleJusqua.isBefore(aujourdhui)) {
+                return;
+            }
+            for (TreeMap<Integer, Emprunt> jour : echeances.subMap(signaleJusqua, aujourdhui).values()) {
+                for (Emprunt e : jour.values()) {
+                    nouveaux.add(copier(e));
+                }
+            }
+            signaleJusqua = aujourdhui;
+        }
+        if (nouveaux.isEmpty()) {
+            return;
+        }
+        for (Consumer<List<Emprunt>> action : actionsRetard) {
+            action.accept(nouveaux);
+        }
+    }
+
+    /**
+     * Emprunts en cours, en retard et pénalités à percevoir à la date du jour.
+     * Sans écouteur connecté (ou en attente de rechargement), les échéances
+     * sont lues en base par une seule requête d'agrégation.
+     *
+     * @return L'état courant, ou null en cas d'erreur d'accès aux données
+     */
+    public static Etat lire() {
+        if (CacheEntites.isActif() && ajour) {
+            TreeMap<LocalDate, Long> nombres = new TreeMap<>();
+            synchronized (echeances) {
+                for (Map.Entry<LocalDate, TreeMap<Integer, Emprunt>> e : echeances.entrySet()) {
+                    nombres.put(e.getKey(), (long) e.getValue().size());
+                }
+            }
+            return new Etat(nombres, Dates.aujourdhui());
+        }
+        return Jdbc.avecConnexion("EcheancierEmprunts.lire", "de la lecture des échéances", null, conn -> {
+            TreeMap<LocalDate, Long> nombres = new TreeMap<>();
+            for (Map.Entry<LocalDate, Long> ligne : Jdbc.liste(conn, SQL_ECHEANCES, Jdbc.SANS_PARAMETRES,
+                    rs -> Map.entry(rs.getDate(1).toLocalDate(), rs.getLong(2)))) {
+                nombres.put(ligne.getKey(), ligne.getValue());
+            }
+            return new Etat(nombres, Dates.aujourdhui());
+        });
+    }
+
+    /**
+     * Compteurs dérivés des échéances à une date donnée.
+     */
+    public static class Etat {
+        private final long enCours;
+        private final long enRetard;
+        private final double penalites;
+
+        Etat(TreeMap<LocalDate, Long> echeances, LocalDate aujourdhui) {
+            long total = 0;
+            long retards = 0;
+            long joursRetard = 0;
+            for (Map.Entry<LocalDate, Long> e : echeances.entrySet()) {
+                total += e.getValue();
+                if (e.getKey().isBefore(aujourdhui)) {
+                    retards += e.getValue();
+                    joursRetard += e.getValue() * ChronoUnit.DAYS.between(e.getKey(), aujourdhui);
+                }
+            }
+            this.enCours = total;
+            this.enRetard = retards;
+            this.penalites = joursRetard * Emprunt.PENALITE_PAR_JOUR;
+        }
+
+        public long getEnCours() {
+            return enCours;
+        }
+
+        public long getEnRetard() {
+            return enRetard;
+        }
+
+        /**
+         * @return Pénalités en F CFA si tous les retards étaient rendus aujourd'hui
+         */
+        public double getPenalites() {
+            return penalites;
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.model.Emprunt;
+import com.bibliotheque.util.DatabaseConnection;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+
+/**
+ * Écoute les notifications PostgreSQL (LISTEN/NOTIFY) émises par les triggers
+ * de schema.sql, invalide les caches locaux en conséquence et tient à jour
+ * l'échéancier des emprunts en cours (EcheancierEmprunts).
+ * Permet à plusieurs instances de partager la même base sans servir
+ * de données obsolètes (disponibilité des livres notamment).
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class EcouteurChangements implements Runnable {
+    // Canal utilisé par la fonction notifier_changement()
+    public static final String CANAL = "bibliotheque_changements";
+
+    // Attente maximale d'une notification avant de revérifier l'arrêt
+    private static final int ATTENTE_MS = 500;
+
+    // Délai avant une tentative de reconnexion
+    private static final long DELAI_RECONNEXION_MS = 5000;
+
+    // Intervalle entre deux rechargements complets de l'échéancier (notification perdue)
+    private static final long RECHARGEMENT_ECHEANCIER_MS = 5 * 60_000;
+
+    private static EcouteurChangements instance;
+
+    private volatile boolean enCours = true;
+    private Thread thread;
+
+    private EcouteurChangements() {
+    }
+
+    /**
+     * Démarre l'écouteur sur un thread dédié (une seule instance par JVM).
+     */
+    public static synchronized EcouteurChangements demarrer() {
+        if (instance == null) {
+            instance = new EcouteurChangements();
+            instance.thread = new Thread(instance, "ecouteur-changements");
+            instance.thread.setDaemon(true);
+            instance.thread.start();
+            EcheancierEmprunts.demarrer();
+        }
+        return instance;
+    }
+
+    /**
+     * Arrête l'écouteur et l'échéancier, et désactive les caches.
+     */
+    public static synchronized void arreter() {
+        if (instance != null) {
+            instance.enCours = false;
+            instance.thread.interrupt();
+            instance = null;
+        }
+        EcheancierEmprunts.arreter();
+        CacheEntites.setActif(false);
+    }
+
+    @Override
+    public void run() {
+        while (enCours) {
+            // Connexion dédiée: elle reste ouverte tant que l'écouteur tourne
+            try (Connection conn = DatabaseConnection.ouvrirConnexionDediee();
+                 Statement stmt = conn.createStatement()) {
+
+                stmt.execute("LISTEN " + CANAL);
+                PGConnection pgConn = conn.unwrap(PGConnection.class);
+
+                // Les changements survenus avant le LISTEN ne seront jamais notifiés
+                CacheEntites.viderTous();
+                CacheEntites.setActif(true);
+                long echeancierCharge = 0;
+
+                while (enCours) {
+                    PGNotification[] notifications = pgConn.getNotifications(ATTENTE_MS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            appliquer(notification.getParameter());
+                        }
+                    }
+                    // Connexion, chargement massif, échéance modifiée ou rechargement périodique
+                    if (!EcheancierEmprunts.isAJour()
+                            || System.currentTimeMillis() - echeancierCharge > RECHARGEMENT_ECHEANCIER_MS) {
+                        EcheancierEmprunts.recharger(conn);
+                        echeancierCharge = System.currentTimeMillis();
+                    }
+                }
+
+            } catch (SQLException | RuntimeException e) {
+                // Sans écoute, les caches ne sont plus fiables
+                CacheEntites.setActif(false);
+                if (enCours) {
+                    System.err.println("✗ Écoute des changements interrompue: " + e.getMessage());
+                    try {
+                        Thread.sleep(DELAI_RECONNEXION_MS);
+                    } catch (InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Applique une notification reçue.
+     * Format: 'table:OPERATION:id' ou
+     * 'emprunts:OPERATION:id_emprunt:livre_id:membre_id:date_retour_prevue:variation:date_emprunt'
+     * (variation +1 / -1 / 0 du nombre d'emprunts en cours, pour EcheancierEmprunts).
+     * Un livre dont seul le stock change envoie 'livres:STOCK:id:stock'.
+     * Un chargement massif envoie 'table:IMPORT' sans ID: tout est invalidé.
+     *
+     * @param payload Le contenu de la notification
+     */
+    static void appliquer(String payload) {
+        String[] parties = payload.split(":");
+        if (parties.length < 3) {
+            CacheEntites.viderTous();
+            return;
+        }
+
+        try {
+            switch (parties[0]) {
+                case "livres":
+                    if (parties[1].equals("STOCK") && parties.length > 3) {
+                        LivreDAO.stockModifie(Integer.parseInt(parties[2]), Integer.parseInt(parties[3]));
+                    } else {
+                        LivreDAO.invaliderCache(Integer.parseInt(parties[2]));
+                    }
+                    break;
+                case "membres":
+                    MembreDAO.invaliderCache(Integer.parseInt(parties[2]));
+                    break;
+                case "emprunts":
+                    // Le stock du livre arrive déjà par la notification 'livres:STOCK'
+                    if (parties.length > 7) {
+                        Emprunt emprunt = new Emprunt(Integer.parseInt(parties[2]), Integer.parseInt(parties[4]),
+                                                      Integer.parseInt(parties[3]), LocalDate.parse(parties[7]),
+                                                      LocalDate.parse(parties[5]), null);
+                        EcheancierEmprunts.appliquer(emprunt, Integer.parseInt(parties[6]));
+                    } else {
+                        // Échéance déplacée (ou ancien trigger): échéancier à recharger
+                        EcheancierEmprunts.invalider();
+                    }
+                    break;
+                default:
+                    CacheEntites.viderTous();
+            }
+        } catch (RuntimeException e) {
+            // Notification mal formée: on repart de caches vides
+            CacheEntites.viderTous();
+        }
+    }
+}
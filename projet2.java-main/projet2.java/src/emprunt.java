@@ -1,206 +1,203 @@
 package com.bibliotheque.model;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
-import java.util.concurrent.TimeUnit;
+import com.bibliotheque.util.AffichageRapport;
+import com.bibliotheque.util.Dates;
+import java.time.LocalDate;
 
 /**
  * Classe représentant un emprunt de livre par un membre.
  * Gère la logique d'emprunt, de retour et de calcul des pénalités.
- * 
+ *
+ * Les dates sont stockées en nombre de jours depuis le 01/01/1970
+ * (LocalDate.toEpochDay): pas d'objet Date par emprunt, et les calculs
+ * de retard sont de simples soustractions d'entiers.
+ *
  * @author Votre Nom
  * @version 1.0
  */
 public class Emprunt {
+    // Valeur de jourRetourEffectif tant que le livre n'est pas retourné
+    private static final int NON_RETOURNE = Integer.MIN_VALUE;
+
     // Attributs privés (Encapsulation)
     private int idEmprunt;
     private int membreId;
     private int livreId;
-    private Date dateEmprunt;
-    private Date dateRetourPrevue;
-    private Date dateRetourEffective;
-    
+    private int jourEmprunt;
+    private int jourRetourPrevu;
+    private int jourRetourEffectif;
+
     // Constante pour le calcul des pénalités
-    private static final double PENALITE_PAR_JOUR = 100.0; // 100 F CFA par jour
-    
-    // Format pour l'affichage des dates
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
-    
+    public static final double PENALITE_PAR_JOUR = 100.0; // 100 F CFA par jour
+
+    // Durée standard d'un emprunt
+    public static final int DUREE_EMPRUNT_JOURS = 14;
+
     /**
      * Constructeur pour créer un nouvel emprunt (sans ID ni date de retour effective).
      */
-    public Emprunt(int membreId, int livreId, Date dateEmprunt, Date dateRetourPrevue) {
+    public Emprunt(int membreId, int livreId, LocalDate dateEmprunt, LocalDate dateRetourPrevue) {
         this.membreId = membreId;
         this.livreId = livreId;
-        this.dateEmprunt = dateEmprunt;
-        this.dateRetourPrevue = dateRetourPrevue;
-        this.dateRetourEffective = null; // Pas encore retourné
+        this.jourEmprunt = jour(dateEmprunt);
+        this.jourRetourPrevu = jour(dateRetourPrevue);
+        this.jourRetourEffectif = NON_RETOURNE; // Pas encore retourné
     }
-    
+
     /**
      * Constructeur complet (pour récupération depuis la base de données).
      */
-    public Emprunt(int idEmprunt, int membreId, int livreId, Date dateEmprunt, 
-                   Date dateRetourPrevue, Date dateRetourEffective) {
+    public Emprunt(int idEmprunt, int membreId, int livreId, LocalDate dateEmprunt,
+                   LocalDate dateRetourPrevue, LocalDate dateRetourEffective) {
         this.idEmprunt = idEmprunt;
         this.membreId = membreId;
         this.livreId = livreId;
-        this.dateEmprunt = dateEmprunt;
-        this.dateRetourPrevue = dateRetourPrevue;
-        this.dateRetourEffective = dateRetourEffective;
+        this.jourEmprunt = jour(dateEmprunt);
+        this.jourRetourPrevu = jour(dateRetourPrevue);
+        this.jourRetourEffectif = dateRetourEffective != null ? jour(dateRetourEffective) : NON_RETOURNE;
+    }
+
+    /**
+     * Crée un nouvel emprunt commençant aujourd'hui, pour la durée standard.
+     */
+    public static Emprunt nouveau(int membreId, int livreId) {
+        LocalDate aujourdhui = Dates.aujourdhui();
+        return new Emprunt(membreId, livreId, aujourdhui, aujourdhui.plusDays(DUREE_EMPRUNT_JOURS));
     }
-    
+
     // Getters et Setters (Encapsulation)
-    public int getIdEmprunt() { 
-        return idEmprunt; 
+    public int getIdEmprunt() {
+        return idEmprunt;
     }
-    
-    public void setIdEmprunt(int idEmprunt) { 
-        this.idEmprunt = idEmprunt; 
+
+    public void setIdEmprunt(int idEmprunt) {
+        this.idEmprunt = idEmprunt;
     }
-    
-    public int getMembreId() { 
-        return membreId; 
+
+    public int getMembreId() {
+        return membreId;
     }
-    
-    public void setMembreId(int membreId) { 
-        this.membreId = membreId; 
+
+    public void setMembreId(int membreId) {
+        this.membreId = membreId;
     }
-    
-    public int getLivreId() { 
-        return livreId; 
+
+    public int getLivreId() {
+        return livreId;
     }
-    
-    public void setLivreId(int livreId) { 
-        this.livreId = livreId; 
+
+    public void setLivreId(int livreId) {
+        this.livreId = livreId;
     }
-    
-    public Date getDateEmprunt() { 
-        return dateEmprunt; 
+
+    public LocalDate getDateEmprunt() {
+        return LocalDate.ofEpochDay(jourEmprunt);
     }
-    
-    public void setDateEmprunt(Date dateEmprunt) { 
-        this.dateEmprunt = dateEmprunt; 
+
+    public void setDateEmprunt(LocalDate dateEmprunt) {
+        this.jourEmprunt = jour(dateEmprunt);
     }
-    
-    public Date getDateRetourPrevue() { 
-        return dateRetourPrevue; 
+
+    public LocalDate getDateRetourPrevue() {
+        return LocalDate.ofEpochDay(jourRetourPrevu);
     }
-    
-    public void setDateRetourPrevue(Date dateRetourPrevue) { 
-        this.dateRetourPrevue = dateRetourPrevue; 
+
+    public void setDateRetourPrevue(LocalDate dateRetourPrevue) {
+        this.jourRetourPrevu = jour(dateRetourPrevue);
+    }
+
+    /**
+     * @return La date de retour effective, ou null si le livre n'est pas retourné
+     */
+    public LocalDate getDateRetourEffective() {
+        return estRetourne() ? LocalDate.ofEpochDay(jourRetourEffectif) : null;
     }
-    
-    public Date getDateRetourEffective() { 
-        return dateRetourEffective; 
+
+    public void setDateRetourEffective(LocalDate dateRetourEffective) {
+        this.jourRetourEffectif = dateRetourEffective != null ? jour(dateRetourEffective) : NON_RETOURNE;
     }
-    
-    public void setDateRetourEffective(Date dateRetourEffective) { 
-        this.dateRetourEffective = dateRetourEffective; 
+
+    /**
+     * Indique si le livre a été retourné.
+     */
+    public boolean estRetourne() {
+        return jourRetourEffectif != NON_RETOURNE;
     }
-    
+
     /**
      * Calcule la pénalité en cas de retard.
      * Formule: nombre_jours_retard × PENALITE_PAR_JOUR
-     * 
+     *
      * @return montant de la pénalité en F CFA
      */
     public double calculerPenalite() {
-        // Si pas encore retourné, utiliser la date actuelle
-        Date dateRetour = (dateRetourEffective != null) ? dateRetourEffective : new Date();
-        
-        // Vérifier s'il y a un retard
-        if (dateRetour.after(dateRetourPrevue)) {
-            // Calculer la différence en millisecondes
-            long diffMillis = dateRetour.getTime() - dateRetourPrevue.getTime();
-            
-            // Convertir en jours
-            long joursRetard = TimeUnit.MILLISECONDS.toDays(diffMillis);
-            
-            // Si la différence est de 0 jours mais qu'il y a un retard (même minime)
-            // on compte quand même 1 jour
-            if (joursRetard == 0 && diffMillis > 0) {
-                joursRetard = 1;
-            }
-            
-            // Calculer la pénalité
-            return joursRetard * PENALITE_PAR_JOUR;
-        }
-        
-        // Pas de retard, pas de pénalité
-        return 0.0;
-    }
-    
+        return calculerPenalite(Dates.aujourdhui());
+    }
+
+    /**
+     * Calcule la pénalité en cas de retard, à une date donnée.
+     *
+     * @param aujourdhui Date utilisée si le livre n'est pas encore retourné
+     * @return montant de la pénalité en F CFA
+     */
+    public double calculerPenalite(LocalDate aujourdhui) {
+        return getJoursRetard(aujourdhui) * PENALITE_PAR_JOUR;
+    }
+
     /**
      * Vérifie si l'emprunt est en retard.
      */
     public boolean estEnRetard() {
-        if (dateRetourEffective != null) {
-            // Le livre a été retourné, vérifier si c'était en retard
-            return dateRetourEffective.after(dateRetourPrevue);
-        } else {
-            // Le livre n'est pas encore retourné, vérifier si la date prévue est dépassée
-            return new Date().after(dateRetourPrevue);
-        }
-    }
-    
+        return estEnRetard(Dates.aujourdhui());
+    }
+
+    /**
+     * Vérifie si l'emprunt est en retard à une date donnée: retourné après
+     * la date prévue, ou pas encore retourné et date prévue dépassée.
+     */
+    public boolean estEnRetard(LocalDate aujourdhui) {
+        return getJoursRetard(aujourdhui) > 0;
+    }
+
     /**
      * Calcule le nombre de jours de retard.
      */
     public long getJoursRetard() {
-        Date dateRetour = (dateRetourEffective != null) ? dateRetourEffective : new Date();
-        
-        if (dateRetour.after(dateRetourPrevue)) {
-            long diffMillis = dateRetour.getTime() - dateRetourPrevue.getTime();
-            return TimeUnit.MILLISECONDS.toDays(diffMillis);
-        }
-        
-        return 0;
-    }
-    
+        return getJoursRetard(Dates.aujourdhui());
+    }
+
+    /**
+     * Calcule le nombre de jours de retard à une date donnée.
+     * Le jour du retour prévu n'est pas compté comme un retard.
+     */
+    public long getJoursRetard(LocalDate aujourdhui) {
+        // Si pas encore retourné, utiliser la date du jour
+        long jourRetour = estRetourne() ? jourRetourEffectif : aujourdhui.toEpochDay();
+        return Math.max(0, jourRetour - jourRetourPrevu);
+    }
+
     /**
      * Affiche les détails de l'emprunt de manière formatée.
      * Implémentation du Polymorphisme.
      */
     public void afficherDetails() {
-        System.out.println("\n╔════════════════════════════════════════╗");
-        System.out.println("║         DÉTAILS DE L'EMPRUNT           ║");
-        System.out.println("╠════════════════════════════════════════╣");
-        System.out.println("║ ID Emprunt       : " + String.format("%-19d", idEmprunt) + "║");
-        System.out.println("║ ID Membre        : " + String.format("%-19d", membreId) + "║");
-        System.out.println("║ ID Livre         : " + String.format("%-19d", livreId) + "║");
-        System.out.println("║ Date emprunt     : " + String.format("%-19s", dateFormat.format(dateEmprunt)) + "║");
-        System.out.println("║ Retour prévu     : " + String.format("%-19s", dateFormat.format(dateRetourPrevue)) + "║");
-        
-        if (dateRetourEffective != null) {
-            System.out.println("║ Retour effectif  : " + String.format("%-19s", dateFormat.format(dateRetourEffective)) + "║");
-        } else {
-            System.out.println("║ Retour effectif  : Non retourné        ║");
-        }
-        
-        double penalite = calculerPenalite();
-        System.out.println("║ Pénalité         : " + String.format("%-12.2f F CFA", penalite) + "║");
-        
-        if (estEnRetard()) {
-            System.out.println("║ ⚠️  STATUT        : EN RETARD          ║");
-            System.out.println("║ Jours de retard  : " + String.format("%-19d", getJoursRetard()) + "║");
-        } else {
-            System.out.println("║ ✓ STATUT         : À JOUR              ║");
-        }
-        
-        System.out.println("╚════════════════════════════════════════╝");
-    }
-    
+        new AffichageRapport(System.out).emprunt(this).terminer();
+    }
+
     @Override
     public String toString() {
         return "Emprunt{" +
                 "idEmprunt=" + idEmprunt +
                 ", membreId=" + membreId +
                 ", livreId=" + livreId +
-                ", dateEmprunt=" + dateFormat.format(dateEmprunt) +
-                ", dateRetourPrevue=" + dateFormat.format(dateRetourPrevue) +
-                ", dateRetourEffective=" + (dateRetourEffective != null ? dateFormat.format(dateRetourEffective) : "Non retourné") +
+                ", dateEmprunt=" + Dates.formater(getDateEmprunt()) +
+                ", dateRetourPrevue=" + Dates.formater(getDateRetourPrevue()) +
+                ", dateRetourEffective=" + (estRetourne() ? Dates.formater(getDateRetourEffective()) : "Non retourné") +
                 ", penalite=" + calculerPenalite() + " F CFA" +
                 '}';
     }
-}
\ No newline at end of file
+
+    private static int jour(LocalDate date) {
+        return Math.toIntExact(date.toEpochDay());
+    }
+}
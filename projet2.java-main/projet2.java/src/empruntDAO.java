@@ -2,9 +2,10 @@ package com.bibliotheque.dao;
 
 import com.bibliotheque.model.Emprunt;
 import com.bibliotheque.util.DatabaseConnection;
+import com.bibliotheque.util.Dates;
 import java.sql.*;
+import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Date;
 import java.util.List;
 
 /**
@@ -16,6 +17,10 @@ import java.util.List;
  */
 public class EmpruntDAO {
     
+    // Colonnes lues par lireEmprunt, dans cet ordre
+    private static final String SELECT =
+        "SELECT id_emprunt, membre_id, livre_id, date_emprunt, date_retour_prevue, date_retour_effective FROM emprunts";
+    
     /**
      * Enregistre un nouvel emprunt dans la base de données.
      * Décrémente automatiquement le nombre d'exemplaires disponibles du livre.
@@ -24,50 +29,20 @@ public class EmpruntDAO {
      * @return true si l'enregistrement a réussi, false sinon
      */
     public boolean enregistrerEmprunt(Emprunt emprunt) {
-        // Vérifier d'abord si le livre est disponible
-        if (!verifierDisponibiliteLivre(emprunt.getLivreId())) {
-            System.err.println("✗ Ce livre n'est pas disponible pour l'emprunt.");
-            return false;
-        }
-        
-        String sqlEmprunt = "INSERT INTO emprunts (membre_id, livre_id, date_emprunt, date_retour_prevue) VALUES (?, ?, ?, ?)";
-        String sqlUpdate = "UPDATE livres SET nombre_exemplaires = nombre_exemplaires - 1 WHERE id = ?";
-        
         Connection conn = null;
         
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false); // Démarrer une transaction
             
-            // 1. Insérer l'emprunt
-            try (PreparedStatement pstmtEmprunt = conn.prepareStatement(sqlEmprunt, Statement.RETURN_GENERATED_KEYS)) {
-                pstmtEmprunt.setInt(1, emprunt.getMembreId());
-                pstmtEmprunt.setInt(2, emprunt.getLivreId());
-                pstmtEmprunt.setDate(3, new java.sql.Date(emprunt.getDateEmprunt().getTime()));
-                pstmtEmprunt.setDate(4, new java.sql.Date(emprunt.getDateRetourPrevue().getTime()));
-                
-                int rowsAffected = pstmtEmprunt.executeUpdate();
-                
-                if (rowsAffected > 0) {
-                    // Récupérer l'ID généré
-                    try (ResultSet generatedKeys = pstmtEmprunt.getGeneratedKeys()) {
-                        if (generatedKeys.next()) {
-                            emprunt.setIdEmprunt(generatedKeys.getInt(1));
-                        }
-                    }
-                } else {
-                    conn.rollback();
-                    return false;
-                }
-            }
-            
-            // 2. Décrémenter le nombre d'exemplaires
-            try (PreparedStatement pstmtUpdate = conn.prepareStatement(sqlUpdate)) {
-                pstmtUpdate.setInt(1, emprunt.getLivreId());
-                pstmtUpdate.executeUpdate();
+            if (!enregistrerEmprunt(conn, emprunt)) {
+                System.err.println("✗ Ce livre n'est pas disponible pour l'emprunt.");
+                conn.rollback();
+                return false;
             }
             
             conn.commit(); // Valider la transaction
+            EcheancierEmprunts.emprunte(emprunt);
             return true;
             
         } catch (SQLException e) {
@@ -96,6 +71,40 @@ public class EmpruntDAO {
         }
     }
     
+    /**
+     * Enregistre un emprunt sur une connexion fournie par l'appelant, sans valider
+     * la transaction (traitement par lots, session). Le stock est décrémenté par
+     * un UPDATE conditionnel: la vérification de disponibilité et la réservation
+     * de l'exemplaire se font en un seul aller-retour, sans course possible.
+     * 
+     * @param conn La connexion à utiliser (en mode transactionnel)
+     * @param emprunt L'emprunt à enregistrer
+     * @return true si l'emprunt a été enregistré, false si le livre n'est pas disponible
+     * @throws SQLException en cas d'erreur d'accès aux données
+     */
+    public boolean enregistrerEmprunt(Connection conn, Emprunt emprunt) throws SQLException {
+        return Jdbc.mesurer("EmpruntDAO.enregistrerEmprunt(Connection)", conn, c -> {
+            String sqlUpdate = "UPDATE livres SET nombre_exemplaires = nombre_exemplaires - 1 WHERE id = ? AND nombre_exemplaires > 0";
+            String sqlEmprunt = "INSERT INTO emprunts (membre_id, livre_id, date_emprunt, date_retour_prevue) VALUES (?, ?, ?, ?)";
+        
+            // 1. Réserver un exemplaire (échoue si aucun n'est disponible)
+            if (Jdbc.executer(c, sqlUpdate, pstmt -> pstmt.setInt(1, emprunt.getLivreId())) == 0) {
+                return false;
+            }
+        
+            // 2. Insérer l'emprunt et récupérer l'ID généré
+            emprunt.setIdEmprunt(Jdbc.inserer(c, sqlEmprunt, pstmt -> {
+                pstmt.setInt(1, emprunt.getMembreId());
+                pstmt.setInt(2, emprunt.getLivreId());
+                pstmt.setDate(3, java.sql.Date.valueOf(emprunt.getDateEmprunt()));
+                pstmt.setDate(4, java.sql.Date.valueOf(emprunt.getDateRetourPrevue()));
+            }));
+        
+            LivreDAO.invaliderCache(emprunt.getLivreId()); // Stock modifié
+            return true;
+        });
+    }
+    
     /**
      * Enregistre le retour d'un livre.
      * Incrémente automatiquement le nombre d'exemplaires disponibles et calcule la pénalité.
@@ -104,53 +113,35 @@ public class EmpruntDAO {
      * @param dateRetour La date de retour effective
      * @return true si l'enregistrement a réussi, false sinon
      */
-    public boolean enregistrerRetour(int idEmprunt, Date dateRetour) {
-        // Récupérer l'emprunt pour calculer la pénalité
-        Emprunt emprunt = getEmpruntById(idEmprunt);
-        if (emprunt == null) {
-            System.err.println("✗ Emprunt non trouvé avec l'ID: " + idEmprunt);
-            return false;
-        }
-        
-        if (emprunt.getDateRetourEffective() != null) {
-            System.err.println("✗ Ce livre a déjà été retourné le " + emprunt.getDateRetourEffective());
-            return false;
-        }
-        
-        emprunt.setDateRetourEffective(dateRetour);
-        double penalite = emprunt.calculerPenalite();
-        
-        String sqlRetour = "UPDATE emprunts SET date_retour_effective=?, penalite=? WHERE id_emprunt=?";
-        String sqlUpdate = "UPDATE livres SET nombre_exemplaires = nombre_exemplaires + 1 WHERE id = ?";
-        
+    public boolean enregistrerRetour(int idEmprunt, LocalDate dateRetour) {
         Connection conn = null;
         
         try {
             conn = DatabaseConnection.getConnection();
             conn.setAutoCommit(false); // Transaction
             
-            // 1. Mettre à jour l'emprunt
-            try (PreparedStatement pstmtRetour = conn.prepareStatement(sqlRetour)) {
-                pstmtRetour.setDate(1, new java.sql.Date(dateRetour.getTime()));
-                pstmtRetour.setDouble(2, penalite);
-                pstmtRetour.setInt(3, idEmprunt);
-                
-                int rowsAffected = pstmtRetour.executeUpdate();
-                if (rowsAffected == 0) {
-                    conn.rollback();
-                    return false;
-                }
+            Emprunt emprunt = getEmpruntById(conn, idEmprunt);
+            if (emprunt == null) {
+                System.err.println("✗ Emprunt non trouvé avec l'ID: " + idEmprunt);
+                return false;
             }
             
-            // 2. Incrémenter le nombre d'exemplaires
-            try (PreparedStatement pstmtUpdate = conn.prepareStatement(sqlUpdate)) {
-                pstmtUpdate.setInt(1, emprunt.getLivreId());
-                pstmtUpdate.executeUpdate();
+            if (emprunt.estRetourne()) {
+                System.err.println("✗ Ce livre a déjà été retourné le " + Dates.formater(emprunt.getDateRetourEffective()));
+                return false;
+            }
+            
+            emprunt = enregistrerRetour(conn, idEmprunt, dateRetour);
+            if (emprunt == null) {
+                conn.rollback();
+                return false;
             }
             
             conn.commit(); // Valider la transaction
+            EcheancierEmprunts.rendu(emprunt);
             
             // Afficher le résultat
+            double penalite = emprunt.calculerPenalite();
             if (penalite > 0) {
                 System.out.println("\n⚠️  ATTENTION: Retard détecté!");
                 System.out.println("   Pénalité à payer: " + penalite + " F CFA");
@@ -187,53 +178,135 @@ public class EmpruntDAO {
     }
     
     /**
-     * Récupère tous les emprunts en cours (non retournés).
+     * Enregistre un retour sur une connexion fournie par l'appelant, sans valider
+     * la transaction (traitement par lots, session).
      * 
-     * @return Liste des emprunts en cours
+     * @param conn La connexion à utiliser (en mode transactionnel)
+     * @param idEmprunt L'ID de l'emprunt
+     * @param dateRetour La date de retour effective
+     * @return L'emprunt mis à jour (avec sa pénalité), ou null s'il est introuvable ou déjà retourné
+     * @throws SQLException en cas d'erreur d'accès aux données
      */
-    public List<Emprunt> getEmpruntsEnCours() {
-        List<Emprunt> emprunts = new ArrayList<>();
-        String sql = "SELECT * FROM emprunts WHERE date_retour_effective IS NULL ORDER BY date_retour_prevue";
+    public Emprunt enregistrerRetour(Connection conn, int idEmprunt, LocalDate dateRetour) throws SQLException {
+        return Jdbc.mesurer("EmpruntDAO.enregistrerRetour(Connection)", conn, c -> {
+            // Verrouiller l'emprunt: deux retours simultanés ne peuvent pas réussir tous les deux
+            String sqlSelect = SELECT + " WHERE id_emprunt=? FOR UPDATE";
+            String sqlRetour = "UPDATE emprunts SET date_retour_effective=?, penalite=? WHERE id_emprunt=? AND date_retour_effective IS NULL";
+            String sqlUpdate = "UPDATE livres SET nombre_exemplaires = nombre_exemplaires + 1 WHERE id = ?";
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                emprunts.add(extractEmpruntFromResultSet(rs));
+            Emprunt emprunt = Jdbc.premier(c, sqlSelect, pstmt -> pstmt.setInt(1, idEmprunt), this::lireEmprunt);
+            if (emprunt == null || emprunt.estRetourne()) {
+                return null;
+            }
+        
+            emprunt.setDateRetourEffective(dateRetour);
+            double penalite = emprunt.calculerPenalite(dateRetour);
+        
+            // 1. Mettre à jour l'emprunt
+            int modifies = Jdbc.executer(c, sqlRetour, pstmt -> {
+                pstmt.setDate(1, java.sql.Date.valueOf(dateRetour));
+                pstmt.setDouble(2, penalite);
+                pstmt.setInt(3, idEmprunt);
+            });
+            if (modifies == 0) {
+                return null;
             }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la récupération des emprunts en cours: " + e.getMessage());
-            e.printStackTrace();
-        }
         
-        return emprunts;
+            // 2. Incrémenter le nombre d'exemplaires
+            int livreId = emprunt.getLivreId();
+            Jdbc.executer(c, sqlUpdate, pstmt -> pstmt.setInt(1, livreId));
+        
+            LivreDAO.invaliderCache(livreId); // Stock modifié
+            return emprunt;
+        });
     }
     
     /**
-     * Récupère tous les emprunts en retard (non retournés et date dépassée).
+     * Récupère tous les emprunts en cours (non retournés), par échéance.
+     * Servis par l'échéancier en mémoire quand l'écouteur est connecté.
+     * 
+     * @return Liste des emprunts en cours
+     */
+    public List<Emprunt> getEmpruntsEnCours() {
+        List<Emprunt> enMemoire = EcheancierEmprunts.enCours();
+        if (enMemoire != null) {
+            return enMemoire;
+        }
+        return Jdbc.avecConnexion("EmpruntDAO.getEmpruntsEnCours", "de la récupération des emprunts en cours", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, SELECT + " WHERE date_retour_effective IS NULL ORDER BY date_retour_prevue",
+                       Jdbc.SANS_PARAMETRES, this::lireEmprunt));
+    }
+    
+    /**
+     * Récupère tous les emprunts en retard (non retournés et date dépassée), par échéance.
+     * Servis par l'échéancier en mémoire quand l'écouteur est connecté.
      * 
      * @return Liste des emprunts en retard
      */
     public List<Emprunt> getEmpruntsEnRetard() {
-        List<Emprunt> emprunts = new ArrayList<>();
-        String sql = "SELECT * FROM emprunts WHERE date_retour_effective IS NULL AND date_retour_prevue < CURRENT_DATE ORDER BY date_retour_prevue";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                emprunts.add(extractEmpruntFromResultSet(rs));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la récupération des emprunts en retard: " + e.getMessage());
-            e.printStackTrace();
+        List<Emprunt> enMemoire = EcheancierEmprunts.enRetard();
+        if (enMemoire != null) {
+            return enMemoire;
+        }
+        return Jdbc.avecConnexion("EmpruntDAO.getEmpruntsEnRetard", "de la récupération des emprunts en retard", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, SELECT + " WHERE date_retour_effective IS NULL AND date_retour_prevue < CURRENT_DATE" +
+                             " ORDER BY date_retour_prevue",
+                       Jdbc.SANS_PARAMETRES, this::lireEmprunt));
+    }
+    
+    /**
+     * Récupère une page des emprunts en cours, par échéance puis par ID
+     * (pagination par clé sur idx_emprunts_en_cours). Servie par
+     * l'échéancier en mémoire quand l'écouteur est connecté.
+     * 
+     * @param depuisEcheance Échéance du premier emprunt de la page (null: depuis le début)
+     * @param depuisId ID du premier emprunt de la page à cette échéance
+     * @param taille Nombre maximal d'emprunts retournés
+     * @return La page d'emprunts (vide si aucun)
+     */
+    public List<Emprunt> getPageEnCours(LocalDate depuisEcheance, int depuisId, int taille) {
+        return pageOuverts("EmpruntDAO.getPageEnCours", "d'une page des emprunts en cours",
+                           null, depuisEcheance, depuisId, taille);
+    }
+    
+    /**
+     * Récupère une page des emprunts en retard, par échéance puis par ID
+     * (pagination par clé sur idx_emprunts_en_cours).
+     * 
+     * @param depuisEcheance Échéance du premier emprunt de la page (null: depuis le début)
+     * @param depuisId ID du premier emprunt de la page à cette échéance
+     * @param taille Nombre maximal d'emprunts retournés
+     * @return La page d'emprunts (vide si aucun)
+     */
+    public List<Emprunt> getPageEnRetard(LocalDate depuisEcheance, int depuisId, int taille) {
+        return pageOuverts("EmpruntDAO.getPageEnRetard", "d'une page des emprunts en retard",
+                           Dates.aujourdhui(), depuisEcheance, depuisId, taille);
+    }
+    
+    // Emprunts en cours d'échéance antérieure à avant (null: tous), à partir de la clé (échéance, ID)
+    private List<Emprunt> pageOuverts(String methode, String action, LocalDate avant,
+                                      LocalDate depuisEcheance, int depuisId, int taille) {
+        List<Emprunt> enMemoire = EcheancierEmprunts.page(avant, depuisEcheance, depuisId, taille);
+        if (enMemoire != null) {
+            return enMemoire;
         }
+        String sql = SELECT + " WHERE date_retour_effective IS NULL" +
+                     (avant != null ? " AND date_retour_prevue < ?" : "") +
+                     (depuisEcheance != null ? " AND (date_retour_prevue, id_emprunt) >= (?, ?)" : "") +
+                     " ORDER BY date_retour_prevue, id_emprunt LIMIT ?";
         
-        return emprunts;
+        return Jdbc.avecConnexion(methode, "de la récupération " + action, new ArrayList<>(), conn ->
+            Jdbc.liste(conn, sql, pstmt -> {
+                int i = 1;
+                if (avant != null) {
+                    pstmt.setDate(i++, java.sql.Date.valueOf(avant));
+                }
+                if (depuisEcheance != null) {
+                    pstmt.setDate(i++, java.sql.Date.valueOf(depuisEcheance));
+                    pstmt.setInt(i++, depuisId);
+                }
+                pstmt.setInt(i, taille);
+            }, this::lireEmprunt));
     }
     
     /**
@@ -242,23 +315,41 @@ public class EmpruntDAO {
      * @return Liste de tous les emprunts (en cours et terminés)
      */
     public List<Emprunt> getHistoriqueEmprunts() {
-        List<Emprunt> emprunts = new ArrayList<>();
-        String sql = "SELECT * FROM emprunts ORDER BY date_emprunt DESC";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                emprunts.add(extractEmpruntFromResultSet(rs));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la récupération de l'historique: " + e.getMessage());
-            e.printStackTrace();
-        }
+        return Jdbc.avecConnexion("EmpruntDAO.getHistoriqueEmprunts", "de la récupération de l'historique", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, SELECT + " ORDER BY date_emprunt DESC", Jdbc.SANS_PARAMETRES, this::lireEmprunt));
+    }
+    
+    /**
+     * Récupère une page de l'historique, du plus récent au plus ancien
+     * (ID décroissant, pagination par clé).
+     * 
+     * @param filtre Texte recherché dans le nom/prénom du membre ou le titre du livre (null ou vide: aucun filtre)
+     * @param depuisId ID du premier emprunt de la page (null: depuis le plus récent)
+     * @param decalage Nombre d'emprunts à sauter
+     * @param taille Nombre maximal d'emprunts retournés
+     * @return La page d'emprunts (vide si aucun)
+     */
+    public List<Emprunt> getPageHistorique(String filtre, Integer depuisId, int decalage, int taille) {
+        boolean filtrer = filtre != null && !filtre.isEmpty();
+        String sql = SELECT + " e WHERE e.id_emprunt <= ?" +
+                     (filtrer ? " AND (EXISTS (SELECT 1 FROM membres m WHERE m.id = e.membre_id" +
+                                "              AND (LOWER(m.nom) LIKE LOWER(?) OR LOWER(m.prenom) LIKE LOWER(?)))" +
+                                "  OR EXISTS (SELECT 1 FROM livres l WHERE l.id = e.livre_id" +
+                                "              AND LOWER(l.titre) LIKE LOWER(?)))" : "") +
+                     " ORDER BY e.id_emprunt DESC LIMIT ? OFFSET ?";
         
-        return emprunts;
+        return Jdbc.avecConnexion("EmpruntDAO.getPageHistorique", "de la récupération d'une page de l'historique", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, sql, pstmt -> {
+                int i = 1;
+                pstmt.setInt(i++, depuisId != null ? depuisId : Integer.MAX_VALUE);
+                if (filtrer) {
+                    pstmt.setString(i++, "%" + filtre + "%");
+                    pstmt.setString(i++, "%" + filtre + "%");
+                    pstmt.setString(i++, "%" + filtre + "%");
+                }
+                pstmt.setInt(i++, taille);
+                pstmt.setInt(i, decalage);
+            }, this::lireEmprunt));
     }
     
     /**
@@ -268,25 +359,9 @@ public class EmpruntDAO {
      * @return Liste des emprunts du membre
      */
     public List<Emprunt> getEmpruntsByMembre(int membreId) {
-        List<Emprunt> emprunts = new ArrayList<>();
-        String sql = "SELECT * FROM emprunts WHERE membre_id=? ORDER BY date_emprunt DESC";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, membreId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                emprunts.add(extractEmpruntFromResultSet(rs));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la récupération des emprunts du membre: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return emprunts;
+        return Jdbc.avecConnexion("EmpruntDAO.getEmpruntsByMembre", "de la récupération des emprunts du membre", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, SELECT + " WHERE membre_id=? ORDER BY date_emprunt DESC",
+                       pstmt -> pstmt.setInt(1, membreId), this::lireEmprunt));
     }
     
     /**
@@ -296,69 +371,54 @@ public class EmpruntDAO {
      * @return L'emprunt trouvé ou null
      */
     public Emprunt getEmpruntById(int id) {
-        String sql = "SELECT * FROM emprunts WHERE id_emprunt=?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return extractEmpruntFromResultSet(rs);
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la récupération de l'emprunt: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return null;
+        return Jdbc.avecConnexion("EmpruntDAO.getEmpruntById", "de la récupération de l'emprunt", null, conn -> getEmpruntById(conn, id));
     }
     
     /**
-     * Vérifie si un livre est disponible pour emprunt.
+     * Récupère un emprunt par son ID sur une connexion fournie par l'appelant.
      * 
-     * @param livreId L'ID du livre
-     * @return true si disponible, false sinon
+     * @param conn La connexion à utiliser
+     * @param id L'ID de l'emprunt
+     * @return L'emprunt trouvé ou null
+     * @throws SQLException en cas d'erreur d'accès aux données
      */
-    private boolean verifierDisponibiliteLivre(int livreId) {
-        String sql = "SELECT nombre_exemplaires FROM livres WHERE id=?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, livreId);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return rs.getInt("nombre_exemplaires") > 0;
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la vérification de disponibilité: " + e.getMessage());
-        }
-        
-        return false;
+    public Emprunt getEmpruntById(Connection conn, int id) throws SQLException {
+        return Jdbc.mesurer("EmpruntDAO.getEmpruntById(Connection)", conn, c ->
+            Jdbc.premier(c, SELECT + " WHERE id_emprunt=?", pstmt -> pstmt.setInt(1, id), this::lireEmprunt));
+    }
+    
+    /**
+     * Récupère plusieurs emprunts par leurs IDs en une seule requête,
+     * sur une connexion fournie par l'appelant (Session).
+     * 
+     * @param conn La connexion à utiliser
+     * @param ids Les IDs des emprunts
+     * @return Les emprunts trouvés (les IDs inconnus sont ignorés)
+     * @throws SQLException en cas d'erreur d'accès aux données
+     */
+    public List<Emprunt> getEmpruntsByIds(Connection conn, int[] ids) throws SQLException {
+        return Jdbc.mesurer("EmpruntDAO.getEmpruntsByIds(Connection)", conn, c ->
+            Jdbc.liste(c, SELECT + " WHERE id_emprunt = ANY(?)",
+                       pstmt -> pstmt.setArray(1, Jdbc.entiers(c, ids)), this::lireEmprunt));
     }
     
     /**
-     * Méthode utilitaire pour extraire un Emprunt depuis un ResultSet.
+     * Construit un Emprunt depuis une ligne de SELECT (colonnes lues par position).
      * 
-     * @param rs Le ResultSet
+     * @param rs Le ResultSet positionné sur la ligne
      * @return Un objet Emprunt
      * @throws SQLException en cas d'erreur
      */
-    private Emprunt extractEmpruntFromResultSet(ResultSet rs) throws SQLException {
-        Date dateRetourEffective = rs.getDate("date_retour_effective");
+    private Emprunt lireEmprunt(ResultSet rs) throws SQLException {
+        java.sql.Date dateRetourEffective = rs.getDate(6);
         
         return new Emprunt(
-            rs.getInt("id_emprunt"),
-            rs.getInt("membre_id"),
-            rs.getInt("livre_id"),
-            rs.getDate("date_emprunt"),
-            rs.getDate("date_retour_prevue"),
-            dateRetourEffective
+            rs.getInt(1),
+            rs.getInt(2),
+            rs.getInt(3),
+            rs.getDate(4).toLocalDate(),
+            rs.getDate(5).toLocalDate(),
+            dateRetourEffective != null ? dateRetourEffective.toLocalDate() : null
         );
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,119 @@
+package com.bibliotheque.util;
+
+import java.util.Arrays;
+
+/**
+ * Table ID → entier à adressage ouvert, sans boxing: compteurs par membre
+ * ou par livre, clés de pagination. Même organisation que TableParId.
+ *
+ * Pas de suppression d'un ID seul (seulement vider()). Non thread-safe.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class EntiersParId {
+    private int[] cles;
+    private int[] valeurs;
+    private boolean[] occupees;
+    private int taille;
+
+    public EntiersParId() {
+        this(16);
+    }
+
+    /**
+     * @param capacite Nombre d'entrées prévu (la table grandit au-delà)
+     */
+    public EntiersParId(int capacite) {
+        int cases = Integer.highestOneBit(Math.max(capacite, 8) * 2 - 1) << 1;
+        cles = new int[cases];
+        valeurs = new int[cases];
+        occupees = new boolean[cases];
+    }
+
+    /**
+     * @return La valeur associée à l'ID, ou defaut si l'ID est absent
+     */
+    public int get(int id, int defaut) {
+        int i = caseDe(id);
+        return occupees[i] ? valeurs[i] : defaut;
+    }
+
+    public boolean contient(int id) {
+        return occupees[caseDe(id)];
+    }
+
+    /**
+     * Associe une valeur à un ID (remplace l'ancienne).
+     */
+    public void put(int id, int valeur) {
+        int i = caseDe(id);
+        valeurs[i] = valeur;
+        occuper(i, id);
+    }
+
+    /**
+     * Ajoute delta à la valeur d'un ID (0 s'il est absent).
+     *
+     * @return La nouvelle valeur
+     */
+    public int ajouter(int id, int delta) {
+        int i = caseDe(id);
+        int valeur = (occupees[i] ? valeurs[i] : 0) + delta;
+        valeurs[i] = valeur;
+        occuper(i, id);
+        return valeur;
+    }
+
+    /**
+     * @return Le nombre d'IDs présents
+     */
+    public int taille() {
+        return taille;
+    }
+
+    /**
+     * Retire tous les IDs (la capacité est conservée).
+     */
+    public void vider() {
+        Arrays.fill(occupees, false);
+        taille = 0;
+    }
+
+    private void occuper(int i, int id) {
+        if (!occupees[i]) {
+            cles[i] = id;
+            occupees[i] = true;
+            if (++taille * 2 > cles.length) {
+                agrandir();
+            }
+        }
+    }
+
+    // Case de l'ID, ou case vide où l'insérer
+    private int caseDe(int id) {
+        int masque = cles.length - 1;
+        int i = Hachage.disperser(id) & masque;
+        while (occupees[i] && cles[i] != id) {
+            i = (i + 1) & masque;
+        }
+        return i;
+    }
+
+    private void agrandir() {
+        int[] anciennesCles = cles;
+        int[] anciennesValeurs = valeurs;
+        boolean[] anciennesOccupees = occupees;
+        cles = new int[anciennesCles.length * 2];
+        valeurs = new int[anciennesCles.length * 2];
+        occupees = new boolean[anciennesCles.length * 2];
+        for (int j = 0; j < anciennesCles.length; j++) {
+            if (anciennesOccupees[j]) {
+                int i = caseDe(anciennesCles[j]);
+                cles[i] = anciennesCles[j];
+                valeurs[i] = anciennesValeurs[j];
+                occupees[i] = true;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.bibliotheque.dao;
+
+import java.sql.SQLException;
+
+/**
+ * Erreur d'accès aux données levée par un DAO à la place de sa valeur de
+ * repli (liste vide, null, false), pour le thread qui l'a demandé par
+ * propager(true): le serveur HTTP répond alors 503 au lieu de 200 [].
+ *
+ * Les DAO qui traitent eux-mêmes une erreur attendue (suppression refusée
+ * par une clé étrangère, email en double) gardent leur traitement.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class ErreurDonnees extends RuntimeException {
+    private static final long serialVersionUID = 1L;
+
+    private static final ThreadLocal<Boolean> propagees = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    ErreurDonnees(String methode, SQLException cause) {
+        super(methode + ": " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Active ou désactive la propagation des erreurs pour le thread courant.
+     *
+     * @param actif true: les DAO lèvent ErreurDonnees au lieu de retourner leur valeur de repli
+     */
+    public static void propager(boolean actif) {
+        propagees.set(actif);
+    }
+
+    static boolean isPropagee() {
+        return propagees.get();
+    }
+}
@@ -0,0 +1,33 @@
+package com.bibliotheque.dao;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Événement JFR émis par Jdbc autour de chaque appel de méthode DAO
+ * (les mêmes que MesureDAO): sa durée comprend l'attente d'une
+ * connexion du pool, indiquée à part.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+@Name("com.bibliotheque.AppelDAO")
+@Label("Appel DAO")
+@Category({"Bibliothèque", "Base de données"})
+@Description("Appel d'une méthode DAO, de l'obtention de la connexion à la fin du travail")
+public class EvenementAppelDAO extends jdk.jfr.Event {
+
+    @Label("Méthode")
+    String methode;
+
+    @Label("Attente de connexion")
+    @Description("Temps d'obtention d'une connexion du pool (0 si fournie par l'appelant)")
+    @Timespan(Timespan.NANOSECONDS)
+    long attenteConnexion;
+
+    @Label("Succès")
+    boolean succes;
+}
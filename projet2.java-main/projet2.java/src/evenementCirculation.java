@@ -0,0 +1,45 @@
+package com.bibliotheque;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Événement JFR émis autour des opérations de circulation (emprunt,
+ * retour) et des rapports, dans le menu comme dans l'API HTTP. Les
+ * événements DAO et SQL de l'opération s'y emboîtent sur le même thread.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+@Name("com.bibliotheque.Circulation")
+@Label("Circulation")
+@Category("Bibliothèque")
+@Description("Emprunt, retour ou rapport, de la saisie à la réponse")
+public class EvenementCirculation extends jdk.jfr.Event {
+    // Valeurs du champ operation
+    public static final String EMPRUNT = "emprunt";
+    public static final String RETOUR = "retour";
+    public static final String RAPPORT_RETARDS = "rapport-retards";
+    public static final String RAPPORT_STATISTIQUES = "rapport-statistiques";
+
+    @Label("Opération")
+    String operation;
+
+    @Label("Membre")
+    int membreId;
+
+    @Label("Livre")
+    int livreId;
+
+    @Label("Emprunt")
+    int empruntId;
+
+    @Label("Succès")
+    boolean succes;
+
+    public EvenementCirculation(String operation) {
+        this.operation = operation;
+    }
+}
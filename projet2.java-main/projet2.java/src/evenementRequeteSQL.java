@@ -0,0 +1,32 @@
+package com.bibliotheque.dao;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Événement JFR émis par Jdbc autour de chaque requête SQL.
+ * Il s'inscrit dans l'EvenementAppelDAO de la méthode appelante (même
+ * thread), qui porte l'attente de connexion et la pile d'appels.
+ *
+ * Sans enregistrement JFR en cours, begin() et commit() ne font rien.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+@Name("com.bibliotheque.RequeteSQL")
+@Label("Requête SQL")
+@Category({"Bibliothèque", "Base de données"})
+@Description("Exécution d'une requête SQL et lecture de ses lignes")
+@StackTrace(false)
+public class EvenementRequeteSQL extends jdk.jfr.Event {
+
+    @Label("SQL")
+    String requete;
+
+    @Label("Lignes")
+    @Description("Lignes lues, modifiées ou insérées")
+    long lignes;
+}
@@ -0,0 +1,81 @@
+package com.bibliotheque.util;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Classe utilitaire pour créer les exécuteurs de l'application.
+ * Utilise les threads virtuels quand la JVM les fournit (Java 21+),
+ * sinon des threads classiques en mode démon.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class Executeurs {
+
+    private Executeurs() {
+    }
+
+    /**
+     * Crée un exécuteur lançant un thread virtuel par tâche (Java 21+), sinon
+     * un pool d'au plus maxPlateforme threads démons: les tâches en trop
+     * attendent dans la file du pool au lieu d'occuper chacune un thread
+     * système.
+     *
+     * @param prefixe Préfixe du nom des threads (pour le diagnostic)
+     * @param maxPlateforme Nombre maximal de threads sans threads virtuels
+     * @return Un nouvel exécuteur
+     */
+    public static ExecutorService parTache(String prefixe, int maxPlateforme) {
+        ExecutorService virtuel = virtuels(prefixe);
+        return virtuel != null ? virtuel : Executors.newFixedThreadPool(maxPlateforme, fabriqueDemons(prefixe));
+    }
+
+    /**
+     * Crée un exécuteur lançant un thread par tâche, sans borne: threads
+     * virtuels si disponibles, sinon threads démons créés à la demande.
+     * Réservé au générateur de charge, dont la boucle ouverte ne doit pas
+     * être freinée côté client.
+     *
+     * @param prefixe Préfixe du nom des threads (pour le diagnostic)
+     * @return Un nouvel exécuteur
+     */
+    public static ExecutorService parTache(String prefixe) {
+        ExecutorService virtuel = virtuels(prefixe);
+        return virtuel != null ? virtuel : Executors.newCachedThreadPool(fabriqueDemons(prefixe));
+    }
+
+    // Exécuteur à threads virtuels "prefixe-N", ou null avant Java 21
+    private static ExecutorService virtuels(String prefixe) {
+        try {
+            // Appel par réflexion: le projet compile avec un JDK 17 (Thread.ofVirtual() date de Java 21)
+            Object constructeur = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> type = Class.forName("java.lang.Thread$Builder");
+            constructeur = type.getMethod("name", String.class, long.class).invoke(constructeur, prefixe + "-", 1L);
+            ThreadFactory fabrique = (ThreadFactory) type.getMethod("factory").invoke(constructeur);
+            Object executeur = Executors.class
+                .getMethod("newThreadPerTaskExecutor", ThreadFactory.class)
+                .invoke(null, fabrique);
+            return (ExecutorService) executeur;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Fabrique de threads démons nommés "prefixe-N".
+     *
+     * @param prefixe Préfixe du nom des threads
+     * @return La fabrique de threads
+     */
+    public static ThreadFactory fabriqueDemons(String prefixe) {
+        AtomicInteger compteur = new AtomicInteger();
+        return tache -> {
+            Thread thread = new Thread(tache, prefixe + "-" + compteur.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
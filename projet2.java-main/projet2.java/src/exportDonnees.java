@@ -0,0 +1,185 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.util.DatabaseConnection;
+import com.bibliotheque.util.Json;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.sql.*;
+
+/**
+ * Export en flux de l'historique des emprunts ou du catalogue, au format
+ * CSV ou NDJSON (un objet JSON par ligne).
+ * Les lignes sont lues par un curseur côté serveur (fetch size) et écrites
+ * au fur et à mesure: la mémoire utilisée ne dépend pas du nombre de lignes.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class ExportDonnees {
+    // Nombre de lignes ramenées par aller-retour avec le serveur
+    private static final int TAILLE_FETCH = 10_000;
+
+    // Fréquence des messages de progression (en lignes)
+    private static final int PAS_PROGRESSION = 1_000_000;
+
+    /**
+     * Données pouvant être exportées.
+     */
+    public enum Source {
+        // Historique complet, avec le membre et le livre de chaque emprunt
+        EMPRUNTS("SELECT e.id_emprunt, e.date_emprunt, e.date_retour_prevue, e.date_retour_effective, " +
+                 "e.penalite, e.membre_id, m.nom AS membre_nom, m.prenom AS membre_prenom, " +
+                 "m.email AS membre_email, e.livre_id, l.titre AS livre_titre, l.auteur AS livre_auteur, " +
+                 "l.categorie AS livre_categorie " +
+                 "FROM emprunts e " +
+                 "JOIN membres m ON m.id = e.membre_id " +
+                 "JOIN vue_livres l ON l.id = e.livre_id " +
+                 "ORDER BY e.id_emprunt"),
+        LIVRES("SELECT id, titre, auteur, categorie, nombre_exemplaires FROM vue_livres ORDER BY id");
+
+        final String sql;
+
+        Source(String sql) {
+            this.sql = sql;
+        }
+    }
+
+    /**
+     * Formats de sortie.
+     */
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    private final Format format;
+
+    /**
+     * @param format Format de sortie
+     */
+    public ExportDonnees(Format format) {
+        this.format = format;
+    }
+
+    /**
+     * Exporte toutes les lignes d'une source. Le Writer n'est pas fermé;
+     * il doit être bufferisé par l'appelant.
+     *
+     * @param source Les données à exporter
+     * @param sortie Destination de l'export
+     * @param progression Flux des messages de progression (peut être null)
+     * @return Le nombre de lignes exportées
+     * @throws SQLException en cas d'erreur de lecture
+     * @throws IOException en cas d'erreur d'écriture
+     */
+    public long exporter(Source source, Writer sortie, PrintStream progression) throws SQLException, IOException {
+        long lignes = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            // Le pilote PostgreSQL n'utilise un curseur qu'en dehors de l'autocommit
+            conn.setAutoCommit(false);
+
+            try (Statement stmt = conn.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+                stmt.setFetchSize(TAILLE_FETCH);
+
+                try (ResultSet rs = stmt.executeQuery(source.sql)) {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    int nbColonnes = meta.getColumnCount();
+                    String[] noms = new String[nbColonnes];
+                    boolean[] numeriques = new boolean[nbColonnes];
+                    for (int i = 0; i < nbColonnes; i++) {
+                        noms[i] = meta.getColumnLabel(i + 1);
+                        numeriques[i] = estNumerique(meta.getColumnType(i + 1));
+                    }
+
+                    StringBuilder ligne = new StringBuilder(256);
+                    if (format == Format.CSV) {
+                        for (int i = 0; i < nbColonnes; i++) {
+                            if (i > 0) {
+                                ligne.append(',');
+                            }
+                            ligne.append(noms[i]);
+                        }
+                        sortie.append(ligne).append('\n');
+                    }
+
+                    while (rs.next()) {
+                        ligne.setLength(0);
+                        if (format == Format.CSV) {
+                            ligneCsv(ligne, rs, nbColonnes);
+                        } else {
+                            ligneJson(ligne, rs, noms, numeriques);
+                        }
+                        sortie.append(ligne).append('\n');
+
+                        lignes++;
+                        if (progression != null && lignes % PAS_PROGRESSION == 0) {
+                            progression.println("  … " + lignes + " lignes exportées");
+                        }
+                    }
+                }
+            }
+        }
+
+        sortie.flush();
+        return lignes;
+    }
+
+    /**
+     * Ligne CSV (RFC 4180): valeurs entre guillemets seulement si nécessaire,
+     * null exporté comme champ vide. Les dates sont au format AAAA-MM-JJ.
+     */
+    private static void ligneCsv(StringBuilder sb, ResultSet rs, int nbColonnes) throws SQLException {
+        for (int i = 1; i <= nbColonnes; i++) {
+            if (i > 1) {
+                sb.append(',');
+            }
+            String valeur = rs.getString(i);
+            if (valeur == null) {
+                continue;
+            }
+            boolean aProteger = false;
+            for (int j = 0; j < valeur.length() && !aProteger; j++) {
+                char c = valeur.charAt(j);
+                aProteger = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (aProteger) {
+                sb.append('"').append(valeur.replace("\"", "\"\"")).append('"');
+            } else {
+                sb.append(valeur);
+            }
+        }
+    }
+
+    private static void ligneJson(StringBuilder sb, ResultSet rs, String[] noms, boolean[] numeriques)
+            throws SQLException {
+        sb.append('{');
+        for (int i = 0; i < noms.length; i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append('"').append(noms[i]).append("\":");
+            String valeur = rs.getString(i + 1);
+            if (valeur != null && numeriques[i]) {
+                sb.append(valeur);
+            } else {
+                Json.chaine(sb, valeur);
+            }
+        }
+        sb.append('}');
+    }
+
+    private static boolean estNumerique(int type) {
+        switch (type) {
+            case Types.INTEGER:
+            case Types.BIGINT:
+            case Types.SMALLINT:
+            case Types.DECIMAL:
+            case Types.NUMERIC:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
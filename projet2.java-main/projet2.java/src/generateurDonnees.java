@@ -0,0 +1,529 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.model.Emprunt;
+import com.bibliotheque.util.DatabaseConnection;
+import com.bibliotheque.util.Dates;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Générateur de données synthétiques pour les essais à grande échelle:
+ * livres, membres et emprunts aux distributions réalistes, chargés par le
+ * protocole COPY de PostgreSQL dans une seule transaction.
+ *
+ *  - popularité des livres selon une loi de Zipf (quelques livres très
+ *    empruntés, une longue traîne rarement), idem pour les auteurs, les
+ *    catégories et l'activité des membres (plus modérée);
+ *  - emprunts répartis sur plusieurs années jusqu'à aujourd'hui (Dates),
+ *    jamais avant l'adhésion du membre;
+ *  - une part des retours en retard (taux réglable); les emprunts dont le
+ *    retour tomberait après aujourd'hui restent en cours, dans la limite des
+ *    exemplaires du livre, et le stock des livres en tient compte.
+ *
+ * Deux générations avec la même graine, les mêmes volumes et la même date
+ * du jour produisent les mêmes données. Les données existantes sont
+ * conservées: les IDs sont pris dans les séquences des tables.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class GenerateurDonnees {
+    // Fréquence des messages de progression (en lignes)
+    private static final int PAS_PROGRESSION = 500_000;
+
+    // Taille des blocs envoyés au serveur pendant le COPY
+    private static final int TAILLE_BLOC = 64 * 1024;
+
+    // Exposants des lois de Zipf (1.0: très concentré, 0: uniforme)
+    private static final double EXPOSANT_AUTEURS = 0.8;
+    private static final double EXPOSANT_CATEGORIES = 1.0;
+    private static final double EXPOSANT_MEMBRES = 0.5;
+
+    // Un livre sur cent (les plus populaires) a des exemplaires supplémentaires
+    private static final int EXEMPLAIRES_POPULAIRES = 4;
+
+    // Retard moyen (en jours) d'un retour en retard
+    private static final double RETARD_MOYEN_JOURS = 10.0;
+
+    private static final String[] CATEGORIES = {
+        "Roman", "Policier", "Fantasy", "Science-Fiction", "Jeunesse", "Histoire", "Bande dessinée",
+        "Informatique", "Science", "Biographie", "Philosophie", "Poésie", "Théâtre", "Économie",
+        "Art", "Voyage"
+    };
+
+    private static final String[] PRENOMS = {
+        "Jean", "Marie", "Paul", "Sophie", "Lucas", "Emma", "Louis", "Chloé", "Hugo", "Léa",
+        "Arthur", "Manon", "Jules", "Camille", "Adam", "Inès", "Nathan", "Sarah", "Gabriel", "Zoé",
+        "Moussa", "Aïcha", "Ibrahima", "Fatou", "Mamadou", "Awa", "Cheikh", "Aminata", "Ousmane", "Khadija",
+        "Thomas", "Julie", "Antoine", "Claire", "Nicolas", "Hélène", "Pierre", "Élodie", "Victor", "Anaïs"
+    };
+
+    private static final String[] NOMS = {
+        "Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard", "Petit", "Durand", "Leroy", "Moreau",
+        "Simon", "Laurent", "Lefèvre", "Michel", "Garcia", "David", "Bertrand", "Roux", "Vincent", "Fournier",
+        "Diallo", "Ndiaye", "Traoré", "Diop", "Koné", "Sow", "Camara", "Faye", "Ba", "Cissé",
+        "Morel", "Girard", "André", "Mercier", "Dupont", "Lambert", "Bonnet", "François", "Martinez", "Legrand",
+        "Garnier", "Faure", "Rousseau", "Blanc", "Guérin", "Muller", "Henry", "Roussel", "Nicolas", "Perrin",
+        "Mathieu", "Clément", "Gauthier", "Dumont", "Lopez", "Fontaine", "Chevalier", "Robin", "Masson", "Sanchez"
+    };
+
+    private static final String[] DEBUTS_TITRE = {
+        "Le Secret", "L'Ombre", "La Mémoire", "Le Voyage", "La Nuit", "Le Silence", "La Route", "Le Jardin",
+        "La Chute", "Le Dernier Hiver", "La Maison", "Le Chant", "Les Enfants", "La Promesse", "Le Souffle",
+        "Les Portes", "La Cité", "Le Maître", "La Lettre", "Les Ailes", "Introduction à l'Algorithmique",
+        "Petite Histoire", "Le Guide", "L'Empire", "La Conquête"
+    };
+
+    private static final String[] FINS_TITRE = {
+        "du Nord", "de la Mer", "des Anciens", "du Fleuve", "de l'Aube", "des Étoiles", "du Désert",
+        "de Minuit", "des Ombres", "du Sahel", "de la Forêt", "des Rois", "du Temps", "de Dakar",
+        "de Paris", "des Machines", "du Vent", "de l'Exil", "des Sables", "du Monde"
+    };
+
+    /**
+     * Bilan d'une génération.
+     */
+    public static class Rapport {
+        private int livres;
+        private int membres;
+        private long emprunts;
+        private long enCours;
+        private long enRetard;
+        private long dureeMs;
+
+        public int getLivres() { return livres; }
+        public int getMembres() { return membres; }
+        public long getEmprunts() { return emprunts; }
+        public long getEnCours() { return enCours; }
+        public long getEnRetard() { return enRetard; }
+        public long getDureeMs() { return dureeMs; }
+
+        @Override
+        public String toString() {
+            return "Génération: " + livres + " livres, " + membres + " membres, " + emprunts
+                    + " emprunts dont " + enCours + " en cours (" + enRetard + " en retard) (" + dureeMs + " ms)";
+        }
+    }
+
+    private final SplittableRandom aleatoire;
+    private int annees = 3;
+    private double tauxRetard = 0.15;
+    private double exposantLivres = 1.0;
+
+    /**
+     * @param graine Graine du générateur pseudo-aléatoire (reproductibilité)
+     */
+    public GenerateurDonnees(long graine) {
+        this.aleatoire = new SplittableRandom(graine);
+    }
+
+    /**
+     * @param annees Nombre d'années d'historique d'emprunts (3 par défaut)
+     */
+    public void setAnnees(int annees) {
+        if (annees < 1) {
+            throw new IllegalArgumentException("Au moins une année d'historique");
+        }
+        this.annees = annees;
+    }
+
+    /**
+     * @param tauxRetard Part des emprunts rendus (ou à rendre) en retard, entre 0 et 1 (0,15 par défaut)
+     */
+    public void setTauxRetard(double tauxRetard) {
+        if (tauxRetard < 0 || tauxRetard > 1) {
+            throw new IllegalArgumentException("Le taux de retard doit être compris entre 0 et 1");
+        }
+        this.tauxRetard = tauxRetard;
+    }
+
+    /**
+     * @param exposant Exposant de la loi de Zipf de popularité des livres (1,0 par défaut)
+     */
+    public void setExposantPopularite(double exposant) {
+        this.exposantLivres = exposant;
+    }
+
+    /**
+     * Génère et charge les données dans une seule transaction.
+     *
+     * @param nombreLivres Nombre de livres à créer (au moins 1)
+     * @param nombreMembres Nombre de membres à créer (au moins 1)
+     * @param nombreEmprunts Nombre d'emprunts à créer
+     * @param progression Flux des messages de progression (peut être null)
+     * @return Le bilan de la génération
+     * @throws SQLException si la génération échoue (rien n'est alors modifié)
+     */
+    public Rapport generer(int nombreLivres, int nombreMembres, long nombreEmprunts, PrintStream progression)
+            throws SQLException {
+        if (nombreLivres < 1 || nombreMembres < 1 || nombreEmprunts < 0) {
+            throw new IllegalArgumentException("Il faut au moins un livre et un membre");
+        }
+        long debut = System.nanoTime();
+        Rapport rapport = new Rapport();
+
+        int jourFin = (int) Dates.aujourdhui().toEpochDay();
+        int jourDebut = jourFin - annees * 365;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                try (Statement stmt = conn.createStatement()) {
+                    // Pas de NOTIFY par ligne: une seule notification globale à la fin
+                    stmt.execute("SET LOCAL bibliotheque.notifications = 'off'");
+                }
+
+                // Rang de popularité -> livre: livres[0] est le plus emprunté
+                int[] livres = reserverIds(conn, "livres", nombreLivres);
+                melanger(livres);
+                int[] exemplaires = genererLivres(conn, livres, progression);
+                rapport.livres = nombreLivres;
+
+                // Rang d'activité -> membre, et jour d'adhésion de chacun
+                int[] membres = reserverIds(conn, "membres", nombreMembres);
+                melanger(membres);
+                int[] adhesions = genererMembres(conn, membres, jourDebut, jourFin, progression);
+                rapport.membres = nombreMembres;
+
+                int[] disponibles = exemplaires.clone();
+                genererEmprunts(conn, livres, disponibles, membres, adhesions, nombreEmprunts,
+                                jourDebut, jourFin, rapport, progression);
+                reduireStocks(conn, livres, exemplaires, disponibles);
+
+                try (Statement stmt = conn.createStatement()) {
+                    for (String table : new String[] {"livres", "membres", "emprunts"}) {
+                        stmt.execute("SELECT pg_notify('" + EcouteurChangements.CANAL + "', '" + table + ":IMPORT')");
+                    }
+                }
+                conn.commit();
+
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                throw e;
+            } finally {
+                conn.setAutoCommit(true);
+            }
+
+            // Statistiques du planificateur à jour pour les essais qui suivent
+            if (progression != null) {
+                progression.println("  … ANALYZE");
+            }
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("ANALYZE livres, membres, emprunts, auteurs, categories");
+            }
+        }
+
+        // Les caches locaux ne connaissent pas les lignes générées
+        CacheEntites.viderTous();
+
+        rapport.dureeMs = (System.nanoTime() - debut) / 1_000_000;
+        return rapport;
+    }
+
+    /**
+     * Crée les livres, dans l'ordre de popularité.
+     *
+     * @return Le nombre d'exemplaires de chaque livre, par rang
+     */
+    private int[] genererLivres(Connection conn, int[] livres, PrintStream progression) throws SQLException {
+        int nombreAuteurs = Math.max(1, livres.length / 10);
+        String[] nomsAuteurs = new String[nombreAuteurs];
+        for (int i = 0; i < nombreAuteurs; i++) {
+            nomsAuteurs[i] = nomPersonne(i);
+        }
+        int[] auteurs = idsDictionnaire(conn, "id_auteur", nomsAuteurs);
+        int[] categories = idsDictionnaire(conn, "id_categorie", CATEGORIES);
+        Zipf zipfAuteurs = new Zipf(auteurs.length, EXPOSANT_AUTEURS);
+        Zipf zipfCategories = new Zipf(categories.length, EXPOSANT_CATEGORIES);
+
+        int[] exemplaires = new int[livres.length];
+        CopyIn copie = copier(conn, "COPY livres (id, titre, auteur_id, categorie_id, nombre_exemplaires) FROM STDIN");
+        StringBuilder tampon = new StringBuilder(TAILLE_BLOC + 1024);
+        try {
+            for (int rang = 0; rang < livres.length; rang++) {
+                exemplaires[rang] = 1 + aleatoire.nextInt(3)
+                        + (rang < livres.length / 100 ? EXEMPLAIRES_POPULAIRES : 0);
+
+                // Les textes générés ne contiennent ni tabulation, ni retour à la ligne, ni '\'
+                tampon.append(livres[rang]).append('\t')
+                      .append(DEBUTS_TITRE[aleatoire.nextInt(DEBUTS_TITRE.length)]).append(' ')
+                      .append(FINS_TITRE[aleatoire.nextInt(FINS_TITRE.length)]);
+                if (aleatoire.nextInt(4) == 0) {
+                    tampon.append(", tome ").append(1 + aleatoire.nextInt(9));
+                }
+                tampon.append('\t').append(auteurs[zipfAuteurs.tirer(aleatoire)])
+                      .append('\t').append(categories[zipfCategories.tirer(aleatoire)])
+                      .append('\t').append(exemplaires[rang]).append('\n');
+
+                envoyerSiPlein(copie, tampon);
+                signaler(progression, "livres", rang + 1);
+            }
+            envoyer(copie, tampon);
+            copie.endCopy();
+        } finally {
+            annulerSiActive(copie);
+        }
+        return exemplaires;
+    }
+
+    /**
+     * Crée les membres, dans l'ordre d'activité.
+     *
+     * @return Le jour d'adhésion (jour epoch) de chaque membre, par rang
+     */
+    private int[] genererMembres(Connection conn, int[] membres, int jourDebut, int jourFin,
+                                 PrintStream progression) throws SQLException {
+        // Adresses email: prénoms et noms sans accents (contrainte chk_email)
+        String[] prenomsAscii = sansAccents(PRENOMS);
+        String[] nomsAscii = sansAccents(NOMS);
+
+        int[] adhesions = new int[membres.length];
+        CopyIn copie = copier(conn, "COPY membres (id, nom, prenom, email, adhesion_date) FROM STDIN");
+        StringBuilder tampon = new StringBuilder(TAILLE_BLOC + 1024);
+        try {
+            for (int rang = 0; rang < membres.length; rang++) {
+                int prenom = aleatoire.nextInt(PRENOMS.length);
+                int nom = aleatoire.nextInt(NOMS.length);
+                // Adhésions étalées sur une année de plus que l'historique
+                adhesions[rang] = jourDebut - 365 + aleatoire.nextInt(jourFin - jourDebut + 366);
+
+                // L'ID rend l'email unique
+                tampon.append(membres[rang]).append('\t')
+                      .append(NOMS[nom]).append('\t')
+                      .append(PRENOMS[prenom]).append('\t')
+                      .append(prenomsAscii[prenom]).append('.').append(nomsAscii[nom]).append('.')
+                      .append(membres[rang]).append("@exemple.test").append('\t')
+                      .append(LocalDate.ofEpochDay(adhesions[rang])).append('\n');
+
+                envoyerSiPlein(copie, tampon);
+                signaler(progression, "membres", rang + 1);
+            }
+            envoyer(copie, tampon);
+            copie.endCopy();
+        } finally {
+            annulerSiActive(copie);
+        }
+        return adhesions;
+    }
+
+    /**
+     * Crée les emprunts. Un emprunt dont le retour tomberait après aujourd'hui
+     * reste en cours si un exemplaire du livre est encore disponible (disponibles
+     * est alors décrémenté), sinon il est rendu aujourd'hui.
+     */
+    private void genererEmprunts(Connection conn, int[] livres, int[] disponibles, int[] membres, int[] adhesions,
+                                 long nombre, int jourDebut, int jourFin, Rapport rapport,
+                                 PrintStream progression) throws SQLException {
+        Zipf zipfLivres = new Zipf(livres.length, exposantLivres);
+        Zipf zipfMembres = new Zipf(membres.length, EXPOSANT_MEMBRES);
+
+        CopyIn copie = copier(conn, "COPY emprunts (membre_id, livre_id, date_emprunt, date_retour_prevue, " +
+                                    "date_retour_effective) FROM STDIN");
+        StringBuilder tampon = new StringBuilder(TAILLE_BLOC + 1024);
+        try {
+            for (long i = 0; i < nombre; i++) {
+                int livre = zipfLivres.tirer(aleatoire);
+                int membre = zipfMembres.tirer(aleatoire);
+
+                int premierJour = Math.max(jourDebut, adhesions[membre]);
+                int jourEmprunt = premierJour + aleatoire.nextInt(jourFin - premierJour + 1);
+                int jourPrevu = jourEmprunt + Emprunt.DUREE_EMPRUNT_JOURS;
+                int jourRetour;
+                if (aleatoire.nextDouble() < tauxRetard) {
+                    jourRetour = jourPrevu + 1 + (int) (-Math.log(1 - aleatoire.nextDouble()) * RETARD_MOYEN_JOURS);
+                } else {
+                    jourRetour = jourEmprunt + aleatoire.nextInt(jourPrevu - jourEmprunt + 1);
+                }
+
+                boolean enCours = false;
+                if (jourRetour > jourFin) {
+                    if (disponibles[livre] > 0) {
+                        disponibles[livre]--;
+                        enCours = true;
+                        rapport.enCours++;
+                        if (jourPrevu < jourFin) {
+                            rapport.enRetard++;
+                        }
+                    } else {
+                        jourRetour = jourFin;
+                    }
+                }
+
+                tampon.append(membres[membre]).append('\t')
+                      .append(livres[livre]).append('\t')
+                      .append(LocalDate.ofEpochDay(jourEmprunt)).append('\t')
+                      .append(LocalDate.ofEpochDay(jourPrevu)).append('\t');
+                if (enCours) {
+                    tampon.append("\\N");
+                } else {
+                    tampon.append(LocalDate.ofEpochDay(jourRetour));
+                }
+                tampon.append('\n');
+
+                envoyerSiPlein(copie, tampon);
+                signaler(progression, "emprunts", i + 1);
+            }
+            envoyer(copie, tampon);
+            copie.endCopy();
+        } finally {
+            annulerSiActive(copie);
+        }
+        rapport.emprunts = nombre;
+    }
+
+    /**
+     * Retire du stock des livres les exemplaires encore empruntés, en une requête.
+     */
+    private static void reduireStocks(Connection conn, int[] livres, int[] exemplaires, int[] disponibles)
+            throws SQLException {
+        int nombre = 0;
+        int[] ids = new int[livres.length];
+        int[] empruntes = new int[livres.length];
+        for (int rang = 0; rang < livres.length; rang++) {
+            if (disponibles[rang] < exemplaires[rang]) {
+                ids[nombre] = livres[rang];
+                empruntes[nombre++] = exemplaires[rang] - disponibles[rang];
+            }
+        }
+        if (nombre == 0) {
+            return;
+        }
+
+        String sql = "UPDATE livres l SET nombre_exemplaires = l.nombre_exemplaires - e.nombre " +
+                     "FROM unnest(?::integer[], ?::integer[]) AS e(id, nombre) WHERE l.id = e.id";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setArray(1, Jdbc.entiers(conn, Arrays.copyOf(ids, nombre)));
+            pstmt.setArray(2, Jdbc.entiers(conn, Arrays.copyOf(empruntes, nombre)));
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Prend des IDs dans la séquence de la table: ils restent valables
+     * pour les insertions ordinaires qui suivront.
+     */
+    private static int[] reserverIds(Connection conn, String table, int nombre) throws SQLException {
+        int[] ids = new int[nombre];
+        String sql = "SELECT nextval(pg_get_serial_sequence('" + table + "', 'id')) FROM generate_series(1, ?)";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, nombre);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int i = 0;
+                while (rs.next()) {
+                    ids[i++] = rs.getInt(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * IDs des noms dans un dictionnaire (auteurs, categories), créés si besoin,
+     * en une requête: fonction id_auteur / id_categorie de schema.sql.
+     */
+    private static int[] idsDictionnaire(Connection conn, String fonction, String[] noms) throws SQLException {
+        int[] ids = new int[noms.length];
+        String sql = "SELECT " + fonction + "(t.nom) FROM unnest(?::varchar[]) WITH ORDINALITY AS t(nom, rang) " +
+                     "ORDER BY t.rang";
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setArray(1, conn.createArrayOf("varchar", noms));
+            try (ResultSet rs = pstmt.executeQuery()) {
+                int i = 0;
+                while (rs.next()) {
+                    ids[i++] = rs.getInt(1);
+                }
+            }
+        }
+        return ids;
+    }
+
+    // Nom d'auteur unique pour chaque indice
+    private static String nomPersonne(int i) {
+        int combinaisons = PRENOMS.length * NOMS.length;
+        String nom = PRENOMS[i % PRENOMS.length] + " " + NOMS[(i / PRENOMS.length) % NOMS.length];
+        return i < combinaisons ? nom : nom + " " + (i / combinaisons + 1);
+    }
+
+    private static String[] sansAccents(String[] noms) {
+        String[] resultat = new String[noms.length];
+        for (int i = 0; i < noms.length; i++) {
+            resultat[i] = Normalizer.normalize(noms[i], Normalizer.Form.NFD)
+                    .replaceAll("[^A-Za-z]", "")
+                    .toLowerCase(Locale.ROOT);
+        }
+        return resultat;
+    }
+
+    // Mélange de Fisher-Yates: la popularité ne suit pas l'ordre des IDs
+    private void melanger(int[] valeurs) {
+        for (int i = valeurs.length - 1; i > 0; i--) {
+            int j = aleatoire.nextInt(i + 1);
+            int temp = valeurs[i];
+            valeurs[i] = valeurs[j];
+            valeurs[j] = temp;
+        }
+    }
+
+    private static CopyIn copier(Connection conn, String sql) throws SQLException {
+        return conn.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+    }
+
+    private static void envoyerSiPlein(CopyIn copie, StringBuilder tampon) throws SQLException {
+        if (tampon.length() >= TAILLE_BLOC) {
+            envoyer(copie, tampon);
+        }
+    }
+
+    private static void envoyer(CopyIn copie, StringBuilder tampon) throws SQLException {
+        if (tampon.length() > 0) {
+            byte[] octets = tampon.toString().getBytes(StandardCharsets.UTF_8);
+            copie.writeToCopy(octets, 0, octets.length);
+            tampon.setLength(0);
+        }
+    }
+
+    private static void annulerSiActive(CopyIn copie) throws SQLException {
+        if (copie.isActive()) {
+            copie.cancelCopy();
+        }
+    }
+
+    private static void signaler(PrintStream progression, String table, long lignes) {
+        if (progression != null && lignes % PAS_PROGRESSION == 0) {
+            progression.println("  … " + lignes + " " + table);
+        }
+    }
+
+    /**
+     * Tirage selon une loi de Zipf: le rang k sort avec une probabilité
+     * proportionnelle à 1 / (k+1)^exposant.
+     */
+    private static final class Zipf {
+        private final double[] cumul;
+
+        Zipf(int taille, double exposant) {
+            cumul = new double[taille];
+            double somme = 0;
+            for (int k = 0; k < taille; k++) {
+                somme += 1.0 / Math.pow(k + 1, exposant);
+                cumul[k] = somme;
+            }
+            for (int k = 0; k < taille; k++) {
+                cumul[k] /= somme;
+            }
+        }
+
+        int tirer(SplittableRandom aleatoire) {
+            int position = Arrays.binarySearch(cumul, aleatoire.nextDouble());
+            return Math.min(position >= 0 ? position : -position - 1, cumul.length - 1);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.bibliotheque.util;
+
+/**
+ * Dispersion des IDs pour les tables à adressage ouvert
+ * (TableParId, EntiersParId, CatalogueColonnes).
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class Hachage {
+
+    private Hachage() {
+    }
+
+    /**
+     * Les IDs SERIAL sont consécutifs: sans dispersion, ils rempliraient
+     * des cases voisines et allongeraient les suites de collisions.
+     */
+    public static int disperser(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,428 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.util.DatabaseConnection;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Import massif de livres ou de membres depuis un fichier CSV/TSV.
+ * Les lignes sont envoyées en flux par le protocole COPY de PostgreSQL dans
+ * une table temporaire, validées en SQL, puis fusionnées en une seule
+ * transaction:
+ *  - livres: un livre existant (même titre et même auteur, sans tenir compte
+ *    de la casse) voit ses exemplaires augmentés, sinon il est créé;
+ *  - membres: un membre existant (même email, sans tenir compte de la
+ *    casse) est mis à jour, sinon créé avec son email en minuscules.
+ * Chaque ligne rejetée est signalée avec son numéro et le motif.
+ *
+ * Colonnes attendues:
+ *  - livres: titre, auteur, categorie, nombre_exemplaires
+ *  - membres: nom, prenom, email, adhesion_date (AAAA-MM-JJ, facultative)
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class ImportMassif {
+    // Fréquence des messages de progression (en lignes)
+    private static final int PAS_PROGRESSION = 50_000;
+
+    // Taille des blocs envoyés au serveur pendant le COPY
+    private static final int TAILLE_BLOC = 64 * 1024;
+
+    /**
+     * Tables pouvant être importées.
+     */
+    public enum Cible {
+        LIVRES("livres", 4),
+        MEMBRES("membres", 4);
+
+        final String table;
+        final int colonnes;
+
+        Cible(String table, int colonnes) {
+            this.table = table;
+            this.colonnes = colonnes;
+        }
+    }
+
+    /**
+     * Bilan d'un import.
+     */
+    public static class Rapport {
+        private long lignesLues;
+        private long lignesChargees;
+        private long rejets;
+        private long inseres;
+        private long misAJour;
+        private long dureeMs;
+
+        public long getLignesLues() { return lignesLues; }
+        public long getLignesChargees() { return lignesChargees; }
+        public long getRejets() { return rejets; }
+        public long getInseres() { return inseres; }
+        public long getMisAJour() { return misAJour; }
+        public long getDureeMs() { return dureeMs; }
+
+        @Override
+        public String toString() {
+            return "Import: " + lignesLues + " lignes lues, " + inseres + " insérées, "
+                    + misAJour + " mises à jour, " + rejets + " rejetées (" + dureeMs + " ms)";
+        }
+    }
+
+    private final char separateur;
+    private final boolean entete;
+
+    /**
+     * @param separateur Séparateur de champs (',' ou ';' pour CSV, '\t' pour TSV)
+     * @param entete true si la première ligne contient les noms de colonnes
+     */
+    public ImportMassif(char separateur, boolean entete) {
+        this.separateur = separateur;
+        this.entete = entete;
+    }
+
+    /**
+     * Importe un fichier dans une seule transaction.
+     *
+     * @param cible La table cible
+     * @param source Le contenu CSV/TSV
+     * @param progression Flux des messages de progression (peut être null)
+     * @param rejets Destination des lignes rejetées "ligne;motif" (peut être null)
+     * @return Le bilan de l'import
+     * @throws SQLException si l'import échoue (rien n'est alors modifié)
+     * @throws IOException en cas d'erreur de lecture ou d'écriture des rejets
+     */
+    public Rapport importer(Cible cible, BufferedReader source, PrintStream progression, Writer rejets)
+            throws SQLException, IOException {
+        long debut = System.nanoTime();
+        Rapport rapport = new Rapport();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (Statement stmt = conn.createStatement()) {
+                // Pas de NOTIFY par ligne: une seule notification globale à la fin
+                stmt.execute("SET LOCAL bibliotheque.notifications = 'off'");
+                stmt.execute(creerTableImport(cible));
+            }
+
+            charger(conn, cible, source, rapport, progression, rejets);
+            rapport.rejets += valider(conn, cible, rejets);
+
+            if (cible == Cible.LIVRES) {
+                fusionnerLivres(conn, rapport);
+            } else {
+                fusionnerMembres(conn, rapport);
+            }
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SELECT pg_notify('" + EcouteurChangements.CANAL + "', '" + cible.table + ":IMPORT')");
+            }
+            conn.commit();
+        }
+
+        // Les caches locaux ne connaissent pas les lignes fusionnées
+        CacheEntites.viderTous();
+
+        rapport.dureeMs = (System.nanoTime() - debut) / 1_000_000;
+        return rapport;
+    }
+
+    private static String creerTableImport(Cible cible) {
+        if (cible == Cible.LIVRES) {
+            return "CREATE TEMP TABLE import_livres (ligne BIGINT, titre TEXT, auteur TEXT, categorie TEXT, " +
+                   "nombre_exemplaires TEXT, motif TEXT) ON COMMIT DROP";
+        }
+        return "CREATE TEMP TABLE import_membres (ligne BIGINT, nom TEXT, prenom TEXT, email TEXT, " +
+               "adhesion_date TEXT, motif TEXT) ON COMMIT DROP";
+    }
+
+    /**
+     * Envoie les lignes du fichier dans la table temporaire via COPY.
+     * Les lignes mal formées (nombre de colonnes, date d'adhésion inexistante)
+     * sont rejetées côté Java: une date invalide ferait échouer le cast ::DATE,
+     * et tout l'import avec lui, au moment de la fusion.
+     */
+    private void charger(Connection conn, Cible cible, BufferedReader source, Rapport rapport,
+                         PrintStream progression, Writer rejets) throws SQLException, IOException {
+        String colonnes = cible == Cible.LIVRES
+                ? "(ligne, titre, auteur, categorie, nombre_exemplaires)"
+                : "(ligne, nom, prenom, email, adhesion_date)";
+
+        CopyIn copie = conn.unwrap(PGConnection.class).getCopyAPI()
+                .copyIn("COPY import_" + cible.table + " " + colonnes + " FROM STDIN (FORMAT text)");
+
+        StringBuilder tampon = new StringBuilder(TAILLE_BLOC + 1024);
+        List<String> champs = new ArrayList<>(cible.colonnes + 1);
+
+        try {
+            String ligne;
+            long numero = 0;
+            if (entete && source.readLine() != null) {
+                numero++;
+            }
+
+            while ((ligne = source.readLine()) != null) {
+                numero++;
+                if (ligne.trim().isEmpty()) {
+                    continue;
+                }
+                rapport.lignesLues++;
+
+                if (!decouper(ligne, champs) || champs.size() != cible.colonnes) {
+                    rejeter(rejets, numero, cible.colonnes + " colonnes attendues ou guillemets non fermés");
+                    rapport.rejets++;
+                    continue;
+                }
+                if (cible == Cible.MEMBRES && !dateValide(champs.get(3).trim())) {
+                    rejeter(rejets, numero, "date d'adhésion invalide (AAAA-MM-JJ)");
+                    rapport.rejets++;
+                    continue;
+                }
+
+                // Format texte de COPY: champs séparés par des tabulations
+                tampon.append(numero);
+                for (String champ : champs) {
+                    tampon.append('\t');
+                    echapperCopie(tampon, champ);
+                }
+                tampon.append('\n');
+                rapport.lignesChargees++;
+
+                if (tampon.length() >= TAILLE_BLOC) {
+                    envoyer(copie, tampon);
+                }
+                if (progression != null && rapport.lignesLues % PAS_PROGRESSION == 0) {
+                    progression.println("  … " + rapport.lignesLues + " lignes lues");
+                }
+            }
+
+            envoyer(copie, tampon);
+            copie.endCopy();
+
+        } finally {
+            if (copie.isActive()) {
+                copie.cancelCopy();
+            }
+        }
+    }
+
+    private static void envoyer(CopyIn copie, StringBuilder tampon) throws SQLException {
+        if (tampon.length() > 0) {
+            byte[] octets = tampon.toString().getBytes(StandardCharsets.UTF_8);
+            copie.writeToCopy(octets, 0, octets.length);
+            tampon.setLength(0);
+        }
+    }
+
+    /**
+     * Date d'adhésion vide (date du jour) ou date AAAA-MM-JJ existante
+     * (2023-02-31 refusée), acceptée par le type DATE de PostgreSQL.
+     */
+    private static boolean dateValide(String texte) {
+        if (texte.isEmpty()) {
+            return true;
+        }
+        if (texte.length() != 10) {
+            return false;
+        }
+        try {
+            return LocalDate.parse(texte).getYear() >= 1;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Marque les lignes invalides en SQL puis écrit leurs motifs.
+     *
+     * @return Le nombre de lignes rejetées
+     */
+    private static long valider(Connection conn, Cible cible, Writer rejets) throws SQLException, IOException {
+        String sqlMotif;
+        if (cible == Cible.LIVRES) {
+            sqlMotif = "UPDATE import_livres SET motif = CASE " +
+                       "WHEN COALESCE(TRIM(titre), '') = '' THEN 'titre vide' " +
+                       "WHEN COALESCE(TRIM(auteur), '') = '' THEN 'auteur vide' " +
+                       "WHEN COALESCE(TRIM(categorie), '') = '' THEN 'catégorie vide' " +
+                       "WHEN LENGTH(TRIM(titre)) > 255 OR LENGTH(TRIM(auteur)) > 255 OR LENGTH(TRIM(categorie)) > 100 " +
+                       "  THEN 'valeur trop longue' " +
+                       "WHEN COALESCE(TRIM(nombre_exemplaires), '') !~ '^[0-9]{1,6}$' THEN 'nombre d''exemplaires invalide' " +
+                       "WHEN TRIM(nombre_exemplaires)::INTEGER < 1 THEN 'au moins 1 exemplaire' " +
+                       "END";
+        } else {
+            sqlMotif = "UPDATE import_membres SET motif = CASE " +
+                       "WHEN COALESCE(TRIM(nom), '') = '' THEN 'nom vide' " +
+                       "WHEN COALESCE(TRIM(prenom), '') = '' THEN 'prénom vide' " +
+                       "WHEN LENGTH(TRIM(nom)) > 100 OR LENGTH(TRIM(prenom)) > 100 OR LENGTH(TRIM(email)) > 255 " +
+                       "  THEN 'valeur trop longue' " +
+                       // Même expression que la contrainte chk_email de schema.sql
+                       "WHEN COALESCE(TRIM(email), '') !~* '^[A-Za-z0-9._%+-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$' " +
+                       "  THEN 'email invalide' " +
+                       "END";
+        }
+
+        long nombre = 0;
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate(sqlMotif);
+
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT ligne, motif FROM import_" + cible.table + " WHERE motif IS NOT NULL ORDER BY ligne")) {
+                while (rs.next()) {
+                    rejeter(rejets, rs.getLong(1), rs.getString(2));
+                    nombre++;
+                }
+            }
+        }
+        return nombre;
+    }
+
+    /**
+     * Fusionne les livres importés: mêmes titre et auteur = exemplaires ajoutés.
+     */
+    private static void fusionnerLivres(Connection conn, Rapport rapport) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            // Regrouper les doublons du fichier (la première catégorie rencontrée l'emporte)
+            stmt.execute(
+                "CREATE TEMP TABLE import_livres_groupes ON COMMIT DROP AS " +
+                "SELECT MIN(TRIM(titre)) AS titre, MIN(TRIM(auteur)) AS auteur, " +
+                "       (ARRAY_AGG(TRIM(categorie) ORDER BY ligne))[1] AS categorie, " +
+                "       SUM(TRIM(nombre_exemplaires)::INTEGER) AS nombre_exemplaires " +
+                "FROM import_livres WHERE motif IS NULL " +
+                "GROUP BY LOWER(TRIM(titre)), LOWER(TRIM(auteur))");
+
+            // D'abord les livres existants, puis les nouveaux (sinon ils seraient comptés deux fois)
+            rapport.misAJour = stmt.executeUpdate(
+                "UPDATE livres l SET nombre_exemplaires = l.nombre_exemplaires + g.nombre_exemplaires " +
+                "FROM import_livres_groupes g, auteurs a " +
+                "WHERE a.id = l.auteur_id AND LOWER(l.titre) = LOWER(g.titre) AND LOWER(a.nom) = LOWER(g.auteur)");
+
+            stmt.executeUpdate(
+                "DELETE FROM import_livres_groupes g USING livres l, auteurs a " +
+                "WHERE a.id = l.auteur_id AND LOWER(l.titre) = LOWER(g.titre) AND LOWER(a.nom) = LOWER(g.auteur)");
+
+            // Compléter les dictionnaires avec les nouveaux noms, puis insérer par ID
+            stmt.executeUpdate(
+                "INSERT INTO categories (nom) SELECT DISTINCT categorie FROM import_livres_groupes " +
+                "ON CONFLICT (nom) DO NOTHING");
+            stmt.executeUpdate(
+                "INSERT INTO auteurs (nom) SELECT DISTINCT auteur FROM import_livres_groupes " +
+                "ON CONFLICT (nom) DO NOTHING");
+
+            rapport.inseres = stmt.executeUpdate(
+                "INSERT INTO livres (titre, auteur_id, categorie_id, nombre_exemplaires) " +
+                "SELECT g.titre, a.id, c.id, g.nombre_exemplaires FROM import_livres_groupes g " +
+                "JOIN auteurs a ON a.nom = g.auteur " +
+                "JOIN categories c ON c.nom = g.categorie");
+        }
+    }
+
+    /**
+     * Fusionne les membres importés: même email = membre mis à jour.
+     */
+    private static void fusionnerMembres(Connection conn, Rapport rapport) throws SQLException {
+        // Emails comparés sans la casse, comme rechercherParEmail et idx_membres_email
+        try (Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("UPDATE import_membres SET email = LOWER(TRIM(email)) WHERE motif IS NULL");
+        }
+
+        // En cas de doublon dans le fichier, la dernière ligne l'emporte
+        String sql =
+            "INSERT INTO membres (nom, prenom, email, adhesion_date) " +
+            "SELECT DISTINCT ON (email) TRIM(nom), TRIM(prenom), email, " +
+            "       COALESCE(NULLIF(TRIM(adhesion_date), '')::DATE, CURRENT_DATE) " +
+            "FROM import_membres WHERE motif IS NULL " +
+            "ORDER BY email, ligne DESC " +
+            "ON CONFLICT ((LOWER(email))) DO UPDATE SET nom = EXCLUDED.nom, prenom = EXCLUDED.prenom " +
+            "RETURNING (xmax = 0) AS insere";
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+            while (rs.next()) {
+                if (rs.getBoolean(1)) {
+                    rapport.inseres++;
+                } else {
+                    rapport.misAJour++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Découpe une ligne CSV (guillemets doublés pour les échapper) ou TSV.
+     *
+     * @return false si un guillemet n'est pas refermé
+     */
+    private boolean decouper(String ligne, List<String> champs) {
+        champs.clear();
+        StringBuilder champ = new StringBuilder();
+        boolean entreGuillemets = false;
+
+        for (int i = 0; i < ligne.length(); i++) {
+            char c = ligne.charAt(i);
+            if (entreGuillemets) {
+                if (c == '"') {
+                    if (i + 1 < ligne.length() && ligne.charAt(i + 1) == '"') {
+                        champ.append('"');
+                        i++;
+                    } else {
+                        entreGuillemets = false;
+                    }
+                } else {
+                    champ.append(c);
+                }
+            } else if (c == '"' && separateur != '\t') {
+                entreGuillemets = true;
+            } else if (c == separateur) {
+                champs.add(champ.toString());
+                champ.setLength(0);
+            } else {
+                champ.append(c);
+            }
+        }
+        champs.add(champ.toString());
+        return !entreGuillemets;
+    }
+
+    /**
+     * Échappe une valeur pour le format texte de COPY.
+     */
+    private static void echapperCopie(StringBuilder sb, String valeur) {
+        for (int i = 0; i < valeur.length(); i++) {
+            char c = valeur.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+
+    private static void rejeter(Writer rejets, long ligne, String motif) throws IOException {
+        if (rejets != null) {
+            rejets.write(ligne + ";" + motif + "\n");
+        }
+    }
+}
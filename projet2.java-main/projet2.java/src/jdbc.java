@@ -0,0 +1,363 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.util.DatabaseConnection;
+import com.bibliotheque.util.Traces;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Modèle JDBC commun aux DAO: préparation, exécution, lecture des lignes et
+ * fermeture au même endroit. Toutes les requêtes des DAO passent par ici, ce
+ * qui permet de les mesurer et de journaliser les plus lentes (RequetesLentes).
+ *
+ * Les lignes sont lues par position: chaque DAO sélectionne une liste de
+ * colonnes explicite (jamais SELECT *) et son Lecteur lit les colonnes dans
+ * cet ordre, sans recherche par nom à chaque ligne. Les textes SQL sont
+ * constants (seuls les paramètres varient): le pilote PostgreSQL réutilise
+ * alors, sur chaque connexion du pool, l'instruction déjà préparée côté serveur.
+ *
+ * avecConnexion et mesurer alimentent la MesureDAO de la méthode appelante
+ * (temps d'acquisition de la connexion, temps d'exécution, erreurs).
+ * Appels et requêtes émettent aussi des événements JFR (EvenementAppelDAO,
+ * EvenementRequeteSQL), sans effet hors d'un enregistrement, et des
+ * segments de trace (Traces): appel, attente du pool, requête.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+final class Jdbc {
+
+    /**
+     * Définit les paramètres d'une requête préparée.
+     */
+    @FunctionalInterface
+    interface Parametres {
+        void definir(PreparedStatement pstmt) throws SQLException;
+    }
+
+    /**
+     * Définit les paramètres d'une requête pour un élément d'un lot.
+     */
+    @FunctionalInterface
+    interface ParametresLot<E> {
+        void definir(PreparedStatement pstmt, E element) throws SQLException;
+    }
+
+    /**
+     * Construit un objet à partir de la ligne courante (colonnes lues par position).
+     */
+    @FunctionalInterface
+    interface Lecteur<T> {
+        T lire(ResultSet rs) throws SQLException;
+    }
+
+    /**
+     * Travail effectué sur une connexion du pool.
+     */
+    @FunctionalInterface
+    interface Travail<T> {
+        T executer(Connection conn) throws SQLException;
+    }
+
+    /**
+     * Traitement d'une erreur: message pour l'utilisateur et valeur de repli.
+     */
+    @FunctionalInterface
+    interface SurErreur<T> {
+        T traiter(SQLException e);
+    }
+
+    static final Parametres SANS_PARAMETRES = pstmt -> { };
+
+    private Jdbc() {
+    }
+
+    /**
+     * Exécute un travail sur une connexion du pool, rendue ensuite au pool.
+     * Une erreur est affichée ("✗ Erreur lors de ...") et remplacée par siErreur,
+     * ou levée (ErreurDonnees) si le thread courant l'a demandé.
+     *
+     * @param methode Méthode mesurée, par exemple "LivreDAO.ajouterLivre"
+     * @param action Complément du message d'erreur, par exemple "de l'ajout du livre"
+     * @param siErreur Valeur retournée en cas d'erreur
+     * @param travail Le travail à effectuer
+     */
+    static <T> T avecConnexion(String methode, String action, T siErreur, Travail<T> travail) {
+        return avecConnexion(methode, travail, e -> {
+            if (ErreurDonnees.isPropagee()) {
+                throw new ErreurDonnees(methode, e);
+            }
+            System.err.println("✗ Erreur lors " + action + ": " + e.getMessage());
+            e.printStackTrace();
+            return siErreur;
+        });
+    }
+
+    /**
+     * Exécute un travail sur une connexion du pool, rendue ensuite au pool,
+     * avec un traitement d'erreur propre à la méthode.
+     *
+     * @param methode Méthode mesurée, par exemple "MembreDAO.supprimerMembre"
+     * @param travail Le travail à effectuer
+     * @param surErreur Message et valeur de repli en cas d'erreur
+     */
+    static <T> T avecConnexion(String methode, Travail<T> travail, SurErreur<T> surErreur) {
+        MesureDAO mesure = MesureDAO.pour(methode);
+        EvenementAppelDAO evenement = new EvenementAppelDAO();
+        evenement.begin();
+        long debut = System.nanoTime();
+        try (Traces.Segment segment = Traces.demarrer(methode)) {
+            try (Connection conn = connexion()) {
+                long acquise = System.nanoTime();
+                T resultat = travail.executer(conn);
+                mesure.enregistrer(acquise - debut, System.nanoTime() - acquise);
+                terminer(evenement, methode, acquise - debut, true);
+                return resultat;
+
+            } catch (SQLException e) {
+                mesure.erreur();
+                terminer(evenement, methode, 0, false);
+                segment.erreur(e.getMessage());
+                return surErreur.traiter(e);
+            }
+        }
+    }
+
+    // Connexion du pool, attente tracée à part
+    private static Connection connexion() {
+        Traces.Segment segment = Traces.demarrer("pool.acquisition");
+        try {
+            return DatabaseConnection.getConnection();
+        } finally {
+            segment.close();
+        }
+    }
+
+    /**
+     * Exécute un travail sur une connexion fournie par l'appelant (transaction
+     * englobante, session) en le mesurant. Les erreurs sont comptées puis propagées.
+     *
+     * @param methode Méthode mesurée, par exemple "LivreDAO.modifierLivres(Connection)"
+     */
+    static <T> T mesurer(String methode, Connection conn, Travail<T> travail) throws SQLException {
+        MesureDAO mesure = MesureDAO.pour(methode);
+        EvenementAppelDAO evenement = new EvenementAppelDAO();
+        evenement.begin();
+        long debut = System.nanoTime();
+        try (Traces.Segment segment = Traces.demarrer(methode)) {
+            try {
+                T resultat = travail.executer(conn);
+                mesure.enregistrer(-1, System.nanoTime() - debut);
+                terminer(evenement, methode, 0, true);
+                return resultat;
+            } catch (SQLException | RuntimeException e) {
+                mesure.erreur();
+                terminer(evenement, methode, 0, false);
+                segment.erreur(e.getMessage());
+                throw e;
+            }
+        }
+    }
+
+    // Les champs ne sont renseignés que si un enregistrement JFR retient l'événement
+    private static void terminer(EvenementAppelDAO evenement, String methode, long attente, boolean succes) {
+        evenement.end();
+        if (evenement.shouldCommit()) {
+            evenement.methode = methode;
+            evenement.attenteConnexion = attente;
+            evenement.succes = succes;
+            evenement.commit();
+        }
+    }
+
+    /**
+     * @return Toutes les lignes lues (liste vide si aucune)
+     */
+    static <T> List<T> liste(Connection conn, String sql, Parametres parametres, Lecteur<T> lecteur)
+            throws SQLException {
+        EvenementRequeteSQL evenement = new EvenementRequeteSQL();
+        evenement.begin();
+        long debut = System.nanoTime();
+        List<T> resultats = new ArrayList<>();
+        try (Traces.Segment segment = requete(sql);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            parametres.definir(pstmt);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    resultats.add(lecteur.lire(rs));
+                }
+            }
+            terminer(evenement, segment, conn, pstmt, sql, parametres, resultats.size(), debut);
+        }
+        return resultats;
+    }
+
+    /**
+     * @return La première ligne lue, ou null si aucune
+     */
+    static <T> T premier(Connection conn, String sql, Parametres parametres, Lecteur<T> lecteur)
+            throws SQLException {
+        EvenementRequeteSQL evenement = new EvenementRequeteSQL();
+        evenement.begin();
+        long debut = System.nanoTime();
+        T resultat = null;
+        try (Traces.Segment segment = requete(sql);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            parametres.definir(pstmt);
+            try (ResultSet rs = pstmt.executeQuery()) {
+                if (rs.next()) {
+                    resultat = lecteur.lire(rs);
+                }
+            }
+            terminer(evenement, segment, conn, pstmt, sql, parametres, resultat != null ? 1 : 0, debut);
+        }
+        return resultat;
+    }
+
+    /**
+     * Exécute un INSERT, UPDATE ou DELETE.
+     *
+     * @return Le nombre de lignes modifiées
+     */
+    static int executer(Connection conn, String sql, Parametres parametres) throws SQLException {
+        EvenementRequeteSQL evenement = new EvenementRequeteSQL();
+        evenement.begin();
+        long debut = System.nanoTime();
+        int lignes;
+        try (Traces.Segment segment = requete(sql);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            parametres.definir(pstmt);
+            lignes = pstmt.executeUpdate();
+            terminer(evenement, segment, conn, pstmt, sql, null, lignes, debut);
+        }
+        return lignes;
+    }
+
+    /**
+     * Exécute un INSERT et retourne l'ID généré.
+     *
+     * @return L'ID généré, ou 0 si aucune ligne n'a été insérée
+     */
+    static int inserer(Connection conn, String sql, Parametres parametres) throws SQLException {
+        EvenementRequeteSQL evenement = new EvenementRequeteSQL();
+        evenement.begin();
+        long debut = System.nanoTime();
+        int id = 0;
+        try (Traces.Segment segment = requete(sql);
+             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+            parametres.definir(pstmt);
+            if (pstmt.executeUpdate() > 0) {
+                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
+                    if (generatedKeys.next()) {
+                        id = generatedKeys.getInt(1);
+                    }
+                }
+            }
+            terminer(evenement, segment, conn, pstmt, sql, null, id > 0 ? 1 : 0, debut);
+        }
+        return id;
+    }
+
+    /**
+     * Exécute la même requête pour chaque élément, en un seul lot.
+     *
+     * @return Le nombre d'éléments pour lesquels une ligne a été modifiée
+     */
+    static <E> int lot(Connection conn, String sql, Collection<E> elements, ParametresLot<E> parametres)
+            throws SQLException {
+        if (elements.isEmpty()) {
+            return 0;
+        }
+        EvenementRequeteSQL evenement = new EvenementRequeteSQL();
+        evenement.begin();
+        long debut = System.nanoTime();
+        int modifies = 0;
+        try (Traces.Segment segment = requete(sql);
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (E element : elements) {
+                parametres.definir(pstmt, element);
+                pstmt.addBatch();
+            }
+            for (int resultat : pstmt.executeBatch()) {
+                if (resultat > 0 || resultat == Statement.SUCCESS_NO_INFO) {
+                    modifies++;
+                }
+            }
+            terminer(evenement, segment, conn, pstmt, sql, null, modifies, debut);
+        }
+        return modifies;
+    }
+
+    /**
+     * Tableau SQL integer[] pour une condition "= ANY(?)".
+     */
+    static Array entiers(Connection conn, int[] valeurs) throws SQLException {
+        Integer[] objets = new Integer[valeurs.length];
+        for (int i = 0; i < valeurs.length; i++) {
+            objets[i] = valeurs[i];
+        }
+        return conn.createArrayOf("integer", objets);
+    }
+
+    /**
+     * Tableau SQL integer[] pour une condition "= ANY(?)".
+     */
+    static Array entiers(Connection conn, Collection<Integer> valeurs) throws SQLException {
+        return conn.createArrayOf("integer", valeurs.toArray());
+    }
+
+    /**
+     * Fin d'une requête, avant la fermeture de pstmt (paramètres encore liés):
+     * événement JFR, segment de trace, journal des requêtes lentes et capture des plans
+     * (VerificationPlans).
+     *
+     * @param parametres Paramètres à réappliquer pour EXPLAIN (null: pas d'EXPLAIN)
+     */
+    private static void terminer(EvenementRequeteSQL evenement, Traces.Segment segment, Connection conn,
+                                 PreparedStatement pstmt, String sql, Parametres parametres, long lignes, long debut) {
+        segment.attribut("db.response.returned_rows", lignes);
+        evenement.end();
+        if (evenement.shouldCommit()) {
+            evenement.requete = sql;
+            evenement.lignes = lignes;
+            evenement.commit();
+        }
+        long duree = System.nanoTime() - debut;
+        if (RequetesLentes.estLente(duree)) {
+            RequetesLentes.signaler(conn, pstmt, sql, parametres, lignes, duree);
+        }
+        if (parametres != null && PlanRequete.isCapture()) {
+            PlanRequete.ajouter(conn, sql, parametres);
+        }
+    }
+
+    /**
+     * Segment de trace d'une requête SQL: nommé par son premier mot-clé
+     * (SELECT, UPDATE...), texte SQL sans les paramètres.
+     */
+    private static Traces.Segment requete(String sql) {
+        if (!Traces.isActives()) {
+            return Traces.demarrer(null, Traces.CLIENT); // Segment inerte
+        }
+        return Traces.demarrer(operation(sql), Traces.CLIENT)
+            .attribut("db.system.name", "postgresql")
+            .attribut("db.query.text", sql);
+    }
+
+    private static String operation(String sql) {
+        String texte = sql.stripLeading();
+        int fin = 0;
+        while (fin < texte.length() && Character.isLetter(texte.charAt(fin))) {
+            fin++;
+        }
+        return texte.substring(0, fin).toUpperCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,107 @@
+package com.bibliotheque.util;
+
+import com.bibliotheque.model.Emprunt;
+import com.bibliotheque.model.Livre;
+import com.bibliotheque.model.Membre;
+import java.time.LocalDate;
+
+/**
+ * Classe utilitaire de sérialisation JSON des objets du modèle.
+ * Écrit directement dans un StringBuilder fourni par l'appelant
+ * pour éviter les chaînes intermédiaires.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class Json {
+
+    private Json() {
+    }
+
+    /**
+     * Ajoute une chaîne JSON (entre guillemets, échappée) ou null.
+     */
+    public static StringBuilder chaine(StringBuilder sb, String valeur) {
+        if (valeur == null) {
+            return sb.append("null");
+        }
+        sb.append('"');
+        for (int i = 0; i < valeur.length(); i++) {
+            char c = valeur.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"');
+    }
+
+    /**
+     * Ajoute une date au format ISO (yyyy-MM-dd) ou null.
+     */
+    public static StringBuilder date(StringBuilder sb, LocalDate date) {
+        if (date == null) {
+            return sb.append("null");
+        }
+        return sb.append('"').append(date).append('"');
+    }
+
+    /**
+     * Construit un objet {"erreur": message}.
+     */
+    public static String erreur(String message) {
+        return chaine(new StringBuilder("{\"erreur\":"), message).append('}').toString();
+    }
+
+    public static StringBuilder livre(StringBuilder sb, Livre livre) {
+        sb.append("{\"id\":").append(livre.getId());
+        chaine(sb.append(",\"titre\":"), livre.getTitre());
+        chaine(sb.append(",\"auteur\":"), livre.getAuteur());
+        chaine(sb.append(",\"categorie\":"), livre.getCategorie());
+        sb.append(",\"nombreExemplaires\":").append(livre.getNombreExemplaires());
+        sb.append(",\"disponible\":").append(livre.estDisponible());
+        return sb.append('}');
+    }
+
+    public static StringBuilder membre(StringBuilder sb, Membre membre) {
+        sb.append("{\"id\":").append(membre.getId());
+        chaine(sb.append(",\"nom\":"), membre.getNom());
+        chaine(sb.append(",\"prenom\":"), membre.getPrenom());
+        chaine(sb.append(",\"email\":"), membre.getEmail());
+        date(sb.append(",\"adhesionDate\":"), membre.getAdhesionDate());
+        return sb.append('}');
+    }
+
+    public static StringBuilder emprunt(StringBuilder sb, Emprunt emprunt) {
+        sb.append("{\"idEmprunt\":").append(emprunt.getIdEmprunt());
+        sb.append(",\"membreId\":").append(emprunt.getMembreId());
+        sb.append(",\"livreId\":").append(emprunt.getLivreId());
+        date(sb.append(",\"dateEmprunt\":"), emprunt.getDateEmprunt());
+        date(sb.append(",\"dateRetourPrevue\":"), emprunt.getDateRetourPrevue());
+        date(sb.append(",\"dateRetourEffective\":"), emprunt.getDateRetourEffective());
+        LocalDate aujourdhui = Dates.aujourdhui();
+        sb.append(",\"enRetard\":").append(emprunt.estEnRetard(aujourdhui));
+        sb.append(",\"joursRetard\":").append(emprunt.getJoursRetard(aujourdhui));
+        sb.append(",\"penalite\":").append(emprunt.calculerPenalite(aujourdhui));
+        return sb.append('}');
+    }
+}
@@ -1,5 +1,7 @@
 package com.bibliotheque.model;
 
+import com.bibliotheque.util.AffichageRapport;
+
 /**
  * Classe représentant un livre dans la bibliothèque.
  * Contient toutes les informations relatives à un livre.
@@ -83,15 +85,7 @@ public class Livre {
      * Implémentation du Polymorphisme - chaque classe a sa propre version.
      */
     public void afficherDetails() {
-        System.out.println("\n╔════════════════════════════════════════╗");
-        System.out.println("║           DÉTAILS DU LIVRE             ║");
-        System.out.println("╠════════════════════════════════════════╣");
-        System.out.println("║ ID               : " + String.format("%-19d", id) + "║");
-        System.out.println("║ Titre            : " + String.format("%-19s", titre.length() > 19 ? titre.substring(0, 16) + "..." : titre) + "║");
-        System.out.println("║ Auteur           : " + String.format("%-19s", auteur.length() > 19 ? auteur.substring(0, 16) + "..." : auteur) + "║");
-        System.out.println("║ Catégorie        : " + String.format("%-19s", categorie) + "║");
-        System.out.println("║ Exemplaires      : " + String.format("%-19d", nombreExemplaires) + "║");
-        System.out.println("╚════════════════════════════════════════╝");
+        new AffichageRapport(System.out).livre(this).terminer();
     }
     
     /**
@@ -1,10 +1,17 @@
 package com.bibliotheque.dao;
 
 import com.bibliotheque.model.Livre;
-import com.bibliotheque.util.DatabaseConnection;
-import java.sql.*;
+import com.bibliotheque.util.EntiersParId;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Data Access Object pour la gestion des livres.
@@ -16,6 +23,115 @@ import java.util.List;
  */
 public class LivreDAO {
     
+    // Cache local des livres par ID (actif seulement avec EcouteurChangements)
+    private static final CacheEntites<Livre> cache = new CacheEntites<>("livres");
+    
+    // Résultats des recherches répétées, vidés à chaque changement de la table livres
+    private static final CacheRequetes<Livre> recherches =
+        new CacheRequetes<>("recherches_livres", Integer.getInteger("bibliotheque.cache.requetes", 256));
+    
+    // Noms partagés par tous les livres d'une même catégorie / d'un même auteur
+    private static final Dictionnaire categories = new Dictionnaire();
+    private static final Dictionnaire auteurs = new Dictionnaire();
+    
+    // Colonnes lues par lireLivre, dans cet ordre
+    private static final String SELECT =
+        "SELECT id, titre, auteur_id, auteur, categorie_id, categorie, nombre_exemplaires FROM vue_livres";
+    
+    // id_auteur / id_categorie créent l'entrée du dictionnaire si besoin (voir schema.sql)
+    private static final String SQL_AJOUTER =
+        "INSERT INTO livres (titre, auteur_id, categorie_id, nombre_exemplaires) " +
+        "VALUES (?, id_auteur(?), id_categorie(?), ?)";
+    
+    private static final String SQL_MODIFIER =
+        "UPDATE livres SET titre=?, auteur_id=id_auteur(?), categorie_id=id_categorie(?), " +
+        "nombre_exemplaires=? WHERE id=?";
+    
+    // Stock modifié par différence: les emprunts et retours concurrents sont conservés
+    private static final String SQL_MODIFIER_VARIATION =
+        "UPDATE livres SET titre=?, auteur_id=id_auteur(?), categorie_id=id_categorie(?), " +
+        "nombre_exemplaires=nombre_exemplaires + ? WHERE id=?";
+    
+    // Catalogue hors tas (null tant que chargerCatalogue() n'a pas été appelé)
+    private static volatile CatalogueColonnes catalogue;
+    
+    // Incrémenté à chaque changement de stock connu (voir chargerCatalogue)
+    private static final AtomicLong changementsStock = new AtomicLong();
+    
+    static {
+        CacheEntites.surVidage(() -> {
+            changementsStock.incrementAndGet();
+            recherches.invalider();
+            CatalogueColonnes colonnes = catalogue;
+            if (colonnes != null) {
+                colonnes.invaliderTout();
+            }
+        });
+    }
+    
+    /**
+     * Retire un livre du cache local (modification locale ou notification).
+     * 
+     * @param id L'ID du livre modifié
+     */
+    public static void invaliderCache(int id) {
+        changementsStock.incrementAndGet();
+        cache.invalider(id);
+        recherches.invalider();
+        CatalogueColonnes colonnes = catalogue;
+        if (colonnes != null) {
+            colonnes.invalider(id);
+        }
+    }
+    
+    /**
+     * Applique un nouveau stock connu (notification 'livres:STOCK'):
+     * le catalogue en colonnes est mis à jour en place.
+     * 
+     * @param id L'ID du livre
+     * @param stock Le nouveau nombre d'exemplaires disponibles
+     */
+    public static void stockModifie(int id, int stock) {
+        changementsStock.incrementAndGet();
+        cache.invalider(id);
+        recherches.invalider();
+        CatalogueColonnes colonnes = catalogue;
+        if (colonnes != null) {
+            colonnes.majStock(id, stock);
+        }
+    }
+    
+    /**
+     * Charge tout le catalogue hors du tas Java (grandes collections).
+     * getLivreById le consulte ensuite tant que les caches sont actifs.
+     * 
+     * Une notification reçue pendant le chargement s'applique à l'ancien
+     * catalogue (ou à aucun), pas à l'instantané en cours de lecture: dans
+     * ce cas toutes les lignes du nouveau catalogue sont marquées à relire.
+     * 
+     * @return true si le chargement a réussi, false sinon
+     */
+    public static boolean chargerCatalogue() {
+        return Jdbc.avecConnexion("LivreDAO.chargerCatalogue", "du chargement du catalogue", false, conn -> {
+            long changements = changementsStock.get();
+            CatalogueColonnes charge = CatalogueColonnes.charger(conn, auteurs, categories);
+            catalogue = charge;
+            if (changementsStock.get() != changements) {
+                charge.invaliderTout();
+            }
+            System.out.println("✓ Catalogue chargé hors tas: " + charge.taille() + " livres");
+            return true;
+        });
+    }
+    
+    /**
+     * @return Le catalogue en colonnes, ou null s'il n'est pas chargé
+     *         ou que les caches sont inactifs (il pourrait être périmé)
+     */
+    public static CatalogueColonnes getCatalogue() {
+        return CacheEntites.isActif() ? catalogue : null;
+    }
+    
     /**
      * Ajoute un nouveau livre dans la base de données.
      * 
@@ -23,36 +139,34 @@ public class LivreDAO {
      * @return true si l'ajout a réussi, false sinon
      */
     public boolean ajouterLivre(Livre livre) {
-        String sql = "INSERT INTO livres (titre, auteur, categorie, nombre_exemplaires) VALUES (?, ?, ?, ?)";
+        return Jdbc.avecConnexion("LivreDAO.ajouterLivre", "de l'ajout du livre", false, conn -> ajouterLivre(conn, livre));
+    }
+    
+    /**
+     * Ajoute un livre sur une connexion fournie par l'appelant
+     * (traitement par lots, transaction englobante). Ne valide pas la transaction.
+     * 
+     * @param conn La connexion à utiliser
+     * @param livre Le livre à ajouter
+     * @return true si l'ajout a réussi, false sinon
+     * @throws SQLException en cas d'erreur d'accès aux données
+     */
+    public boolean ajouterLivre(Connection conn, Livre livre) throws SQLException {
+        return Jdbc.mesurer("LivreDAO.ajouterLivre(Connection)", conn, c -> {
+            int id = Jdbc.inserer(c, SQL_AJOUTER, pstmt -> {
+                pstmt.setString(1, livre.getTitre());
+                pstmt.setString(2, livre.getAuteur());
+                pstmt.setString(3, livre.getCategorie());
+                pstmt.setInt(4, livre.getNombreExemplaires());
+            });
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            // Définir les paramètres de la requête
-            pstmt.setString(1, livre.getTitre());
-            pstmt.setString(2, livre.getAuteur());
-            pstmt.setString(3, livre.getCategorie());
-            pstmt.setInt(4, livre.getNombreExemplaires());
-            
-            // Exécuter la requête
-            int rowsAffected = pstmt.executeUpdate();
-            
             // Récupérer l'ID généré automatiquement
-            if (rowsAffected > 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        livre.setId(generatedKeys.getInt(1));
-                    }
-                }
+            if (id > 0) {
+                livre.setId(id);
+                recherches.invalider();
             }
-            
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de l'ajout du livre: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+            return id > 0;
+        });
     }
     
     /**
@@ -62,25 +176,49 @@ public class LivreDAO {
      * @return true si la modification a réussi, false sinon
      */
     public boolean modifierLivre(Livre livre) {
-        String sql = "UPDATE livres SET titre=?, auteur=?, categorie=?, nombre_exemplaires=? WHERE id=?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, livre.getTitre());
-            pstmt.setString(2, livre.getAuteur());
-            pstmt.setString(3, livre.getCategorie());
-            pstmt.setInt(4, livre.getNombreExemplaires());
-            pstmt.setInt(5, livre.getId());
-            
-            int rowsAffected = pstmt.executeUpdate();
+        return Jdbc.avecConnexion("LivreDAO.modifierLivre", "de la modification du livre", false, conn -> {
+            int rowsAffected = Jdbc.executer(conn, SQL_MODIFIER, pstmt -> parametresModification(pstmt, livre));
+            invaliderCache(livre.getId());
             return rowsAffected > 0;
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la modification du livre: " + e.getMessage());
-            e.printStackTrace();
-            return false;
-        }
+        });
+    }
+    
+    /**
+     * Modifie plusieurs livres en un seul lot sur une connexion fournie
+     * par l'appelant (Session). Ne valide pas la transaction.
+     * Le stock n'est pas écrasé: seule sa variation depuis la lecture
+     * (stocksLus) est appliquée, sans perdre les emprunts et retours
+     * enregistrés entre-temps par d'autres transactions.
+     * 
+     * @param conn La connexion à utiliser
+     * @param livres Les livres avec leurs nouvelles informations
+     * @param stocksLus Stock de chaque livre tel qu'il a été lu (ID → exemplaires)
+     * @return Le nombre de livres modifiés
+     * @throws SQLException en cas d'erreur d'accès aux données
+     */
+    public int modifierLivres(Connection conn, Collection<Livre> livres, EntiersParId stocksLus) throws SQLException {
+        return Jdbc.mesurer("LivreDAO.modifierLivres(Connection)", conn, c -> {
+            int modifies = Jdbc.lot(c, SQL_MODIFIER_VARIATION, livres, (pstmt, livre) -> {
+                pstmt.setString(1, livre.getTitre());
+                pstmt.setString(2, livre.getAuteur());
+                pstmt.setString(3, livre.getCategorie());
+                pstmt.setInt(4, livre.getNombreExemplaires()
+                                - stocksLus.get(livre.getId(), livre.getNombreExemplaires()));
+                pstmt.setInt(5, livre.getId());
+            });
+            for (Livre livre : livres) {
+                invaliderCache(livre.getId());
+            }
+            return modifies;
+        });
+    }
+    
+    private static void parametresModification(PreparedStatement pstmt, Livre livre) throws SQLException {
+        pstmt.setString(1, livre.getTitre());
+        pstmt.setString(2, livre.getAuteur());
+        pstmt.setString(3, livre.getCategorie());
+        pstmt.setInt(4, livre.getNombreExemplaires());
+        pstmt.setInt(5, livre.getId());
     }
     
     /**
@@ -91,21 +229,16 @@ public class LivreDAO {
      * @return true si la suppression a réussi, false sinon
      */
     public boolean supprimerLivre(int id) {
-        String sql = "DELETE FROM livres WHERE id=?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
+        return Jdbc.avecConnexion("LivreDAO.supprimerLivre", conn -> {
+            int rowsAffected = Jdbc.executer(conn, "DELETE FROM livres WHERE id=?", pstmt -> pstmt.setInt(1, id));
+            invaliderCache(id);
             
             return rowsAffected > 0;
-            
-        } catch (SQLException e) {
+        }, e -> {
             System.err.println("✗ Erreur lors de la suppression du livre: " + e.getMessage());
             System.err.println("  Vérifiez qu'aucun emprunt actif n'est lié à ce livre.");
             return false;
-        }
+        });
     }
     
     /**
@@ -115,25 +248,9 @@ public class LivreDAO {
      * @return Liste des livres trouvés
      */
     public List<Livre> rechercherParTitre(String titre) {
-        List<Livre> livres = new ArrayList<>();
-        String sql = "SELECT * FROM livres WHERE LOWER(titre) LIKE LOWER(?) ORDER BY titre";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, "%" + titre + "%");
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                livres.add(extractLivreFromResultSet(rs));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la recherche par titre: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return livres;
+        return rechercher("LivreDAO.rechercherParTitre", "de la recherche par titre", "titre:" + normaliser(titre), conn ->
+            Jdbc.liste(conn, SELECT + " WHERE LOWER(titre) LIKE LOWER(?) ORDER BY titre",
+                       pstmt -> pstmt.setString(1, "%" + titre + "%"), this::lireLivre));
     }
     
     /**
@@ -143,53 +260,25 @@ public class LivreDAO {
      * @return Liste des livres trouvés
      */
     public List<Livre> rechercherParAuteur(String auteur) {
-        List<Livre> livres = new ArrayList<>();
-        String sql = "SELECT * FROM livres WHERE LOWER(auteur) LIKE LOWER(?) ORDER BY auteur, titre";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, "%" + auteur + "%");
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                livres.add(extractLivreFromResultSet(rs));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la recherche par auteur: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return livres;
+        return rechercher("LivreDAO.rechercherParAuteur", "de la recherche par auteur", "auteur:" + normaliser(auteur), conn ->
+            Jdbc.liste(conn, SELECT + " WHERE LOWER(auteur) LIKE LOWER(?) ORDER BY auteur, titre",
+                       pstmt -> pstmt.setString(1, "%" + auteur + "%"), this::lireLivre));
     }
     
     /**
-     * Recherche des livres par catégorie.
+     * Recherche des livres par catégorie (recherche partielle, insensible à la casse).
+     * Le texte est résolu en IDs de catégories par la base (table categories,
+     * toujours complète), puis les livres sont cherchés par clé entière
+     * (index idx_livres_categorie).
      * 
-     * @param categorie La catégorie à rechercher
+     * @param categorie La catégorie ou partie du nom à rechercher
      * @return Liste des livres de cette catégorie
      */
     public List<Livre> rechercherParCategorie(String categorie) {
-        List<Livre> livres = new ArrayList<>();
-        String sql = "SELECT * FROM livres WHERE LOWER(categorie) LIKE LOWER(?) ORDER BY titre";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, "%" + categorie + "%");
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                livres.add(extractLivreFromResultSet(rs));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la recherche par catégorie: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return livres;
+        return rechercher("LivreDAO.rechercherParCategorie", "de la recherche par catégorie", "categorie:" + normaliser(categorie), conn ->
+            Jdbc.liste(conn, SELECT + " WHERE categorie_id IN (SELECT id FROM categories WHERE LOWER(nom) LIKE LOWER(?))" +
+                             " ORDER BY titre",
+                       pstmt -> pstmt.setString(1, "%" + categorie + "%"), this::lireLivre));
     }
     
     /**
@@ -199,91 +288,244 @@ public class LivreDAO {
      * @return Le livre trouvé ou null si non trouvé
      */
     public Livre getLivreById(int id) {
-        String sql = "SELECT * FROM livres WHERE id=?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return extractLivreFromResultSet(rs);
+        CatalogueColonnes colonnes = getCatalogue();
+        if (colonnes != null) {
+            Livre enColonnes = colonnes.getLivre(id);
+            if (enColonnes != null) {
+                return enColonnes;
             }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la récupération du livre: " + e.getMessage());
-            e.printStackTrace();
         }
         
-        return null;
+        Livre enCache = cache.get(id);
+        if (enCache != null) {
+            return copier(enCache);
+        }
+        
+        long generation = cache.getGeneration();
+        long generationColonnes = colonnes != null ? colonnes.getGeneration() : 0;
+        
+        Livre livre = Jdbc.avecConnexion("LivreDAO.getLivreById", "de la récupération du livre", null, conn ->
+            Jdbc.premier(conn, SELECT + " WHERE id=?", pstmt -> pstmt.setInt(1, id), this::lireLivre));
+        
+        if (livre != null) {
+            cache.mettreEnCache(id, copier(livre), generation);
+            if (colonnes != null) {
+                colonnes.rafraichir(livre, generationColonnes);
+            }
+        }
+        return livre;
     }
     
     /**
-     * Affiche tous les livres disponibles dans la bibliothèque.
+     * Récupère plusieurs livres par leurs IDs: ceux du catalogue en colonnes
+     * ou du cache, puis les autres en une seule requête.
      * 
-     * @return Liste de tous les livres
+     * @param ids Les IDs des livres (sans doublons)
+     * @return Les livres trouvés (les IDs inconnus sont ignorés)
      */
-    public List<Livre> afficherTousLivres() {
-        List<Livre> livres = new ArrayList<>();
-        String sql = "SELECT * FROM livres ORDER BY categorie, titre";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                livres.add(extractLivreFromResultSet(rs));
+    public List<Livre> getLivresByIds(int[] ids) {
+        CatalogueColonnes colonnes = getCatalogue();
+        List<Livre> livres = new ArrayList<>(ids.length);
+        int[] manquants = new int[ids.length];
+        int nombre = 0;
+        for (int id : ids) {
+            Livre enMemoire = colonnes != null ? colonnes.getLivre(id) : null;
+            if (enMemoire == null) {
+                Livre enCache = cache.get(id);
+                enMemoire = enCache != null ? copier(enCache) : null;
+            }
+            if (enMemoire != null) {
+                livres.add(enMemoire);
+            } else {
+                manquants[nombre++] = id;
             }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la récupération de tous les livres: " + e.getMessage());
-            e.printStackTrace();
+        }
+        if (nombre == 0) {
+            return livres;
         }
         
+        int[] aLire = Arrays.copyOf(manquants, nombre);
+        long generation = cache.getGeneration();
+        long generationColonnes = colonnes != null ? colonnes.getGeneration() : 0;
+        List<Livre> lus = Jdbc.avecConnexion("LivreDAO.getLivresByIds", "de la récupération des livres", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, SELECT + " WHERE id = ANY(?)",
+                       pstmt -> pstmt.setArray(1, Jdbc.entiers(conn, aLire)), this::lireLivre));
+        for (Livre livre : lus) {
+            cache.mettreEnCache(livre.getId(), copier(livre), generation);
+            if (colonnes != null) {
+                colonnes.rafraichir(livre, generationColonnes);
+            }
+        }
+        livres.addAll(lus);
         return livres;
     }
     
+    /**
+     * Récupère plusieurs livres par leurs IDs en une seule requête,
+     * sur une connexion fournie par l'appelant (Session).
+     * 
+     * @param conn La connexion à utiliser
+     * @param ids Les IDs des livres
+     * @return Les livres trouvés (les IDs inconnus sont ignorés)
+     * @throws SQLException en cas d'erreur d'accès aux données
+     */
+    public List<Livre> getLivresByIds(Connection conn, int[] ids) throws SQLException {
+        return Jdbc.mesurer("LivreDAO.getLivresByIds(Connection)", conn, c ->
+            Jdbc.liste(c, SELECT + " WHERE id = ANY(?)",
+                       pstmt -> pstmt.setArray(1, Jdbc.entiers(c, ids)), this::lireLivre));
+    }
+    
+    /**
+     * Nombre d'exemplaires possédés de chaque livre: en stock plus encore
+     * empruntés. Ne change pas quand un livre est emprunté ou rendu
+     * (contrôle de cohérence des stocks).
+     * 
+     * @param ids Les IDs des livres
+     * @return Exemplaires possédés par ID (les IDs inconnus sont absents), null en cas d'erreur
+     */
+    public EntiersParId getExemplairesPossedes(int[] ids) {
+        String sql = "SELECT l.id, l.nombre_exemplaires + COUNT(e.id_emprunt) FROM livres l " +
+                     "LEFT JOIN emprunts e ON e.livre_id = l.id AND e.date_retour_effective IS NULL " +
+                     "WHERE l.id = ANY(?) GROUP BY l.id";
+        
+        return Jdbc.avecConnexion("LivreDAO.getExemplairesPossedes", "du comptage des exemplaires", null, conn -> {
+            EntiersParId possedes = new EntiersParId(ids.length);
+            for (int[] ligne : Jdbc.liste(conn, sql, pstmt -> pstmt.setArray(1, Jdbc.entiers(conn, ids)),
+                                          rs -> new int[] {rs.getInt(1), rs.getInt(2)})) {
+                possedes.put(ligne[0], ligne[1]);
+            }
+            return possedes;
+        });
+    }
+    
+    /**
+     * Affiche tous les livres disponibles dans la bibliothèque.
+     * 
+     * @return Liste de tous les livres
+     */
+    public List<Livre> afficherTousLivres() {
+        return Jdbc.avecConnexion("LivreDAO.afficherTousLivres", "de la récupération de tous les livres", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, SELECT + " ORDER BY categorie, titre", Jdbc.SANS_PARAMETRES, this::lireLivre));
+    }
+    
     /**
      * Affiche uniquement les livres disponibles (avec au moins 1 exemplaire).
      * 
      * @return Liste des livres disponibles
      */
     public List<Livre> afficherLivresDisponibles() {
-        List<Livre> livres = new ArrayList<>();
-        String sql = "SELECT * FROM livres WHERE nombre_exemplaires > 0 ORDER BY categorie, titre";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                livres.add(extractLivreFromResultSet(rs));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la récupération des livres disponibles: " + e.getMessage());
-            e.printStackTrace();
-        }
+        return rechercher("LivreDAO.afficherLivresDisponibles", "de la récupération des livres disponibles", "disponibles", conn ->
+            Jdbc.liste(conn, SELECT + " WHERE nombre_exemplaires > 0 ORDER BY categorie, titre",
+                       Jdbc.SANS_PARAMETRES, this::lireLivre));
+    }
+    
+    /**
+     * Récupère une page de livres, triés par ID.
+     * Une page connue se demande par l'ID de son premier livre (pagination
+     * par clé, sans parcourir les pages précédentes); le décalage ne sert que
+     * pour aller directement à une page jamais affichée.
+     * 
+     * @param filtre Texte recherché dans le titre ou l'auteur (null ou vide: aucun filtre)
+     * @param depuisId ID du premier livre de la page (null: depuis le début)
+     * @param decalage Nombre de livres à sauter
+     * @param taille Nombre maximal de livres retournés
+     * @return La page de livres (vide si aucun)
+     */
+    public List<Livre> getPageLivres(String filtre, Integer depuisId, int decalage, int taille) {
+        boolean filtrer = filtre != null && !filtre.isEmpty();
+        String sql = SELECT + " WHERE id >= ?" +
+                     (filtrer ? " AND (LOWER(titre) LIKE LOWER(?) OR LOWER(auteur) LIKE LOWER(?))" : "") +
+                     " ORDER BY id LIMIT ? OFFSET ?";
         
-        return livres;
+        return Jdbc.avecConnexion("LivreDAO.getPageLivres", "de la récupération d'une page de livres", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, sql, pstmt -> {
+                int i = 1;
+                pstmt.setInt(i++, depuisId != null ? depuisId : 0);
+                if (filtrer) {
+                    pstmt.setString(i++, "%" + filtre + "%");
+                    pstmt.setString(i++, "%" + filtre + "%");
+                }
+                pstmt.setInt(i++, taille);
+                pstmt.setInt(i, decalage);
+            }, this::lireLivre));
     }
     
     /**
-     * Méthode utilitaire pour extraire un objet Livre depuis un ResultSet.
-     * Évite la duplication de code dans les différentes méthodes.
+     * Récupère une page des livres disponibles (au moins 1 exemplaire),
+     * triés par ID (pagination par clé).
      * 
-     * @param rs Le ResultSet contenant les données du livre
+     * @param depuisId ID du premier livre de la page (null: depuis le début)
+     * @param taille Nombre maximal de livres retournés
+     * @return La page de livres (vide si aucun)
+     */
+    public List<Livre> getPageLivresDisponibles(Integer depuisId, int taille) {
+        return Jdbc.avecConnexion("LivreDAO.getPageLivresDisponibles", "de la récupération d'une page de livres disponibles", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, SELECT + " WHERE id >= ? AND nombre_exemplaires > 0 ORDER BY id LIMIT ?", pstmt -> {
+                pstmt.setInt(1, depuisId != null ? depuisId : 0);
+                pstmt.setInt(2, taille);
+            }, this::lireLivre));
+    }
+    
+    /**
+     * Construit un Livre depuis une ligne de SELECT (colonnes lues par position).
+     * 
+     * @param rs Le ResultSet positionné sur la ligne
      * @return Un objet Livre
      * @throws SQLException en cas d'erreur d'accès aux données
      */
-    private Livre extractLivreFromResultSet(ResultSet rs) throws SQLException {
+    private Livre lireLivre(ResultSet rs) throws SQLException {
         return new Livre(
-            rs.getInt("id"),
-            rs.getString("titre"),
-            rs.getString("auteur"),
-            rs.getString("categorie"),
-            rs.getInt("nombre_exemplaires")
+            rs.getInt(1),
+            rs.getString(2),
+            auteurs.canonique(rs.getInt(3), rs.getString(4)),
+            categories.canonique(rs.getInt(5), rs.getString(6)),
+            rs.getInt(7)
         );
     }
-}
\ No newline at end of file
+    
+    /**
+     * Exécute une recherche, ou retourne son résultat en cache si la table
+     * livres n'a pas changé depuis. Une erreur n'est jamais mise en cache.
+     * 
+     * @param methode Méthode mesurée
+     * @param action Complément du message d'erreur
+     * @param cle Méthode et paramètres normalisés
+     * @param requete La requête à exécuter en l'absence de résultat en cache
+     * @return Les livres trouvés (copies: l'appelant peut les modifier)
+     */
+    private List<Livre> rechercher(String methode, String action, String cle, Jdbc.Travail<List<Livre>> requete) {
+        List<Livre> enCache = recherches.get(cle);
+        if (enCache != null) {
+            return copier(enCache);
+        }
+        
+        long version = recherches.getVersion();
+        return Jdbc.avecConnexion(methode, action, new ArrayList<>(), conn -> {
+            List<Livre> livres = requete.executer(conn);
+            recherches.mettreEnCache(cle, copier(livres), version);
+            return livres;
+        });
+    }
+    
+    // Les recherches sont insensibles à la casse: "Roman" et "roman" partagent un résultat
+    private static String normaliser(String texte) {
+        return texte.toLowerCase(Locale.ROOT);
+    }
+    
+    private static List<Livre> copier(List<Livre> livres) {
+        List<Livre> copies = new ArrayList<>(livres.size());
+        for (Livre livre : livres) {
+            copies.add(copier(livre));
+        }
+        return copies;
+    }
+    
+    /**
+     * Copie un livre: les instances en cache ne sont jamais exposées,
+     * l'appelant pouvant les modifier avant modifierLivre().
+     */
+    private static Livre copier(Livre livre) {
+        return new Livre(livre.getId(), livre.getTitre(), livre.getAuteur(),
+                         livre.getCategorie(), livre.getNombreExemplaires());
+    }
+}
@@ -1,7 +1,8 @@
 package com.bibliotheque.model;
 
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import com.bibliotheque.util.AffichageRapport;
+import com.bibliotheque.util.Dates;
+import java.time.LocalDate;
 
 /**
  * Classe représentant un membre de la bibliothèque.
@@ -16,10 +17,8 @@ public class Membre {
     private String nom;
     private String prenom;
     private String email;
-    private Date adhesionDate;
-    
-    // Format pour l'affichage des dates
-    private static final SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
+    // Date d'adhésion en jours depuis le 01/01/1970 (LocalDate.toEpochDay)
+    private int jourAdhesion;
     
     /**
      * Constructeur pour créer un nouveau membre (sans ID).
@@ -29,18 +28,18 @@ public class Membre {
         this.nom = nom;
         this.prenom = prenom;
         this.email = email;
-        this.adhesionDate = new Date(); // Date actuelle
+        setAdhesionDate(Dates.aujourdhui()); // Date actuelle
     }
     
     /**
      * Constructeur complet avec ID et date (pour récupération depuis la BD).
      */
-    public Membre(int id, String nom, String prenom, String email, Date adhesionDate) {
+    public Membre(int id, String nom, String prenom, String email, LocalDate adhesionDate) {
         this.id = id;
         this.nom = nom;
         this.prenom = prenom;
         this.email = email;
-        this.adhesionDate = adhesionDate;
+        setAdhesionDate(adhesionDate);
     }
     
     // Getters et Setters (Encapsulation)
@@ -76,12 +75,12 @@ public class Membre {
         this.email = email; 
     }
     
-    public Date getAdhesionDate() { 
-        return adhesionDate; 
+    public LocalDate getAdhesionDate() { 
+        return LocalDate.ofEpochDay(jourAdhesion); 
     }
     
-    public void setAdhesionDate(Date adhesionDate) { 
-        this.adhesionDate = adhesionDate; 
+    public void setAdhesionDate(LocalDate adhesionDate) { 
+        this.jourAdhesion = Math.toIntExact(adhesionDate.toEpochDay()); 
     }
     
     /**
@@ -96,15 +95,7 @@ public class Membre {
      * Implémentation du Polymorphisme.
      */
     public void afficherDetails() {
-        System.out.println("\n╔════════════════════════════════════════╗");
-        System.out.println("║          DÉTAILS DU MEMBRE             ║");
-        System.out.println("╠════════════════════════════════════════╣");
-        System.out.println("║ ID               : " + String.format("%-19d", id) + "║");
-        System.out.println("║ Nom              : " + String.format("%-19s", nom) + "║");
-        System.out.println("║ Prénom           : " + String.format("%-19s", prenom) + "║");
-        System.out.println("║ Email            : " + String.format("%-19s", email.length() > 19 ? email.substring(0, 16) + "..." : email) + "║");
-        System.out.println("║ Date d'adhésion  : " + String.format("%-19s", dateFormat.format(adhesionDate)) + "║");
-        System.out.println("╚════════════════════════════════════════╝");
+        new AffichageRapport(System.out).membre(this).terminer();
     }
     
     @Override
@@ -114,7 +105,7 @@ public class Membre {
                 ", nom='" + nom + '\'' +
                 ", prenom='" + prenom + '\'' +
                 ", email='" + email + '\'' +
-                ", adhesionDate=" + dateFormat.format(adhesionDate) +
+                ", adhesionDate=" + Dates.formater(getAdhesionDate()) +
                 '}';
     }
 }
\ No newline at end of file
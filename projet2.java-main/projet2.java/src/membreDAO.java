@@ -1,9 +1,12 @@
 package com.bibliotheque.dao;
 
 import com.bibliotheque.model.Membre;
-import com.bibliotheque.util.DatabaseConnection;
-import java.sql.*;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,6 +18,21 @@ import java.util.List;
  */
 public class MembreDAO {
     
+    // Cache local des membres par ID (actif seulement avec EcouteurChangements)
+    private static final CacheEntites<Membre> cache = new CacheEntites<>("membres");
+    
+    // Colonnes lues par lireMembre, dans cet ordre
+    private static final String SELECT = "SELECT id, nom, prenom, email, adhesion_date FROM membres";
+    
+    /**
+     * Retire un membre du cache local (modification locale ou notification).
+     * 
+     * @param id L'ID du membre modifié
+     */
+    public static void invaliderCache(int id) {
+        cache.invalider(id);
+    }
+    
     /**
      * Ajoute un nouveau membre dans la base de données.
      * 
@@ -22,37 +40,69 @@ public class MembreDAO {
      * @return true si l'inscription a réussi, false sinon
      */
     public boolean ajouterMembre(Membre membre) {
-        String sql = "INSERT INTO membres (nom, prenom, email, adhesion_date) VALUES (?, ?, ?, ?)";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-            
-            pstmt.setString(1, membre.getNom());
-            pstmt.setString(2, membre.getPrenom());
-            pstmt.setString(3, membre.getEmail());
-            pstmt.setDate(4, new java.sql.Date(membre.getAdhesionDate().getTime()));
-            
-            int rowsAffected = pstmt.executeUpdate();
-            
-            // Récupérer l'ID généré
-            if (rowsAffected > 0) {
-                try (ResultSet generatedKeys = pstmt.getGeneratedKeys()) {
-                    if (generatedKeys.next()) {
-                        membre.setId(generatedKeys.getInt(1));
-                    }
-                }
-            }
-            
-            return rowsAffected > 0;
-            
-        } catch (SQLException e) {
+        return Jdbc.avecConnexion("MembreDAO.ajouterMembre", conn -> ajouterMembre(conn, membre), e -> {
             System.err.println("✗ Erreur lors de l'ajout du membre: " + e.getMessage());
             if (e.getMessage().contains("unique") || e.getMessage().contains("duplicate")) {
                 System.err.println("  Cet email est déjà utilisé par un autre membre.");
             }
             e.printStackTrace();
             return false;
-        }
+        });
+    }
+    
+    /**
+     * Ajoute un membre sur une connexion fournie par l'appelant
+     * (traitement par lots, transaction englobante). Ne valide pas la transaction.
+     * 
+     * @param conn La connexion à utiliser
+     * @param membre Le membre à inscrire
+     * @return true si l'inscription a réussi, false sinon
+     * @throws SQLException en cas d'erreur (email déjà utilisé notamment)
+     */
+    public boolean ajouterMembre(Connection conn, Membre membre) throws SQLException {
+        return Jdbc.mesurer("MembreDAO.ajouterMembre(Connection)", conn, c -> {
+            String sql = "INSERT INTO membres (nom, prenom, email, adhesion_date) VALUES (?, ?, ?, ?)";
+        
+            int id = Jdbc.inserer(c, sql, pstmt -> {
+                pstmt.setString(1, membre.getNom());
+                pstmt.setString(2, membre.getPrenom());
+                pstmt.setString(3, membre.getEmail());
+                pstmt.setDate(4, java.sql.Date.valueOf(membre.getAdhesionDate()));
+            });
+        
+            // Récupérer l'ID généré
+            if (id > 0) {
+                membre.setId(id);
+            }
+            return id > 0;
+        });
+    }
+    
+    /**
+     * Modifie plusieurs membres en un seul lot sur une connexion fournie
+     * par l'appelant (Session). Ne valide pas la transaction.
+     * 
+     * @param conn La connexion à utiliser
+     * @param membres Les membres avec leurs nouvelles informations
+     * @return Le nombre de membres modifiés
+     * @throws SQLException en cas d'erreur (email déjà utilisé notamment)
+     */
+    public int modifierMembres(Connection conn, Collection<Membre> membres) throws SQLException {
+        return Jdbc.mesurer("MembreDAO.modifierMembres(Connection)", conn, c -> {
+            String sql = "UPDATE membres SET nom=?, prenom=?, email=?, adhesion_date=? WHERE id=?";
+        
+            int modifies = Jdbc.lot(c, sql, membres, (pstmt, membre) -> {
+                pstmt.setString(1, membre.getNom());
+                pstmt.setString(2, membre.getPrenom());
+                pstmt.setString(3, membre.getEmail());
+                pstmt.setDate(4, java.sql.Date.valueOf(membre.getAdhesionDate()));
+                pstmt.setInt(5, membre.getId());
+            });
+            for (Membre membre : membres) {
+                invaliderCache(membre.getId());
+            }
+            return modifies;
+        });
     }
     
     /**
@@ -63,21 +113,16 @@ public class MembreDAO {
      * @return true si la suppression a réussi, false sinon
      */
     public boolean supprimerMembre(int id) {
-        String sql = "DELETE FROM membres WHERE id=?";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
+        return Jdbc.avecConnexion("MembreDAO.supprimerMembre", conn -> {
+            int rowsAffected = Jdbc.executer(conn, "DELETE FROM membres WHERE id=?", pstmt -> pstmt.setInt(1, id));
+            invaliderCache(id);
             
             return rowsAffected > 0;
-            
-        } catch (SQLException e) {
+        }, e -> {
             System.err.println("✗ Erreur lors de la suppression du membre: " + e.getMessage());
             System.err.println("  Vérifiez qu'aucun emprunt actif n'est lié à ce membre.");
             return false;
-        }
+        });
     }
     
     /**
@@ -87,27 +132,13 @@ public class MembreDAO {
      * @return Liste des membres trouvés
      */
     public List<Membre> rechercherParNom(String nom) {
-        List<Membre> membres = new ArrayList<>();
-        String sql = "SELECT * FROM membres WHERE LOWER(nom) LIKE LOWER(?) OR LOWER(prenom) LIKE LOWER(?) ORDER BY nom, prenom";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            String pattern = "%" + nom + "%";
-            pstmt.setString(1, pattern);
-            pstmt.setString(2, pattern);
-            ResultSet rs = pstmt.executeQuery();
-            
-            while (rs.next()) {
-                membres.add(extractMembreFromResultSet(rs));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la recherche de membres: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return membres;
+        String pattern = "%" + nom + "%";
+        return Jdbc.avecConnexion("MembreDAO.rechercherParNom", "de la recherche de membres", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, SELECT + " WHERE LOWER(nom) LIKE LOWER(?) OR LOWER(prenom) LIKE LOWER(?) ORDER BY nom, prenom",
+                       pstmt -> {
+                           pstmt.setString(1, pattern);
+                           pstmt.setString(2, pattern);
+                       }, this::lireMembre));
     }
     
     /**
@@ -117,24 +148,9 @@ public class MembreDAO {
      * @return Le membre trouvé ou null
      */
     public Membre rechercherParEmail(String email) {
-        String sql = "SELECT * FROM membres WHERE LOWER(email) = LOWER(?)";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setString(1, email);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return extractMembreFromResultSet(rs);
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la recherche par email: " + e.getMessage());
-            e.printStackTrace();
-        }
-        
-        return null;
+        return Jdbc.avecConnexion("MembreDAO.rechercherParEmail", "de la recherche par email", null, conn ->
+            Jdbc.premier(conn, SELECT + " WHERE LOWER(email) = LOWER(?)",
+                         pstmt -> pstmt.setString(1, email), this::lireMembre));
     }
     
     /**
@@ -144,24 +160,69 @@ public class MembreDAO {
      * @return Le membre trouvé ou null
      */
     public Membre getMembreById(int id) {
-        String sql = "SELECT * FROM membres WHERE id=?";
+        Membre enCache = cache.get(id);
+        if (enCache != null) {
+            return copier(enCache);
+        }
         
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-            
-            pstmt.setInt(1, id);
-            ResultSet rs = pstmt.executeQuery();
-            
-            if (rs.next()) {
-                return extractMembreFromResultSet(rs);
+        long generation = cache.getGeneration();
+        Membre membre = Jdbc.avecConnexion("MembreDAO.getMembreById", "de la récupération du membre", null, conn ->
+            Jdbc.premier(conn, SELECT + " WHERE id=?", pstmt -> pstmt.setInt(1, id), this::lireMembre));
+        
+        if (membre != null) {
+            cache.mettreEnCache(id, copier(membre), generation);
+        }
+        return membre;
+    }
+    
+    /**
+     * Récupère plusieurs membres par leurs IDs: ceux du cache, puis les
+     * autres en une seule requête.
+     * 
+     * @param ids Les IDs des membres (sans doublons)
+     * @return Les membres trouvés (les IDs inconnus sont ignorés)
+     */
+    public List<Membre> getMembresByIds(int[] ids) {
+        List<Membre> membres = new ArrayList<>(ids.length);
+        int[] manquants = new int[ids.length];
+        int nombre = 0;
+        for (int id : ids) {
+            Membre enCache = cache.get(id);
+            if (enCache != null) {
+                membres.add(copier(enCache));
+            } else {
+                manquants[nombre++] = id;
             }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la récupération du membre: " + e.getMessage());
-            e.printStackTrace();
+        }
+        if (nombre == 0) {
+            return membres;
         }
         
-        return null;
+        int[] aLire = Arrays.copyOf(manquants, nombre);
+        long generation = cache.getGeneration();
+        List<Membre> lus = Jdbc.avecConnexion("MembreDAO.getMembresByIds", "de la récupération des membres", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, SELECT + " WHERE id = ANY(?)",
+                       pstmt -> pstmt.setArray(1, Jdbc.entiers(conn, aLire)), this::lireMembre));
+        for (Membre membre : lus) {
+            cache.mettreEnCache(membre.getId(), copier(membre), generation);
+        }
+        membres.addAll(lus);
+        return membres;
+    }
+    
+    /**
+     * Récupère plusieurs membres par leurs IDs en une seule requête,
+     * sur une connexion fournie par l'appelant (Session).
+     * 
+     * @param conn La connexion à utiliser
+     * @param ids Les IDs des membres
+     * @return Les membres trouvés (les IDs inconnus sont ignorés)
+     * @throws SQLException en cas d'erreur d'accès aux données
+     */
+    public List<Membre> getMembresByIds(Connection conn, int[] ids) throws SQLException {
+        return Jdbc.mesurer("MembreDAO.getMembresByIds(Connection)", conn, c ->
+            Jdbc.liste(c, SELECT + " WHERE id = ANY(?)",
+                       pstmt -> pstmt.setArray(1, Jdbc.entiers(c, ids)), this::lireMembre));
     }
     
     /**
@@ -170,39 +231,61 @@ public class MembreDAO {
      * @return Liste de tous les membres
      */
     public List<Membre> afficherTousMembres() {
-        List<Membre> membres = new ArrayList<>();
-        String sql = "SELECT * FROM membres ORDER BY nom, prenom";
-        
-        try (Connection conn = DatabaseConnection.getConnection();
-             Statement stmt = conn.createStatement();
-             ResultSet rs = stmt.executeQuery(sql)) {
-            
-            while (rs.next()) {
-                membres.add(extractMembreFromResultSet(rs));
-            }
-            
-        } catch (SQLException e) {
-            System.err.println("✗ Erreur lors de la récupération de tous les membres: " + e.getMessage());
-            e.printStackTrace();
-        }
+        return Jdbc.avecConnexion("MembreDAO.afficherTousMembres", "de la récupération de tous les membres", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, SELECT + " ORDER BY nom, prenom", Jdbc.SANS_PARAMETRES, this::lireMembre));
+    }
+    
+    /**
+     * Récupère une page de membres, triés par ID (pagination par clé).
+     * 
+     * @param filtre Texte recherché dans le nom, le prénom ou l'email (null ou vide: aucun filtre)
+     * @param depuisId ID du premier membre de la page (null: depuis le début)
+     * @param decalage Nombre de membres à sauter
+     * @param taille Nombre maximal de membres retournés
+     * @return La page de membres (vide si aucun)
+     */
+    public List<Membre> getPageMembres(String filtre, Integer depuisId, int decalage, int taille) {
+        boolean filtrer = filtre != null && !filtre.isEmpty();
+        String sql = SELECT + " WHERE id >= ?" +
+                     (filtrer ? " AND (LOWER(nom) LIKE LOWER(?) OR LOWER(prenom) LIKE LOWER(?) OR LOWER(email) LIKE LOWER(?))" : "") +
+                     " ORDER BY id LIMIT ? OFFSET ?";
         
-        return membres;
+        return Jdbc.avecConnexion("MembreDAO.getPageMembres", "de la récupération d'une page de membres", new ArrayList<>(), conn ->
+            Jdbc.liste(conn, sql, pstmt -> {
+                int i = 1;
+                pstmt.setInt(i++, depuisId != null ? depuisId : 0);
+                if (filtrer) {
+                    pstmt.setString(i++, "%" + filtre + "%");
+                    pstmt.setString(i++, "%" + filtre + "%");
+                    pstmt.setString(i++, "%" + filtre + "%");
+                }
+                pstmt.setInt(i++, taille);
+                pstmt.setInt(i, decalage);
+            }, this::lireMembre));
     }
     
     /**
-     * Méthode utilitaire pour extraire un objet Membre depuis un ResultSet.
+     * Construit un Membre depuis une ligne de SELECT (colonnes lues par position).
      * 
-     * @param rs Le ResultSet contenant les données du membre
+     * @param rs Le ResultSet positionné sur la ligne
      * @return Un objet Membre
      * @throws SQLException en cas d'erreur d'accès aux données
      */
-    private Membre extractMembreFromResultSet(ResultSet rs) throws SQLException {
+    private Membre lireMembre(ResultSet rs) throws SQLException {
         return new Membre(
-            rs.getInt("id"),
-            rs.getString("nom"),
-            rs.getString("prenom"),
-            rs.getString("email"),
-            rs.getDate("adhesion_date")
+            rs.getInt(1),
+            rs.getString(2),
+            rs.getString(3),
+            rs.getString(4),
+            rs.getDate(5).toLocalDate()
         );
     }
-}
\ No newline at end of file
+    
+    /**
+     * Copie un membre: les instances en cache ne sont jamais exposées.
+     */
+    private static Membre copier(Membre membre) {
+        return new Membre(membre.getId(), membre.getNom(), membre.getPrenom(),
+                          membre.getEmail(), membre.getAdhesionDate());
+    }
+}
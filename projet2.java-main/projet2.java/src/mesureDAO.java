@@ -0,0 +1,220 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.util.Executeurs;
+import com.bibliotheque.util.Histogramme;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Compteurs et histogrammes de latence d'une méthode DAO: temps d'obtention
+ * d'une connexion du pool (acquisition) séparé du temps passé en base
+ * (exécution). Alimentés par Jdbc, pour les appels qui vont jusqu'à la base
+ * (les réponses servies par un cache local ne sont pas comptées).
+ *
+ * Chaque mesure est publiée en JMX sous
+ * com.bibliotheque:type=DAO,name=LivreDAO.getLivreById, et un résumé
+ * périodique peut être écrit sur la sortie d'erreur (demarrerJournal).
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class MesureDAO implements MesureDAOMBean {
+    // Toutes les mesures, par nom de méthode ("LivreDAO.getLivreById")
+    private static final Map<String, MesureDAO> mesures = new ConcurrentHashMap<>();
+
+    private static ScheduledExecutorService journal;
+
+    private final String methode;
+    private final Histogramme execution = new Histogramme();
+    private final Histogramme acquisition = new Histogramme();
+    private final LongAdder erreurs = new LongAdder();
+
+    // Nombre d'appels au dernier résumé périodique
+    private long appelsResumes;
+
+    private MesureDAO(String methode) {
+        this.methode = methode;
+    }
+
+    /**
+     * Retourne la mesure d'une méthode, créée (et publiée en JMX) au premier appel.
+     *
+     * @param methode Nom de la méthode, par exemple "LivreDAO.getLivreById"
+     */
+    public static MesureDAO pour(String methode) {
+        MesureDAO mesure = mesures.get(methode);
+        return mesure != null ? mesure : mesures.computeIfAbsent(methode, MesureDAO::publier);
+    }
+
+    private static MesureDAO publier(String methode) {
+        MesureDAO mesure = new MesureDAO(methode);
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(mesure,
+                    new ObjectName("com.bibliotheque:type=DAO,name=" + methode));
+        } catch (JMException e) {
+            // La mesure reste disponible pour le résumé périodique
+            System.err.println("⚠️  Mesure " + methode + " non publiée en JMX: " + e.getMessage());
+        }
+        return mesure;
+    }
+
+    /**
+     * @return Toutes les mesures, triées par nom de méthode
+     */
+    public static List<MesureDAO> toutes() {
+        List<MesureDAO> liste = new ArrayList<>(mesures.values());
+        liste.sort((a, b) -> a.methode.compareTo(b.methode));
+        return liste;
+    }
+
+    /**
+     * Écrit un résumé des méthodes appelées sur la sortie d'erreur, périodiquement.
+     *
+     * @param periodeSecondes Intervalle entre deux résumés
+     */
+    public static synchronized void demarrerJournal(long periodeSecondes) {
+        if (journal != null) {
+            return;
+        }
+        journal = Executors.newSingleThreadScheduledExecutor(Executeurs.fabriqueDemons("mesures-dao"));
+        journal.scheduleAtFixedRate(() -> System.err.print(resume()),
+                                    periodeSecondes, periodeSecondes, TimeUnit.SECONDS);
+    }
+
+    public static synchronized void arreterJournal() {
+        if (journal != null) {
+            journal.shutdownNow();
+            journal = null;
+        }
+    }
+
+    /**
+     * Résumé des méthodes appelées depuis le résumé précédent (latences
+     * cumulées depuis le démarrage ou la dernière réinitialisation).
+     */
+    public static String resume() {
+        StringBuilder sb = new StringBuilder("📊 Méthodes DAO (appels +nouveaux, erreurs, exécution p50/p99/max, acquisition p99, en ms)\n");
+        for (MesureDAO m : toutes()) {
+            long appels = m.getAppels();
+            long nouveaux;
+            synchronized (m) {
+                nouveaux = appels - m.appelsResumes;
+                m.appelsResumes = appels;
+            }
+            if (nouveaux <= 0) {
+                continue;
+            }
+            sb.append(String.format("  %-40s %9d +%-7d %5d  %8.2f %8.2f %8.2f  %8.2f%n",
+                    m.methode, appels, nouveaux, m.getErreurs(),
+                    m.getExecutionP50Ms(), m.getExecutionP99Ms(), m.getExecutionMaxMs(), m.getAcquisitionP99Ms()));
+        }
+        return sb.toString();
+    }
+
+    public String getMethode() {
+        return methode;
+    }
+
+    /**
+     * @return Les durées d'exécution des appels réussis (ns)
+     */
+    public Histogramme getExecution() {
+        return execution;
+    }
+
+    /**
+     * @return Les attentes d'une connexion du pool (ns)
+     */
+    public Histogramme getAcquisition() {
+        return acquisition;
+    }
+
+    /**
+     * Enregistre un appel réussi.
+     *
+     * @param acquisitionNs Temps d'obtention de la connexion (négatif: connexion fournie par l'appelant)
+     * @param executionNs Temps passé à exécuter le travail
+     */
+    void enregistrer(long acquisitionNs, long executionNs) {
+        if (acquisitionNs >= 0) {
+            acquisition.enregistrer(acquisitionNs);
+        }
+        execution.enregistrer(executionNs);
+    }
+
+    /**
+     * Enregistre un appel terminé par une erreur.
+     */
+    void erreur() {
+        erreurs.increment();
+    }
+
+    @Override
+    public long getAppels() {
+        return execution.nombre() + erreurs.sum();
+    }
+
+    @Override
+    public long getErreurs() {
+        return erreurs.sum();
+    }
+
+    @Override
+    public double getExecutionMoyenneMs() {
+        return execution.moyenne() / 1e6;
+    }
+
+    @Override
+    public double getExecutionP50Ms() {
+        return execution.centile(0.50) / 1e6;
+    }
+
+    @Override
+    public double getExecutionP99Ms() {
+        return execution.centile(0.99) / 1e6;
+    }
+
+    @Override
+    public double getExecutionP999Ms() {
+        return execution.centile(0.999) / 1e6;
+    }
+
+    @Override
+    public double getExecutionMaxMs() {
+        return execution.max() / 1e6;
+    }
+
+    @Override
+    public double getAcquisitionMoyenneMs() {
+        return acquisition.moyenne() / 1e6;
+    }
+
+    @Override
+    public double getAcquisitionP99Ms() {
+        return acquisition.centile(0.99) / 1e6;
+    }
+
+    @Override
+    public double getAcquisitionMaxMs() {
+        return acquisition.max() / 1e6;
+    }
+
+    @Override
+    public void reinitialiser() {
+        execution.reinitialiser();
+        acquisition.reinitialiser();
+        erreurs.reset();
+        synchronized (this) {
+            appelsResumes = 0;
+        }
+    }
+}
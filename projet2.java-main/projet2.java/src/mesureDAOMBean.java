@@ -0,0 +1,36 @@
+package com.bibliotheque.dao;
+
+/**
+ * Interface JMX d'une MesureDAO (attributs en lecture seule, en millisecondes).
+ * Visible dans JConsole ou VisualVM sous com.bibliotheque:type=DAO.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public interface MesureDAOMBean {
+
+    long getAppels();
+
+    long getErreurs();
+
+    double getExecutionMoyenneMs();
+
+    double getExecutionP50Ms();
+
+    double getExecutionP99Ms();
+
+    double getExecutionP999Ms();
+
+    double getExecutionMaxMs();
+
+    double getAcquisitionMoyenneMs();
+
+    double getAcquisitionP99Ms();
+
+    double getAcquisitionMaxMs();
+
+    /**
+     * Remet les compteurs et les histogrammes à zéro.
+     */
+    void reinitialiser();
+}
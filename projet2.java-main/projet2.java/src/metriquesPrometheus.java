@@ -0,0 +1,261 @@
+package com.bibliotheque;
+
+import com.bibliotheque.dao.CacheEntites;
+import com.bibliotheque.dao.CacheRequetes;
+import com.bibliotheque.dao.EcheancierEmprunts;
+import com.bibliotheque.dao.MesureDAO;
+import com.bibliotheque.util.DatabaseConnection;
+import com.bibliotheque.util.Executeurs;
+import com.bibliotheque.util.Histogramme;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.math.BigDecimal;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Point d'accès /metrics au format texte Prometheus: latences des méthodes
+ * DAO (MesureDAO), pool de connexions, taux de succès des caches locaux,
+ * tas et ramasse-miettes de la JVM, et compteurs métier (emprunts en cours,
+ * en retard, pénalités à percevoir) tirés de EcheancierEmprunts.
+ *
+ * Serveur distinct de l'API (port propre, un seul thread de traitement):
+ * il peut accompagner n'importe quel mode de l'application.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class MetriquesPrometheus {
+    // Bornes des seaux des histogrammes de latence, en secondes
+    private static final double[] SEAUX = {
+        0.0005, 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10
+    };
+
+    private final HttpServer serveur;
+    private final ExecutorService executeur;
+
+    public MetriquesPrometheus(int port) throws IOException {
+        serveur = HttpServer.create(new InetSocketAddress(port), 0);
+        serveur.createContext("/metrics", this::repondre);
+
+        executeur = Executors.newSingleThreadExecutor(Executeurs.fabriqueDemons("metriques"));
+        serveur.setExecutor(executeur);
+    }
+
+    public void demarrer() {
+        serveur.start();
+        System.out.println("✓ Métriques Prometheus sur http://localhost:" + serveur.getAddress().getPort() + "/metrics");
+    }
+
+    public void arreter() {
+        serveur.stop(0);
+        executeur.shutdown();
+    }
+
+    private void repondre(HttpExchange echange) throws IOException {
+        try {
+            byte[] corps = ecrire().getBytes(StandardCharsets.UTF_8);
+            echange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+            echange.sendResponseHeaders(200, corps.length);
+            echange.getResponseBody().write(corps);
+        } catch (RuntimeException e) {
+            System.err.println("✗ Erreur lors de l'écriture des métriques: " + e.getMessage());
+            echange.sendResponseHeaders(500, -1);
+        } finally {
+            echange.close();
+        }
+    }
+
+    /**
+     * @return Toutes les métriques, au format d'exposition texte de Prometheus
+     */
+    public static String ecrire() {
+        Sortie s = new Sortie();
+        ecrireDAO(s);
+        ecrirePool(s);
+        ecrireCaches(s);
+        ecrireJvm(s);
+        ecrireEmprunts(s);
+        return s.toString();
+    }
+
+    // ═══════════ DAO ═══════════
+
+    private static void ecrireDAO(Sortie s) {
+        s.entete("bibliotheque_dao_execution_secondes", "histogram",
+                 "Durée d'exécution des appels DAO réussis");
+        for (MesureDAO m : MesureDAO.toutes()) {
+            s.histogramme("bibliotheque_dao_execution_secondes", "methode", m.getMethode(), m.getExecution());
+        }
+        s.entete("bibliotheque_dao_acquisition_secondes", "histogram",
+                 "Attente d'une connexion du pool avant un appel DAO");
+        for (MesureDAO m : MesureDAO.toutes()) {
+            s.histogramme("bibliotheque_dao_acquisition_secondes", "methode", m.getMethode(), m.getAcquisition());
+        }
+        s.entete("bibliotheque_dao_erreurs_total", "counter", "Appels DAO terminés par une erreur");
+        for (MesureDAO m : MesureDAO.toutes()) {
+            s.valeur("bibliotheque_dao_erreurs_total", "methode", m.getMethode(), m.getErreurs());
+        }
+    }
+
+    // ═══════════ POOL ═══════════
+
+    private static void ecrirePool(Sortie s) {
+        s.entete("bibliotheque_pool_connexions", "gauge", "Connexions du pool par état");
+        s.valeur("bibliotheque_pool_connexions", "etat", "actives", DatabaseConnection.getConnexionsActives());
+        s.valeur("bibliotheque_pool_connexions", "etat", "libres", DatabaseConnection.getConnexionsLibres());
+        s.entete("bibliotheque_pool_taille", "gauge", "Nombre maximal de connexions prêtées");
+        s.valeur("bibliotheque_pool_taille", null, null, DatabaseConnection.getTaillePool());
+        s.entete("bibliotheque_pool_attentes", "gauge", "Threads en attente d'une connexion");
+        s.valeur("bibliotheque_pool_attentes", null, null, DatabaseConnection.getAttentesEnCours());
+    }
+
+    // ═══════════ CACHES ═══════════
+
+    private static void ecrireCaches(Sortie s) {
+        s.entete("bibliotheque_cache_actif", "gauge", "1 si l'écouteur de notifications est connecté");
+        s.valeur("bibliotheque_cache_actif", null, null, CacheEntites.isActif() ? 1 : 0);
+
+        s.entete("bibliotheque_cache_succes_total", "counter", "Lectures servies depuis un cache local");
+        for (CacheEntites<?> c : CacheEntites.tous()) {
+            s.valeur("bibliotheque_cache_succes_total", "cache", c.getNom(), c.getSucces());
+        }
+        for (CacheRequetes<?> c : CacheRequetes.tous()) {
+            s.valeur("bibliotheque_cache_succes_total", "cache", c.getNom(), c.getSucces());
+        }
+        s.entete("bibliotheque_cache_echecs_total", "counter", "Lectures absentes d'un cache local (allées en base)");
+        for (CacheEntites<?> c : CacheEntites.tous()) {
+            s.valeur("bibliotheque_cache_echecs_total", "cache", c.getNom(), c.getEchecs());
+        }
+        for (CacheRequetes<?> c : CacheRequetes.tous()) {
+            s.valeur("bibliotheque_cache_echecs_total", "cache", c.getNom(), c.getEchecs());
+        }
+        s.entete("bibliotheque_cache_entrees", "gauge", "Entrées présentes dans un cache local");
+        for (CacheEntites<?> c : CacheEntites.tous()) {
+            s.valeur("bibliotheque_cache_entrees", "cache", c.getNom(), c.getTaille());
+        }
+        for (CacheRequetes<?> c : CacheRequetes.tous()) {
+            s.valeur("bibliotheque_cache_entrees", "cache", c.getNom(), c.getTaille());
+        }
+    }
+
+    // ═══════════ JVM ═══════════
+
+    private static void ecrireJvm(Sortie s) {
+        MemoryUsage tas = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+        s.entete("jvm_tas_octets", "gauge", "Tas Java utilisé, réservé et maximal");
+        s.valeur("jvm_tas_octets", "etat", "utilise", tas.getUsed());
+        s.valeur("jvm_tas_octets", "etat", "reserve", tas.getCommitted());
+        s.valeur("jvm_tas_octets", "etat", "max", tas.getMax());
+
+        s.entete("jvm_gc_collections_total", "counter", "Collections par ramasse-miettes");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            s.valeur("jvm_gc_collections_total", "gc", gc.getName(), gc.getCollectionCount());
+        }
+        s.entete("jvm_gc_secondes_total", "counter", "Temps cumulé des collections par ramasse-miettes");
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            s.valeur("jvm_gc_secondes_total", "gc", gc.getName(), gc.getCollectionTime() / 1e3);
+        }
+
+        s.entete("jvm_threads", "gauge", "Threads de plateforme vivants");
+        s.valeur("jvm_threads", null, null, ManagementFactory.getThreadMXBean().getThreadCount());
+    }
+
+    // ═══════════ EMPRUNTS ═══════════
+
+    private static void ecrireEmprunts(Sortie s) {
+        EcheancierEmprunts.Etat etat;
+        try {
+            etat = EcheancierEmprunts.lire();
+        } catch (RuntimeException e) {
+            etat = null; // Pool saturé ou base arrêtée
+        }
+        if (etat == null) {
+            // Base injoignable: les jauges métier sont omises plutôt que fausses
+            return;
+        }
+        s.entete("bibliotheque_emprunts_en_cours", "gauge", "Emprunts non retournés");
+        s.valeur("bibliotheque_emprunts_en_cours", null, null, etat.getEnCours());
+        s.entete("bibliotheque_emprunts_en_retard", "gauge", "Emprunts non retournés dont l'échéance est passée");
+        s.valeur("bibliotheque_emprunts_en_retard", null, null, etat.getEnRetard());
+        s.entete("bibliotheque_penalites_a_percevoir", "gauge",
+                 "Pénalités des retards en cours en F CFA, s'ils étaient rendus aujourd'hui");
+        s.valeur("bibliotheque_penalites_a_percevoir", null, null, etat.getPenalites());
+    }
+
+    /**
+     * Texte d'exposition en cours d'écriture.
+     */
+    private static class Sortie {
+        private final StringBuilder sb = new StringBuilder(16 * 1024);
+
+        void entete(String nom, String type, String aide) {
+            sb.append("# HELP ").append(nom).append(' ').append(aide).append('\n');
+            sb.append("# TYPE ").append(nom).append(' ').append(type).append('\n');
+        }
+
+        void valeur(String nom, String etiquette, String valeurEtiquette, double valeur) {
+            sb.append(nom);
+            if (etiquette != null) {
+                sb.append('{').append(etiquette).append("=\"");
+                echapper(valeurEtiquette);
+                sb.append("\"}");
+            }
+            sb.append(' ');
+            nombre(valeur);
+            sb.append('\n');
+        }
+
+        /**
+         * Seaux cumulés (à la largeur de classe de l'Histogramme près), somme et nombre.
+         */
+        void histogramme(String nom, String etiquette, String valeurEtiquette, Histogramme h) {
+            for (double borne : SEAUX) {
+                seau(nom, etiquette, valeurEtiquette, BigDecimal.valueOf(borne).toPlainString(), h.nombreJusqua((long) (borne * 1e9)));
+            }
+            long nombre = h.nombre();
+            seau(nom, etiquette, valeurEtiquette, "+Inf", nombre);
+            valeur(nom + "_sum", etiquette, valeurEtiquette, h.somme() / 1e9);
+            valeur(nom + "_count", etiquette, valeurEtiquette, nombre);
+        }
+
+        private void seau(String nom, String etiquette, String valeurEtiquette, String borne, long nombre) {
+            sb.append(nom).append("_bucket{").append(etiquette).append("=\"");
+            echapper(valeurEtiquette);
+            sb.append("\",le=\"").append(borne).append("\"} ").append(nombre).append('\n');
+        }
+
+        private void echapper(String texte) {
+            for (int i = 0; i < texte.length(); i++) {
+                char c = texte.charAt(i);
+                if (c == '\\' || c == '"') {
+                    sb.append('\\').append(c);
+                } else if (c == '\n') {
+                    sb.append("\\n");
+                } else {
+                    sb.append(c);
+                }
+            }
+        }
+
+        private void nombre(double valeur) {
+            if (valeur == (long) valeur) {
+                sb.append((long) valeur);
+            } else {
+                sb.append(valeur);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.bibliotheque;
+
+import com.bibliotheque.util.AffichageRapport;
+import com.bibliotheque.util.EntiersParId;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.ToIntFunction;
+
+/**
+ * Parcours page par page d'une longue liste dans la console.
+ * Seule la page affichée est lue en base; la page suivante est préchargée
+ * en arrière-plan pendant que l'opérateur lit la page courante.
+ *
+ * Commandes: Entrée (page suivante), p (précédente), a N (aller à la page N),
+ * f texte (filtrer, f seul pour retirer le filtre), q (quitter).
+ *
+ * @param <T> Type des éléments affichés
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class Pagineur<T> {
+    // Nombre d'éléments par page par défaut
+    public static final int TAILLE_PAGE_DEFAUT = 20;
+
+    /**
+     * Lecture d'une page. La clé est celle du premier élément de la page
+     * (incluse), ou null pour commencer au début en sautant "decalage" éléments.
+     */
+    @FunctionalInterface
+    public interface Source<T> {
+        CompletableFuture<List<T>> page(String filtre, Integer depuisCle, int decalage, int taille);
+    }
+
+    /**
+     * Affichage des éléments d'une page dans le rapport.
+     */
+    @FunctionalInterface
+    public interface Rendu<T> {
+        void afficher(AffichageRapport rapport, List<T> elements);
+    }
+
+    private final String titre;
+    private final Source<T> source;
+    private final ToIntFunction<T> cle;
+    private final Rendu<T> rendu;
+    private final Scanner scanner;
+    private final int taille;
+
+    // Clé du premier élément de chaque page déjà rencontrée
+    private final EntiersParId debuts = new EntiersParId();
+
+    private String filtre;
+    private int page;
+    private List<T> elements;
+    private boolean suivanteExiste;
+    private CompletableFuture<List<T>> suivante;
+
+    /**
+     * @param titre Titre affiché au-dessus de chaque page
+     * @param source Lecture d'une page (en général une méthode de DAOAsynchrone)
+     * @param cle Clé de pagination d'un élément (son ID)
+     * @param rendu Affichage des éléments d'une page
+     * @param scanner Lecture des commandes de l'opérateur
+     * @param taille Nombre d'éléments par page
+     */
+    public Pagineur(String titre, Source<T> source, ToIntFunction<T> cle, Rendu<T> rendu,
+                    Scanner scanner, int taille) {
+        this.titre = titre;
+        this.source = source;
+        this.cle = cle;
+        this.rendu = rendu;
+        this.scanner = scanner;
+        this.taille = taille;
+    }
+
+    /**
+     * Affiche la première page puis traite les commandes jusqu'à "q".
+     *
+     * @return false si la liste est vide (rien n'a été affiché)
+     */
+    public boolean parcourir() {
+        if (!charger(0)) {
+            return false;
+        }
+
+        while (true) {
+            afficherPage();
+            System.out.print("➤ [Entrée] suivante · p précédente · a N aller à la page N · f texte filtrer · q quitter: ");
+            if (!scanner.hasNextLine()) {
+                return true;
+            }
+            String commande = scanner.nextLine().trim();
+
+            if (commande.isEmpty() || commande.equals("s")) {
+                if (!suivanteExiste || !charger(page + 1)) {
+                    System.out.println("ℹ️  Dernière page atteinte.");
+                }
+            } else if (commande.equals("p")) {
+                if (page == 0) {
+                    System.out.println("ℹ️  Première page atteinte.");
+                } else {
+                    charger(page - 1);
+                }
+            } else if (commande.startsWith("a")) {
+                try {
+                    int numero = Integer.parseInt(commande.substring(1).trim());
+                    if (numero < 1 || !charger(numero - 1)) {
+                        System.out.println("❌ La page " + numero + " n'existe pas.");
+                    }
+                } catch (NumberFormatException e) {
+                    System.out.println("❌ Numéro de page invalide.");
+                }
+            } else if (commande.startsWith("f")) {
+                String ancienFiltre = filtre;
+                filtre = commande.substring(1).trim();
+                debuts.vider();
+                if (!charger(0)) {
+                    System.out.println("❌ Aucun élément ne correspond à \"" + filtre + "\".");
+                    filtre = ancienFiltre;
+                    debuts.vider();
+                    charger(0);
+                }
+            } else if (commande.equals("q")) {
+                annulerSuivante();
+                return true;
+            } else {
+                System.out.println("❌ Commande inconnue.");
+            }
+        }
+    }
+
+    /**
+     * Charge une page et en fait la page courante.
+     *
+     * @param numero Numéro de la page (à partir de 0)
+     * @return false si la page est vide (la page courante ne change pas)
+     */
+    private boolean charger(int numero) {
+        CompletableFuture<List<T>> lecture;
+        if (numero == page + 1 && suivante != null) {
+            lecture = suivante;
+            suivante = null;
+        } else if (debuts.contient(numero)) {
+            lecture = source.page(filtre, debuts.get(numero, 0), 0, taille + 1);
+        } else {
+            lecture = source.page(filtre, null, numero * taille, taille + 1);
+        }
+
+        List<T> resultat;
+        try {
+            resultat = lecture.join();
+        } catch (CompletionException e) {
+            System.err.println("✗ Erreur lors du chargement de la page: " + e.getCause().getMessage());
+            return false;
+        }
+        if (resultat.isEmpty()) {
+            return false;
+        }
+
+        annulerSuivante();
+        page = numero;
+        debuts.put(numero, cle.applyAsInt(resultat.get(0)));
+
+        // L'élément en trop est le premier de la page suivante
+        suivanteExiste = resultat.size() > taille;
+        if (suivanteExiste) {
+            debuts.put(numero + 1, cle.applyAsInt(resultat.get(taille)));
+            elements = resultat.subList(0, taille);
+            suivante = source.page(filtre, debuts.get(numero + 1, 0), 0, taille + 1);
+        } else {
+            elements = resultat;
+        }
+        return true;
+    }
+
+    private void annulerSuivante() {
+        if (suivante != null) {
+            suivante.cancel(false);
+            suivante = null;
+        }
+    }
+
+    private void afficherPage() {
+        AffichageRapport rapport = new AffichageRapport(System.out);
+        rapport.ligne("")
+               .ligne("═══════════ " + titre + " · page " + (page + 1)
+                       + (suivanteExiste ? "" : " (dernière)")
+                       + (filtre != null && !filtre.isEmpty() ? " · filtre: " + filtre : "")
+                       + " ═══════════");
+        rendu.afficher(rapport, elements);
+        rapport.terminer();
+    }
+}
@@ -0,0 +1,200 @@
+package com.bibliotheque.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Plan d'exécution d'un SELECT, obtenu en le rejouant sous
+ * EXPLAIN (ANALYZE, BUFFERS) sur la même connexion et avec les mêmes
+ * paramètres: index utilisés (dont les parcours d'index seul), tables
+ * parcourues séquentiellement, lignes retournées et temps d'exécution.
+ *
+ * Utilisé par le journal des requêtes lentes et par VerificationPlans, qui
+ * capture les plans de tous les SELECT d'un appel DAO (capturer).
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+final class PlanRequete {
+    // "Index Scan using idx_...", "Index Only Scan Backward using ...", "Bitmap Index Scan on ..."
+    private static final Pattern INDEX = Pattern.compile("Index (Only )?Scan (?:Backward )?(?:using|on) (\\w+)");
+    private static final Pattern SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+    // Nœud racine: "(actual time=0.012..0.013 rows=1 loops=1)"
+    private static final Pattern LIGNES = Pattern.compile("actual time=\\S+ rows=(\\d+)");
+    private static final Pattern TEMPS = Pattern.compile("Execution Time: ([\\d.]+) ms");
+
+    // Vrai pendant une capture: Jdbc consulte ce drapeau à chaque requête
+    private static volatile boolean capture = false;
+    private static final ThreadLocal<List<PlanRequete>> captures = new ThreadLocal<>();
+
+    private final String sql;
+    private final List<String> lignes;
+    private final Set<String> index = new TreeSet<>();
+    private final Set<String> indexSeuls = new TreeSet<>();
+    private final Set<String> parcoursSequentiels = new TreeSet<>();
+    private long lignesRetournees = -1;
+    private double tempsExecutionMs = -1;
+
+    private PlanRequete(String sql, List<String> lignes) {
+        this.sql = sql;
+        this.lignes = lignes;
+        for (String ligne : lignes) {
+            Matcher m = INDEX.matcher(ligne);
+            if (m.find()) {
+                index.add(m.group(2));
+                if (m.group(1) != null) {
+                    indexSeuls.add(m.group(2));
+                }
+            }
+            m = SEQ_SCAN.matcher(ligne);
+            if (m.find()) {
+                parcoursSequentiels.add(m.group(1));
+            }
+            m = LIGNES.matcher(ligne);
+            if (lignesRetournees < 0 && m.find()) {
+                lignesRetournees = Long.parseLong(m.group(1));
+            }
+            m = TEMPS.matcher(ligne);
+            if (m.find()) {
+                tempsExecutionMs = Double.parseDouble(m.group(1));
+            }
+        }
+    }
+
+    /**
+     * Rejoue le SELECT sous EXPLAIN (ANALYZE, BUFFERS). Dans une transaction,
+     * un point de sauvegarde protège la transaction d'un échec de l'EXPLAIN.
+     * Le SELECT est exécuté une seconde fois, cache chaud: les lectures
+     * disque du plan sont sous-estimées.
+     *
+     * @param conn La connexion de la requête
+     * @param sql Le texte SQL
+     * @param parametres Les paramètres de la requête
+     * @return Le plan
+     * @throws SQLException en cas d'erreur d'accès aux données
+     */
+    static PlanRequete expliquer(Connection conn, String sql, Jdbc.Parametres parametres) throws SQLException {
+        Savepoint point = conn.getAutoCommit() ? null : conn.setSavepoint();
+        try {
+            List<String> lignes = new ArrayList<>();
+            try (PreparedStatement explain = conn.prepareStatement("EXPLAIN (ANALYZE, BUFFERS) " + sql)) {
+                parametres.definir(explain);
+                try (ResultSet rs = explain.executeQuery()) {
+                    while (rs.next()) {
+                        lignes.add(rs.getString(1));
+                    }
+                }
+            }
+            if (point != null) {
+                conn.releaseSavepoint(point);
+            }
+            return new PlanRequete(sql, lignes);
+
+        } catch (SQLException e) {
+            if (point != null) {
+                try {
+                    conn.rollback(point);
+                } catch (SQLException ex) {
+                    // La transaction de l'appelant échouera d'elle-même
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Exécute un appel DAO en capturant le plan de chacun de ses SELECT
+     * (ceux du thread courant seulement).
+     *
+     * @param appel L'appel à exécuter
+     * @return Les plans, dans l'ordre des requêtes
+     */
+    static List<PlanRequete> capturer(Runnable appel) {
+        List<PlanRequete> plans = new ArrayList<>();
+        captures.set(plans);
+        capture = true;
+        try {
+            appel.run();
+        } finally {
+            capture = false;
+            captures.remove();
+        }
+        return plans;
+    }
+
+    static boolean isCapture() {
+        return capture;
+    }
+
+    /**
+     * Ajoute le plan d'une requête à la capture du thread courant, s'il y en a une.
+     */
+    static void ajouter(Connection conn, String sql, Jdbc.Parametres parametres) {
+        List<PlanRequete> plans = captures.get();
+        if (plans == null || !estSelect(sql)) {
+            return;
+        }
+        try {
+            plans.add(expliquer(conn, sql, parametres));
+        } catch (SQLException e) {
+            plans.add(new PlanRequete(sql, List.of("EXPLAIN impossible: " + e.getMessage())));
+        }
+    }
+
+    static boolean estSelect(String sql) {
+        return sql.stripLeading().regionMatches(true, 0, "SELECT", 0, 6);
+    }
+
+    String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return Le texte du plan, une ligne par nœud ou détail
+     */
+    List<String> getLignes() {
+        return Collections.unmodifiableList(lignes);
+    }
+
+    /**
+     * @return Les index parcourus (Index Scan, Index Only Scan, Bitmap Index Scan)
+     */
+    Set<String> getIndex() {
+        return index;
+    }
+
+    /**
+     * @return Les index parcourus sans lecture de la table (Index Only Scan)
+     */
+    Set<String> getIndexSeuls() {
+        return indexSeuls;
+    }
+
+    Set<String> getParcoursSequentiels() {
+        return parcoursSequentiels;
+    }
+
+    /**
+     * @return Les lignes retournées par le nœud racine, -1 si inconnu
+     */
+    long getLignesRetournees() {
+        return lignesRetournees;
+    }
+
+    /**
+     * @return Le temps d'exécution mesuré par le serveur (ms), -1 si inconnu
+     */
+    double getTempsExecutionMs() {
+        return tempsExecutionMs;
+    }
+}
@@ -0,0 +1,95 @@
+package com.bibliotheque.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Journal des requêtes lentes de Jdbc: au-delà de bibliotheque.jdbc.lent
+ * (ms, 0: désactivé), la requête est écrite sur la sortie d'erreur avec ses
+ * paramètres (emails masqués), son nombre de lignes et sa durée.
+ *
+ * Une fraction des SELECT lents (bibliotheque.jdbc.lent.explain, entre 0 et 1)
+ * est rejouée sous EXPLAIN (ANALYZE, BUFFERS), sur la même connexion et
+ * avec les mêmes paramètres (PlanRequete): le plan est journalisé avec les
+ * index idx_* utilisés et les parcours séquentiels.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+final class RequetesLentes {
+    // Seuil de journalisation, en ns (0: jamais)
+    private static final long SEUIL_NS = Long.getLong("bibliotheque.jdbc.lent", 0L) * 1_000_000;
+
+    // Fraction des SELECT lents dont le plan est capturé
+    private static final double TAUX_EXPLAIN =
+        Double.parseDouble(System.getProperty("bibliotheque.jdbc.lent.explain", "0"));
+
+    private static final Pattern EMAIL = Pattern.compile("[A-Za-z0-9._%+-]+@([A-Za-z0-9.-]+)");
+
+    private RequetesLentes() {
+    }
+
+    static boolean estLente(long dureeNs) {
+        return SEUIL_NS > 0 && dureeNs >= SEUIL_NS;
+    }
+
+    /**
+     * Journalise une requête lente, à appeler avant la fermeture de pstmt.
+     *
+     * @param conn La connexion de la requête (pour EXPLAIN)
+     * @param pstmt La requête exécutée, paramètres encore liés
+     * @param sql Le texte SQL
+     * @param parametres Les paramètres, réappliqués pour EXPLAIN (null: pas d'EXPLAIN)
+     * @param lignes Lignes lues, modifiées ou insérées
+     * @param dureeNs Durée d'exécution
+     */
+    static void signaler(Connection conn, PreparedStatement pstmt, String sql, Jdbc.Parametres parametres,
+                         long lignes, long dureeNs) {
+        StringBuilder sb = new StringBuilder(256);
+        sb.append("⚠️  Requête lente (").append(dureeNs / 1_000_000).append(" ms, ")
+          .append(lignes).append(" lignes): ").append(masquer(avecParametres(pstmt, sql)));
+
+        if (parametres != null && PlanRequete.estSelect(sql) && ThreadLocalRandom.current().nextDouble() < TAUX_EXPLAIN) {
+            expliquer(conn, sql, parametres, sb);
+        }
+        System.err.println(sb);
+    }
+
+    /**
+     * Le pilote PostgreSQL restitue la requête avec ses paramètres liés
+     * (toString); les autres pilotes, le texte SQL seul.
+     */
+    private static String avecParametres(PreparedStatement pstmt, String sql) {
+        String texte = String.valueOf(pstmt);
+        return texte.regionMatches(true, 0, sql.stripLeading(), 0, 6) ? texte : sql;
+    }
+
+    // jean.dupont@email.com -> ***@email.com
+    static String masquer(String texte) {
+        return EMAIL.matcher(texte).replaceAll("***@$1");
+    }
+
+    /**
+     * Ajoute au message le plan du SELECT (PlanRequete), ses index et ses
+     * parcours séquentiels.
+     */
+    private static void expliquer(Connection conn, String sql, Jdbc.Parametres parametres, StringBuilder sb) {
+        try {
+            PlanRequete plan = PlanRequete.expliquer(conn, sql, parametres);
+            sb.append("\n    Plan:");
+            for (String ligne : plan.getLignes()) {
+                sb.append("\n      ").append(masquer(ligne));
+            }
+            sb.append("\n    Index utilisés: ")
+              .append(plan.getIndex().isEmpty() ? "aucun" : String.join(", ", plan.getIndex()));
+            if (!plan.getParcoursSequentiels().isEmpty()) {
+                sb.append("\n    Parcours séquentiels: ").append(String.join(", ", plan.getParcoursSequentiels()));
+            }
+        } catch (SQLException e) {
+            sb.append("\n    EXPLAIN impossible: ").append(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,584 @@
+package com.bibliotheque;
+
+import com.bibliotheque.dao.*;
+import com.bibliotheque.model.*;
+import com.bibliotheque.util.Dates;
+import com.bibliotheque.util.Executeurs;
+import com.bibliotheque.util.Json;
+import com.bibliotheque.util.Traces;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.io.ByteArrayOutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Serveur HTTP/JSON exposant les opérations sur les livres, membres et emprunts.
+ * Basé sur le serveur HTTP intégré au JDK; chaque requête est traitée sur son
+ * propre thread virtuel (Java 21+), sinon par un pool borné de threads
+ * (bibliotheque.http.threads). La concurrence réelle en base est bornée par
+ * le pool de DatabaseConnection (bibliotheque.pool.taille).
+ *
+ * Les paramètres sont passés en query string ou en corps
+ * application/x-www-form-urlencoded. Les listes (livres, membres,
+ * historique, emprunts en cours et en retard) sont servies par pages
+ * (?depuis=ID&taille=N, plus echeance=AAAA-MM-JJ pour les emprunts en
+ * cours), la page suivante étant indiquée par l'en-tête Link. Une erreur
+ * d'accès aux données donne 503.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class ServeurHttp {
+    // Port par défaut du mode serveur
+    public static final int PORT_DEFAUT = 8080;
+
+    // File d'attente des connexions TCP non encore acceptées
+    private static final int BACKLOG = 256;
+
+    // Requêtes traitées simultanément sans threads virtuels (les autres attendent)
+    private static final int THREADS_MAX = Integer.getInteger("bibliotheque.http.threads", 64);
+
+    // Pages des listes (GET /livres, /membres, /emprunts...)
+    private static final int TAILLE_PAGE = 100;
+    private static final int TAILLE_PAGE_MAX = 1000;
+
+    private final LivreDAO livreDAO = new LivreDAO();
+    private final MembreDAO membreDAO = new MembreDAO();
+    private final EmpruntDAO empruntDAO = new EmpruntDAO();
+
+    private final HttpServer serveur;
+    private final ExecutorService executeur;
+
+    public ServeurHttp(int port) throws IOException {
+        serveur = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        serveur.createContext("/livres", echange -> gerer(echange, this::traiterLivres));
+        serveur.createContext("/membres", echange -> gerer(echange, this::traiterMembres));
+        serveur.createContext("/emprunts", echange -> gerer(echange, this::traiterEmprunts));
+
+        executeur = Executeurs.parTache("http", THREADS_MAX);
+        serveur.setExecutor(executeur);
+    }
+
+    public void demarrer() {
+        serveur.start();
+        System.out.println("✓ Serveur HTTP démarré sur le port " + serveur.getAddress().getPort());
+    }
+
+    public void arreter() {
+        serveur.stop(1);
+        executeur.shutdown();
+    }
+
+    // ═══════════ LIVRES ═══════════
+
+    private void traiterLivres(Requete req) throws IOException, SQLException {
+        String[] chemin = req.chemin;
+
+        switch (req.methode) {
+            case "GET":
+                if (chemin.length == 0) {
+                    int taille = taillePage(req);
+                    repondrePage(req, livreDAO.getPageLivres(null, depuis(req), 0, taille + 1), taille,
+                                 livre -> "/livres?depuis=" + livre.getId(), Json::livre);
+                } else if (chemin[0].equals("disponibles")) {
+                    int taille = taillePage(req);
+                    repondrePage(req, livreDAO.getPageLivresDisponibles(depuis(req), taille + 1), taille,
+                                 livre -> "/livres/disponibles?depuis=" + livre.getId(), Json::livre);
+                } else if (chemin[0].equals("recherche")) {
+                    req.repondreListe(rechercherLivres(req), Json::livre);
+                } else {
+                    Livre livre = livreDAO.getLivreById(req.id(0));
+                    if (livre == null) {
+                        throw new ErreurHttp(404, "Aucun livre trouvé avec l'ID " + chemin[0]);
+                    }
+                    req.repondre(200, Json.livre(new StringBuilder(), livre));
+                }
+                break;
+
+            case "POST":
+                if (chemin.length != 0) {
+                    throw new ErreurHttp(404, "Ressource inconnue");
+                }
+                Livre nouveau = new Livre(
+                    req.parametreObligatoire("titre"),
+                    req.parametreObligatoire("auteur"),
+                    req.parametreObligatoire("categorie"),
+                    req.entier("exemplaires"));
+                if (nouveau.getNombreExemplaires() < 1) {
+                    throw new ErreurHttp(400, "Le nombre d'exemplaires doit être au moins 1.");
+                }
+                if (!livreDAO.ajouterLivre(nouveau)) {
+                    throw new ErreurHttp(500, "Erreur lors de l'ajout du livre.");
+                }
+                req.repondre(201, Json.livre(new StringBuilder(), nouveau));
+                break;
+
+            case "PUT":
+                if (req.parametre("exemplaires") != null && req.entier("exemplaires") < 0) {
+                    throw new ErreurHttp(400, "Le nombre d'exemplaires ne peut pas être négatif.");
+                }
+                try (Session session = Session.ouvrir()) {
+                    Livre existant = session.livre(req.id(0));
+                    if (existant == null) {
+                        throw new ErreurHttp(404, "Aucun livre trouvé avec l'ID " + chemin[0]);
+                    }
+                    if (req.parametre("titre") != null) existant.setTitre(req.parametre("titre"));
+                    if (req.parametre("auteur") != null) existant.setAuteur(req.parametre("auteur"));
+                    if (req.parametre("categorie") != null) existant.setCategorie(req.parametre("categorie"));
+                    if (req.parametre("exemplaires") != null) existant.setNombreExemplaires(req.entier("exemplaires"));
+                    session.modifie(existant);
+                    session.valider();
+                    req.repondre(200, Json.livre(new StringBuilder(), existant));
+                }
+                break;
+
+            case "DELETE":
+                if (!livreDAO.supprimerLivre(req.id(0))) {
+                    throw new ErreurHttp(404, "Aucun livre supprimé avec l'ID " + chemin[0]);
+                }
+                req.repondre(204, null);
+                break;
+
+            default:
+                throw new ErreurHttp(405, "Méthode non supportée: " + req.methode);
+        }
+    }
+
+    private List<Livre> rechercherLivres(Requete req) {
+        if (req.parametre("titre") != null) {
+            return livreDAO.rechercherParTitre(req.parametre("titre"));
+        } else if (req.parametre("auteur") != null) {
+            return livreDAO.rechercherParAuteur(req.parametre("auteur"));
+        } else if (req.parametre("categorie") != null) {
+            return livreDAO.rechercherParCategorie(req.parametre("categorie"));
+        }
+        throw new ErreurHttp(400, "Paramètre attendu: titre, auteur ou categorie");
+    }
+
+    // ═══════════ MEMBRES ═══════════
+
+    private void traiterMembres(Requete req) throws IOException {
+        String[] chemin = req.chemin;
+
+        switch (req.methode) {
+            case "GET":
+                if (chemin.length == 0) {
+                    int taille = taillePage(req);
+                    repondrePage(req, membreDAO.getPageMembres(null, depuis(req), 0, taille + 1), taille,
+                                 membre -> "/membres?depuis=" + membre.getId(), Json::membre);
+                } else if (chemin[0].equals("recherche")) {
+                    if (req.parametre("email") != null) {
+                        Membre membre = membreDAO.rechercherParEmail(req.parametre("email"));
+                        if (membre == null) {
+                            throw new ErreurHttp(404, "Aucun membre avec cet email");
+                        }
+                        req.repondre(200, Json.membre(new StringBuilder(), membre));
+                    } else {
+                        req.repondreListe(membreDAO.rechercherParNom(req.parametreObligatoire("nom")), Json::membre);
+                    }
+                } else if (chemin.length == 2 && chemin[1].equals("emprunts")) {
+                    req.repondreListe(empruntDAO.getEmpruntsByMembre(req.id(0)), Json::emprunt);
+                } else {
+                    Membre membre = membreDAO.getMembreById(req.id(0));
+                    if (membre == null) {
+                        throw new ErreurHttp(404, "Aucun membre trouvé avec l'ID " + chemin[0]);
+                    }
+                    req.repondre(200, Json.membre(new StringBuilder(), membre));
+                }
+                break;
+
+            case "POST":
+                if (chemin.length != 0) {
+                    throw new ErreurHttp(404, "Ressource inconnue");
+                }
+                String email = req.parametreObligatoire("email");
+                if (!email.contains("@")) {
+                    throw new ErreurHttp(400, "L'email est invalide.");
+                }
+                if (membreDAO.rechercherParEmail(email) != null) {
+                    throw new ErreurHttp(409, "Cet email est déjà utilisé par un autre membre.");
+                }
+                Membre nouveau = new Membre(
+                    req.parametreObligatoire("nom"),
+                    req.parametreObligatoire("prenom"),
+                    email);
+                if (!membreDAO.ajouterMembre(nouveau)) {
+                    throw new ErreurHttp(500, "Erreur lors de l'inscription.");
+                }
+                req.repondre(201, Json.membre(new StringBuilder(), nouveau));
+                break;
+
+            case "DELETE":
+                int id = req.id(0);
+                long empruntsActifs = empruntDAO.getEmpruntsByMembre(id).stream()
+                    .filter(e -> !e.estRetourne())
+                    .count();
+                if (empruntsActifs > 0) {
+                    throw new ErreurHttp(409, "Ce membre a " + empruntsActifs + " emprunt(s) en cours.");
+                }
+                if (!membreDAO.supprimerMembre(id)) {
+                    throw new ErreurHttp(404, "Aucun membre supprimé avec l'ID " + id);
+                }
+                req.repondre(204, null);
+                break;
+
+            default:
+                throw new ErreurHttp(405, "Méthode non supportée: " + req.methode);
+        }
+    }
+
+    // ═══════════ EMPRUNTS ═══════════
+
+    private void traiterEmprunts(Requete req) throws IOException, SQLException {
+        String[] chemin = req.chemin;
+
+        switch (req.methode) {
+            case "GET":
+                if (chemin.length == 0) {
+                    historique(req);
+                } else if (chemin[0].equals("en-cours")) {
+                    int taille = taillePage(req);
+                    LocalDate echeance = req.parametre("echeance") != null ? req.date("echeance") : null;
+                    repondrePage(req, empruntDAO.getPageEnCours(echeance, depuisOuZero(req), taille + 1), taille,
+                                 e -> "/emprunts/en-cours?" + cleEcheance(e), Json::emprunt);
+                } else if (chemin[0].equals("en-retard")) {
+                    int taille = taillePage(req);
+                    LocalDate echeance = req.parametre("echeance") != null ? req.date("echeance") : null;
+                    repondrePage(req, empruntDAO.getPageEnRetard(echeance, depuisOuZero(req), taille + 1), taille,
+                                 e -> "/emprunts/en-retard?" + cleEcheance(e), Json::emprunt);
+                } else {
+                    Emprunt emprunt = empruntDAO.getEmpruntById(req.id(0));
+                    if (emprunt == null) {
+                        throw new ErreurHttp(404, "Aucun emprunt trouvé avec l'ID " + chemin[0]);
+                    }
+                    req.repondre(200, Json.emprunt(new StringBuilder(), emprunt));
+                }
+                break;
+
+            case "POST":
+                if (chemin.length == 0) {
+                    emprunter(req);
+                } else if (chemin.length == 2 && chemin[1].equals("retour")) {
+                    retourner(req, req.id(0));
+                } else {
+                    throw new ErreurHttp(404, "Ressource inconnue");
+                }
+                break;
+
+            default:
+                throw new ErreurHttp(405, "Méthode non supportée: " + req.methode);
+        }
+    }
+
+    // Une page de l'historique, du plus récent au plus ancien (pagination par clé)
+    private void historique(Requete req) throws IOException {
+        int taille = taillePage(req);
+        repondrePage(req, empruntDAO.getPageHistorique(null, depuis(req), 0, taille + 1), taille,
+                     e -> "/emprunts?depuis=" + e.getIdEmprunt(), Json::emprunt);
+    }
+
+    // Clé du premier emprunt d'une page par échéance
+    private static String cleEcheance(Emprunt e) {
+        return "echeance=" + e.getDateRetourPrevue() + "&depuis=" + e.getIdEmprunt();
+    }
+
+    // ═══════════ PAGINATION ═══════════
+
+    private static int taillePage(Requete req) {
+        int taille = req.parametre("taille") != null ? req.entier("taille") : TAILLE_PAGE;
+        if (taille < 1 || taille > TAILLE_PAGE_MAX) {
+            throw new ErreurHttp(400, "La taille de page doit être comprise entre 1 et " + TAILLE_PAGE_MAX);
+        }
+        return taille;
+    }
+
+    private static Integer depuis(Requete req) {
+        return req.parametre("depuis") != null ? req.entier("depuis") : null;
+    }
+
+    private static int depuisOuZero(Requete req) {
+        return req.parametre("depuis") != null ? req.entier("depuis") : 0;
+    }
+
+    /**
+     * Répond par une page lue avec un élément de plus que sa taille: cet
+     * élément, premier de la page suivante, donne le lien de l'en-tête Link.
+     */
+    private static <T> void repondrePage(Requete req, List<T> page, int taille, Function<T, String> suivante,
+                                         BiConsumer<StringBuilder, T> serialiseur) throws IOException {
+        if (page.size() > taille) {
+            String lien = suivante.apply(page.remove(taille));
+            req.echange.getResponseHeaders().set("Link", "<" + lien + "&taille=" + taille + ">; rel=\"next\"");
+        }
+        req.repondreListe(page, serialiseur);
+    }
+
+    // Vérifications, emprunt et réponse sur une seule connexion et transaction
+    private void emprunter(Requete req) throws IOException, SQLException {
+        int membreId = req.entier("membreId");
+        int livreId = req.entier("livreId");
+
+        EvenementCirculation evenement = new EvenementCirculation(EvenementCirculation.EMPRUNT);
+        evenement.membreId = membreId;
+        evenement.livreId = livreId;
+        evenement.begin();
+        try (Session session = Session.ouvrir()) {
+            if (session.membre(membreId) == null) {
+                throw new ErreurHttp(404, "Aucun membre trouvé avec l'ID " + membreId);
+            }
+            Livre livre = session.livre(livreId);
+            if (livre == null) {
+                throw new ErreurHttp(404, "Aucun livre trouvé avec l'ID " + livreId);
+            }
+            if (!livre.estDisponible()) {
+                throw new ErreurHttp(409, "Ce livre n'est pas disponible actuellement.");
+            }
+
+            Emprunt emprunt = Emprunt.nouveau(membreId, livreId);
+            if (!session.emprunter(emprunt)) {
+                // Le dernier exemplaire a pu partir entre-temps
+                throw new ErreurHttp(409, "Emprunt refusé (livre indisponible).");
+            }
+            session.valider();
+            evenement.empruntId = emprunt.getIdEmprunt();
+            evenement.succes = true;
+            req.repondre(201, Json.emprunt(new StringBuilder(), emprunt));
+        } finally {
+            evenement.commit();
+        }
+    }
+
+    private void retourner(Requete req, int idEmprunt) throws IOException, SQLException {
+        EvenementCirculation evenement = new EvenementCirculation(EvenementCirculation.RETOUR);
+        evenement.empruntId = idEmprunt;
+        evenement.begin();
+        try (Session session = Session.ouvrir()) {
+            Emprunt emprunt = session.emprunt(idEmprunt);
+            if (emprunt == null) {
+                throw new ErreurHttp(404, "Aucun emprunt trouvé avec l'ID " + idEmprunt);
+            }
+            evenement.membreId = emprunt.getMembreId();
+            evenement.livreId = emprunt.getLivreId();
+            if (emprunt.estRetourne() || session.retourner(idEmprunt, Dates.aujourdhui()) == null) {
+                throw new ErreurHttp(409, "Ce livre a déjà été retourné.");
+            }
+            session.valider();
+            evenement.succes = true;
+            req.repondre(200, Json.emprunt(new StringBuilder(), emprunt));
+        } finally {
+            evenement.commit();
+        }
+    }
+
+    // ═══════════ INFRASTRUCTURE ═══════════
+
+    /**
+     * Traitement d'une requête sur une ressource.
+     */
+    private interface Traitement {
+        void traiter(Requete requete) throws IOException, SQLException;
+    }
+
+    /**
+     * Erreur à renvoyer au client avec un code HTTP.
+     */
+    private static class ErreurHttp extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        final int code;
+
+        ErreurHttp(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+
+    /**
+     * Exécute un traitement et garantit une réponse (erreurs comprises),
+     * sous le segment racine de la trace de la requête.
+     */
+    private void gerer(HttpExchange echange, Traitement traitement) {
+        Traces.Segment segment = Traces.demarrer(echange.getRequestMethod() + " " + echange.getHttpContext().getPath(),
+                                                 Traces.SERVEUR)
+            .attribut("http.request.method", echange.getRequestMethod())
+            .attribut("url.path", echange.getRequestURI().getPath());
+        // Base injoignable: 503 plutôt qu'une liste vide
+        ErreurDonnees.propager(true);
+        try {
+            Requete requete = new Requete(echange);
+            traitement.traiter(requete);
+        } catch (ErreurHttp e) {
+            repondreErreur(echange, e.code, e.getMessage());
+        } catch (ErreurDonnees e) {
+            System.err.println("✗ Erreur d'accès aux données: " + e.getMessage());
+            repondreErreur(echange, 503, "Données indisponibles");
+            segment.erreur(e.getMessage());
+        } catch (Exception e) {
+            System.err.println("✗ Erreur serveur: " + e.getMessage());
+            repondreErreur(echange, 500, "Erreur interne");
+            segment.erreur(e.getMessage());
+        } finally {
+            ErreurDonnees.propager(false);
+            echange.close();
+            segment.attribut("http.response.status_code", echange.getResponseCode());
+            segment.close();
+        }
+    }
+
+    private static void repondreErreur(HttpExchange echange, int code, String message) {
+        try {
+            byte[] corps = Json.erreur(message).getBytes(StandardCharsets.UTF_8);
+            echange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            echange.sendResponseHeaders(code, corps.length);
+            echange.getResponseBody().write(corps);
+        } catch (IOException | IllegalStateException e) {
+            // Réponse déjà commencée ou client déconnecté
+        }
+    }
+
+    /**
+     * Requête décodée: méthode, segments de chemin et paramètres.
+     */
+    private static class Requete {
+        final HttpExchange echange;
+        final String methode;
+        final String[] chemin;
+        final Map<String, String> parametres = new HashMap<>();
+
+        Requete(HttpExchange echange) throws IOException {
+            this.echange = echange;
+            this.methode = echange.getRequestMethod();
+
+            // Segments après le contexte: /livres/12 -> ["12"]
+            String contexte = echange.getHttpContext().getPath();
+            String reste = echange.getRequestURI().getPath().substring(contexte.length());
+            reste = reste.replaceAll("^/+|/+$", "");
+            this.chemin = reste.isEmpty() ? new String[0] : reste.split("/");
+
+            decoder(echange.getRequestURI().getRawQuery());
+            if (!methode.equals("GET")) {
+                decoder(lireCorps(echange.getRequestBody()));
+            }
+        }
+
+        private void decoder(String formulaire) throws IOException {
+            if (formulaire == null || formulaire.isEmpty()) {
+                return;
+            }
+            for (String paire : formulaire.split("&")) {
+                int egal = paire.indexOf('=');
+                String cle = egal < 0 ? paire : paire.substring(0, egal);
+                String valeur = egal < 0 ? "" : paire.substring(egal + 1);
+                try {
+                    parametres.put(URLDecoder.decode(cle, "UTF-8"), URLDecoder.decode(valeur, "UTF-8").trim());
+                } catch (IllegalArgumentException e) {
+                    // Séquence % incomplète ou non hexadécimale
+                    throw new ErreurHttp(400, "Paramètre mal encodé: " + paire);
+                }
+            }
+        }
+
+        private static String lireCorps(InputStream corps) throws IOException {
+            ByteArrayOutputStream tampon = new ByteArrayOutputStream();
+            byte[] bloc = new byte[4096];
+            int lus;
+            while ((lus = corps.read(bloc)) != -1) {
+                tampon.write(bloc, 0, lus);
+            }
+            return new String(tampon.toByteArray(), StandardCharsets.UTF_8);
+        }
+
+        String parametre(String nom) {
+            return parametres.get(nom);
+        }
+
+        String parametreObligatoire(String nom) {
+            String valeur = parametres.get(nom);
+            if (valeur == null || valeur.isEmpty()) {
+                throw new ErreurHttp(400, "Paramètre obligatoire manquant: " + nom);
+            }
+            return valeur;
+        }
+
+        int entier(String nom) {
+            try {
+                return Integer.parseInt(parametreObligatoire(nom));
+            } catch (NumberFormatException e) {
+                throw new ErreurHttp(400, "Nombre invalide pour le paramètre " + nom);
+            }
+        }
+
+        LocalDate date(String nom) {
+            try {
+                return LocalDate.parse(parametreObligatoire(nom));
+            } catch (DateTimeParseException e) {
+                throw new ErreurHttp(400, "Date invalide (AAAA-MM-JJ) pour le paramètre " + nom);
+            }
+        }
+
+        int id(int segment) {
+            if (chemin.length <= segment) {
+                throw new ErreurHttp(404, "Identifiant manquant");
+            }
+            try {
+                return Integer.parseInt(chemin[segment]);
+            } catch (NumberFormatException e) {
+                throw new ErreurHttp(404, "Ressource inconnue: " + chemin[segment]);
+            }
+        }
+
+        void repondre(int code, CharSequence json) throws IOException {
+            if (json == null) {
+                echange.sendResponseHeaders(code, -1);
+                return;
+            }
+            byte[] corps = json.toString().getBytes(StandardCharsets.UTF_8);
+            echange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            echange.sendResponseHeaders(code, corps.length);
+            echange.getResponseBody().write(corps);
+        }
+
+        /**
+         * Écrit une liste JSON en flux (encodage chunked), élément par élément,
+         * sans construire le texte de la réponse complète en mémoire. Les
+         * listes non bornées sont à paginer (voir repondrePage).
+         */
+        <T> void repondreListe(List<T> elements, BiConsumer<StringBuilder, T> serialiseur) throws IOException {
+            echange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            echange.sendResponseHeaders(200, 0);
+
+            Writer sortie = new BufferedWriter(
+                new OutputStreamWriter(echange.getResponseBody(), StandardCharsets.UTF_8), 16 * 1024);
+            StringBuilder sb = new StringBuilder(256);
+
+            sortie.write('[');
+            for (int i = 0; i < elements.size(); i++) {
+                sb.setLength(0);
+                if (i > 0) {
+                    sb.append(',');
+                }
+                serialiseur.accept(sb, elements.get(i));
+                sortie.append(sb);
+            }
+            sortie.write(']');
+            sortie.flush();
+        }
+    }
+}
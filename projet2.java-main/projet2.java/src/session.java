@@ -0,0 +1,272 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.model.Emprunt;
+import com.bibliotheque.model.Livre;
+import com.bibliotheque.model.Membre;
+import com.bibliotheque.util.DatabaseConnection;
+import com.bibliotheque.util.EntiersParId;
+import com.bibliotheque.util.TableParId;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Unité de travail: une connexion et une transaction partagées par plusieurs
+ * appels à LivreDAO, MembreDAO et EmpruntDAO (un écran, une requête HTTP).
+ *
+ * Chaque livre, membre ou emprunt n'est lu qu'une fois par session et
+ * toujours rendu sous la même instance (carte d'identité). Les IDs manquants
+ * se chargent en une requête avec precharger*(). Les entités signalées par
+ * modifie() sont écrites ensemble, par lots, au moment de valider(); le
+ * stock d'un livre y est écrit par différence avec le stock lu, pour ne pas
+ * effacer les emprunts et retours des autres transactions.
+ * Une session fermée sans valider() est annulée.
+ *
+ * Usage:
+ * <pre>
+ * try (Session session = Session.ouvrir()) {
+ *     Livre livre = session.livre(id);
+ *     livre.setTitre("...");
+ *     session.modifie(livre);
+ *     session.valider();
+ * }
+ * </pre>
+ *
+ * Non thread-safe: une session par thread.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class Session implements AutoCloseable {
+    private final LivreDAO livreDAO = new LivreDAO();
+    private final MembreDAO membreDAO = new MembreDAO();
+    private final EmpruntDAO empruntDAO = new EmpruntDAO();
+
+    private final Connection conn;
+
+    // Cartes d'identité
+    private final TableParId<Livre> livres = new TableParId<>();
+    private final TableParId<Membre> membres = new TableParId<>();
+    private final TableParId<Emprunt> emprunts = new TableParId<>();
+
+    // Stock de chaque livre chargé, tel qu'en base dans cette transaction
+    private final EntiersParId stocksLus = new EntiersParId();
+
+    // Emprunts ouverts et rendus, portés dans l'échéancier après la validation
+    private final List<Emprunt> empruntsOuverts = new ArrayList<>();
+    private final List<Emprunt> empruntsRendus = new ArrayList<>();
+
+    // Entités à écrire à la validation
+    private final Set<Livre> livresModifies = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Set<Membre> membresModifies = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    private Session(Connection conn) {
+        this.conn = conn;
+    }
+
+    /**
+     * Ouvre une session sur une connexion du pool, en mode transactionnel.
+     *
+     * @throws SQLException si aucune connexion n'est disponible
+     */
+    public static Session ouvrir() throws SQLException {
+        Connection conn = DatabaseConnection.getConnection();
+        try {
+            conn.setAutoCommit(false);
+        } catch (SQLException e) {
+            conn.close();
+            throw e;
+        }
+        return new Session(conn);
+    }
+
+    /**
+     * Connexion de la session, pour les appels DAO sur connexion fournie.
+     */
+    public Connection getConnection() {
+        return conn;
+    }
+
+    // ==================== LECTURES ====================
+
+    /**
+     * @return Le livre (même instance pour toute la session), ou null s'il n'existe pas
+     */
+    public Livre livre(int id) throws SQLException {
+        prechargerLivres(id);
+        return livres.get(id);
+    }
+
+    /**
+     * @return Le membre (même instance pour toute la session), ou null s'il n'existe pas
+     */
+    public Membre membre(int id) throws SQLException {
+        prechargerMembres(id);
+        return membres.get(id);
+    }
+
+    /**
+     * @return L'emprunt (même instance pour toute la session), ou null s'il n'existe pas
+     */
+    public Emprunt emprunt(int id) throws SQLException {
+        prechargerEmprunts(id);
+        return emprunts.get(id);
+    }
+
+    /**
+     * Charge en une requête les livres pas encore présents dans la session.
+     */
+    public void prechargerLivres(int... ids) throws SQLException {
+        int[] manquants = manquants(livres, ids);
+        if (manquants.length > 0) {
+            for (Livre livre : livreDAO.getLivresByIds(conn, manquants)) {
+                livres.put(livre.getId(), livre);
+                stocksLus.put(livre.getId(), livre.getNombreExemplaires());
+            }
+        }
+    }
+
+    /**
+     * Charge en une requête les membres pas encore présents dans la session.
+     */
+    public void prechargerMembres(int... ids) throws SQLException {
+        int[] manquants = manquants(membres, ids);
+        if (manquants.length > 0) {
+            for (Membre membre : membreDAO.getMembresByIds(conn, manquants)) {
+                membres.put(membre.getId(), membre);
+            }
+        }
+    }
+
+    /**
+     * Charge en une requête les emprunts pas encore présents dans la session.
+     */
+    public void prechargerEmprunts(int... ids) throws SQLException {
+        int[] manquants = manquants(emprunts, ids);
+        if (manquants.length > 0) {
+            for (Emprunt emprunt : empruntDAO.getEmpruntsByIds(conn, manquants)) {
+                emprunts.put(emprunt.getIdEmprunt(), emprunt);
+            }
+        }
+    }
+
+    // ==================== ÉCRITURES ====================
+
+    /**
+     * Signale un livre modifié: il sera écrit à la validation.
+     */
+    public void modifie(Livre livre) {
+        livresModifies.add(livre);
+    }
+
+    /**
+     * Signale un membre modifié: il sera écrit à la validation.
+     */
+    public void modifie(Membre membre) {
+        membresModifies.add(membre);
+    }
+
+    /**
+     * Enregistre un emprunt dans la transaction de la session. Le stock du
+     * livre, s'il est déjà chargé, est mis à jour dans la session.
+     *
+     * @return false si le livre n'est pas disponible
+     */
+    public boolean emprunter(Emprunt emprunt) throws SQLException {
+        if (!empruntDAO.enregistrerEmprunt(conn, emprunt)) {
+            return false;
+        }
+        emprunts.put(emprunt.getIdEmprunt(), emprunt);
+        empruntsOuverts.add(emprunt);
+        Livre livre = livres.get(emprunt.getLivreId());
+        if (livre != null) {
+            livre.setNombreExemplaires(livre.getNombreExemplaires() - 1);
+            stocksLus.ajouter(livre.getId(), -1);
+        }
+        return true;
+    }
+
+    /**
+     * Enregistre un retour dans la transaction de la session. Le stock du
+     * livre, s'il est déjà chargé, est mis à jour dans la session.
+     *
+     * @return L'emprunt retourné (avec sa pénalité), ou null s'il est introuvable ou déjà retourné
+     */
+    public Emprunt retourner(int idEmprunt, LocalDate dateRetour) throws SQLException {
+        Emprunt emprunt = empruntDAO.enregistrerRetour(conn, idEmprunt, dateRetour);
+        if (emprunt == null) {
+            return null;
+        }
+        Emprunt enSession = emprunts.get(idEmprunt);
+        if (enSession != null) {
+            enSession.setDateRetourEffective(dateRetour);
+            emprunt = enSession;
+        } else {
+            emprunts.put(idEmprunt, emprunt);
+        }
+        empruntsRendus.add(emprunt);
+        Livre livre = livres.get(emprunt.getLivreId());
+        if (livre != null) {
+            livre.setNombreExemplaires(livre.getNombreExemplaires() + 1);
+            stocksLus.ajouter(livre.getId(), 1);
+        }
+        return emprunt;
+    }
+
+    /**
+     * Écrit les entités modifiées (un lot par table) et valide la transaction.
+     * La session reste utilisable pour une nouvelle transaction.
+     */
+    public void valider() throws SQLException {
+        livreDAO.modifierLivres(conn, new ArrayList<>(livresModifies), stocksLus);
+        membreDAO.modifierMembres(conn, new ArrayList<>(membresModifies));
+        conn.commit();
+        for (Livre livre : livresModifies) {
+            stocksLus.put(livre.getId(), livre.getNombreExemplaires());
+        }
+        livresModifies.clear();
+        membresModifies.clear();
+        for (Emprunt emprunt : empruntsOuverts) {
+            EcheancierEmprunts.emprunte(emprunt);
+        }
+        for (Emprunt emprunt : empruntsRendus) {
+            EcheancierEmprunts.rendu(emprunt);
+        }
+        empruntsOuverts.clear();
+        empruntsRendus.clear();
+    }
+
+    /**
+     * Annule la transaction en cours (et les modifications non écrites)
+     * puis rend la connexion au pool.
+     */
+    @Override
+    public void close() throws SQLException {
+        try {
+            conn.rollback();
+            conn.setAutoCommit(true);
+        } finally {
+            conn.close();
+        }
+    }
+
+    // IDs absents de la carte d'identité (doublons retirés)
+    private static int[] manquants(TableParId<?> carte, int[] ids) {
+        int[] resultat = new int[ids.length];
+        int nombre = 0;
+        EntiersParId vus = new EntiersParId(ids.length);
+        for (int id : ids) {
+            if (!carte.contient(id) && !vus.contient(id)) {
+                vus.put(id, 1);
+                resultat[nombre++] = id;
+            }
+        }
+        return Arrays.copyOf(resultat, nombre);
+    }
+}
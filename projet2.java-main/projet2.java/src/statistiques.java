@@ -0,0 +1,83 @@
+package com.bibliotheque.model;
+
+/**
+ * Instantané des chiffres clés de la bibliothèque.
+ * Calculé en une seule requête d'agrégation par StatistiquesDAO.
+ * 
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class Statistiques {
+    private final int nombreTitres;
+    private final long totalExemplaires;
+    private final int livresDisponibles;
+    private final int nombreMembres;
+    private final long totalEmprunts;
+    private final long empruntsEnCours;
+    private final long empruntsEnRetard;
+    private final double penalitesAPercevoir;
+    private final int membresAvecEmprunt;
+    private final int maxEmpruntsParMembre;
+    
+    public Statistiques(int nombreTitres, long totalExemplaires, int livresDisponibles,
+                        int nombreMembres, long totalEmprunts, long empruntsEnCours,
+                        long empruntsEnRetard, double penalitesAPercevoir,
+                        int membresAvecEmprunt, int maxEmpruntsParMembre) {
+        this.nombreTitres = nombreTitres;
+        this.totalExemplaires = totalExemplaires;
+        this.livresDisponibles = livresDisponibles;
+        this.nombreMembres = nombreMembres;
+        this.totalEmprunts = totalEmprunts;
+        this.empruntsEnCours = empruntsEnCours;
+        this.empruntsEnRetard = empruntsEnRetard;
+        this.penalitesAPercevoir = penalitesAPercevoir;
+        this.membresAvecEmprunt = membresAvecEmprunt;
+        this.maxEmpruntsParMembre = maxEmpruntsParMembre;
+    }
+    
+    public int getNombreTitres() { 
+        return nombreTitres; 
+    }
+    
+    public long getTotalExemplaires() { 
+        return totalExemplaires; 
+    }
+    
+    public int getLivresDisponibles() { 
+        return livresDisponibles; 
+    }
+    
+    public int getNombreMembres() { 
+        return nombreMembres; 
+    }
+    
+    public long getTotalEmprunts() { 
+        return totalEmprunts; 
+    }
+    
+    public long getEmpruntsEnCours() { 
+        return empruntsEnCours; 
+    }
+    
+    public long getEmpruntsEnRetard() { 
+        return empruntsEnRetard; 
+    }
+    
+    public double getPenalitesAPercevoir() { 
+        return penalitesAPercevoir; 
+    }
+    
+    /**
+     * @return Nombre de membres ayant au moins un emprunt en cours
+     */
+    public int getMembresAvecEmprunt() { 
+        return membresAvecEmprunt; 
+    }
+    
+    /**
+     * @return Plus grand nombre d'emprunts en cours d'un même membre
+     */
+    public int getMaxEmpruntsParMembre() { 
+        return maxEmpruntsParMembre; 
+    }
+}
@@ -0,0 +1,75 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.model.Emprunt;
+import com.bibliotheque.model.Statistiques;
+import com.bibliotheque.util.Dates;
+import java.sql.*;
+
+/**
+ * Data Access Object pour les statistiques globales.
+ * Calcule tous les compteurs en une seule requête d'agrégation,
+ * sans charger les listes de livres, membres ou emprunts.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class StatistiquesDAO {
+
+    // Date du jour (horloge de Dates) aux paramètres 1, 2 et 4, pénalité par jour au paramètre 3
+    private static final String SQL =
+        "SELECT " +
+        "(SELECT COUNT(*) FROM livres), " +
+        "(SELECT COALESCE(SUM(nombre_exemplaires), 0) FROM livres), " +
+        "(SELECT COUNT(*) FROM livres WHERE nombre_exemplaires > 0), " +
+        "(SELECT COUNT(*) FROM membres), " +
+        "(SELECT COUNT(*) FROM emprunts), " +
+        "(SELECT COUNT(*) FROM emprunts WHERE date_retour_effective IS NULL), " +
+        "(SELECT COUNT(*) FROM emprunts WHERE date_retour_effective IS NULL AND date_retour_prevue < ?), " +
+        "(SELECT COALESCE(SUM(?::date - date_retour_prevue), 0) * ? FROM emprunts " +
+        " WHERE date_retour_effective IS NULL AND date_retour_prevue < ?), " +
+        "(SELECT COUNT(DISTINCT membre_id) FROM emprunts WHERE date_retour_effective IS NULL), " +
+        "(SELECT COALESCE(MAX(n), 0) FROM (SELECT COUNT(*) AS n FROM emprunts " +
+        " WHERE date_retour_effective IS NULL GROUP BY membre_id) parMembre)";
+
+    /**
+     * Calcule les statistiques de la bibliothèque.
+     *
+     * @return Les statistiques, ou null en cas d'erreur
+     */
+    public Statistiques getStatistiques() {
+        return Jdbc.avecConnexion("StatistiquesDAO.getStatistiques", "du calcul des statistiques", null,
+                                  this::calculer);
+    }
+
+    /**
+     * Calcule les statistiques sur une connexion fournie par l'appelant.
+     *
+     * @param conn La connexion à utiliser
+     * @return Les statistiques
+     * @throws SQLException en cas d'erreur d'accès aux données
+     */
+    public Statistiques getStatistiques(Connection conn) throws SQLException {
+        return Jdbc.mesurer("StatistiquesDAO.getStatistiques(Connection)", conn, this::calculer);
+    }
+
+    private Statistiques calculer(Connection conn) throws SQLException {
+        Date aujourdhui = Date.valueOf(Dates.aujourdhui());
+        return Jdbc.premier(conn, SQL, pstmt -> {
+            pstmt.setDate(1, aujourdhui);
+            pstmt.setDate(2, aujourdhui);
+            pstmt.setDouble(3, Emprunt.PENALITE_PAR_JOUR);
+            pstmt.setDate(4, aujourdhui);
+        }, rs -> new Statistiques(
+            rs.getInt(1),
+            rs.getLong(2),
+            rs.getInt(3),
+            rs.getInt(4),
+            rs.getLong(5),
+            rs.getLong(6),
+            rs.getLong(7),
+            rs.getDouble(8),
+            rs.getInt(9),
+            rs.getInt(10)
+        ));
+    }
+}
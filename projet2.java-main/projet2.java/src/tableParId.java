@@ -0,0 +1,110 @@
+package com.bibliotheque.util;
+
+import java.util.function.IntFunction;
+
+/**
+ * Table ID → objet à adressage ouvert, sans Integer pour les clés.
+ * Sert aux jointures faites en mémoire (membre et livre de chaque emprunt):
+ * les clés restent dans un int[] contigu, parcouru case après case en
+ * cas de collision.
+ *
+ * Pas de suppression (les tables sont construites puis jetées) et pas de
+ * valeur null (une case à null est une case vide). Non thread-safe.
+ *
+ * @param <V> Type des valeurs
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class TableParId<V> {
+    private int[] cles;
+    private Object[] valeurs;
+    private int taille;
+
+    public TableParId() {
+        this(16);
+    }
+
+    /**
+     * @param capacite Nombre d'entrées prévu (la table grandit au-delà)
+     */
+    public TableParId(int capacite) {
+        int cases = Integer.highestOneBit(Math.max(capacite, 8) * 2 - 1) << 1;
+        cles = new int[cases];
+        valeurs = new Object[cases];
+    }
+
+    /**
+     * @return La valeur associée à l'ID, ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int id) {
+        return (V) valeurs[caseDe(id)];
+    }
+
+    public boolean contient(int id) {
+        return valeurs[caseDe(id)] != null;
+    }
+
+    /**
+     * Associe une valeur à un ID.
+     *
+     * @return L'ancienne valeur, ou null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int id, V valeur) {
+        if (valeur == null) {
+            throw new IllegalArgumentException("La valeur ne peut pas être null");
+        }
+        int i = caseDe(id);
+        V ancienne = (V) valeurs[i];
+        cles[i] = id;
+        valeurs[i] = valeur;
+        if (ancienne == null && ++taille * 2 > cles.length) {
+            agrandir();
+        }
+        return ancienne;
+    }
+
+    /**
+     * Retourne la valeur associée à l'ID, en la calculant si elle est absente.
+     */
+    public V calculerSiAbsent(int id, IntFunction<? extends V> calcul) {
+        V valeur = get(id);
+        if (valeur == null) {
+            valeur = calcul.apply(id);
+            put(id, valeur);
+        }
+        return valeur;
+    }
+
+    /**
+     * @return Le nombre d'IDs présents
+     */
+    public int taille() {
+        return taille;
+    }
+
+    // Case de l'ID, ou case vide où l'insérer
+    private int caseDe(int id) {
+        int masque = cles.length - 1;
+        int i = Hachage.disperser(id) & masque;
+        while (valeurs[i] != null && cles[i] != id) {
+            i = (i + 1) & masque;
+        }
+        return i;
+    }
+
+    private void agrandir() {
+        int[] anciennesCles = cles;
+        Object[] anciennesValeurs = valeurs;
+        cles = new int[anciennesCles.length * 2];
+        valeurs = new Object[anciennesCles.length * 2];
+        for (int j = 0; j < anciennesCles.length; j++) {
+            if (anciennesValeurs[j] != null) {
+                int i = caseDe(anciennesCles[j]);
+                cles[i] = anciennesCles[j];
+                valeurs[i] = anciennesValeurs[j];
+            }
+        }
+    }
+}
@@ -0,0 +1,329 @@
+package com.bibliotheque.util;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Traces légères d'une action (choix du menu, requête HTTP): un segment
+ * par action, par appel DAO, par attente d'une connexion du pool et par
+ * requête SQL, imbriqués selon les appels.
+ *
+ * Le segment courant est porté par le thread (ThreadLocal); propager()
+ * le transmet aux tâches asynchrones (DAOAsynchrone). Quand le segment
+ * racine se termine, toute la trace est écrite, sur un thread à part, dans
+ * le fichier bibliotheque.traces: une ligne JSON par trace au format OTLP
+ * (ExportTraceServiceRequest), lisible par le récepteur "otlpjson" d'un
+ * collecteur OpenTelemetry ou par jq. La racine porte le nombre de
+ * segments et de requêtes SQL de la trace, pour repérer les actions qui se
+ * démultiplient en requêtes.
+ *
+ * Sans la propriété, demarrer() retourne un segment inerte: aucun coût
+ * au-delà d'un test.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class Traces {
+    // Genres de segment OTLP (SpanKind)
+    public static final int INTERNE = 1;
+    public static final int SERVEUR = 2;
+    public static final int CLIENT = 3;
+
+    private static final String FICHIER = System.getProperty("bibliotheque.traces");
+    private static final boolean ACTIVES = FICHIER != null && !FICHIER.isEmpty();
+
+    // Horloge murale en ns, à la résolution de nanoTime
+    private static final long ORIGINE_NS = System.currentTimeMillis() * 1_000_000 - System.nanoTime();
+
+    private static final ThreadLocal<Segment> courant = new ThreadLocal<>();
+    private static final Segment INERTE = new Segment();
+
+    private static ExecutorService ecrivain;
+    private static Writer sortie;
+
+    static {
+        if (ACTIVES) {
+            ouvrir();
+        }
+    }
+
+    private Traces() {
+    }
+
+    public static boolean isActives() {
+        return ACTIVES;
+    }
+
+    /**
+     * Démarre un segment interne, enfant du segment courant (ou racine
+     * d'une nouvelle trace), qui devient le segment courant jusqu'à close().
+     *
+     * @param nom Nom du segment, par exemple "EmpruntDAO.getEmpruntsEnRetard"
+     */
+    public static Segment demarrer(String nom) {
+        return demarrer(nom, INTERNE);
+    }
+
+    /**
+     * @param genre INTERNE, SERVEUR (requête reçue) ou CLIENT (requête SQL)
+     */
+    public static Segment demarrer(String nom, int genre) {
+        if (!ACTIVES) {
+            return INERTE;
+        }
+        return new Segment(nom, genre, courant.get());
+    }
+
+    /**
+     * Enveloppe une opération pour qu'elle s'exécute, sur un autre thread,
+     * sous le segment courant de l'appelant.
+     */
+    public static <T> Supplier<T> propager(Supplier<T> operation) {
+        if (!ACTIVES) {
+            return operation;
+        }
+        Segment parent = courant.get();
+        return () -> {
+            Segment precedent = courant.get();
+            courant.set(parent);
+            try {
+                return operation.get();
+            } finally {
+                courant.set(precedent);
+            }
+        };
+    }
+
+    private static void ouvrir() {
+        try {
+            sortie = Files.newBufferedWriter(Paths.get(FICHIER), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("✗ Erreur lors de l'ouverture du fichier de traces: " + e.getMessage());
+            sortie = Writer.nullWriter();
+        }
+        ecrivain = Executors.newSingleThreadExecutor(Executeurs.fabriqueDemons("traces"));
+
+        // Les traces déjà terminées sont écrites avant l'arrêt de la JVM
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            ecrivain.shutdown();
+            try {
+                ecrivain.awaitTermination(5, TimeUnit.SECONDS);
+                synchronized (Traces.class) {
+                    sortie.close();
+                }
+            } catch (InterruptedException | IOException e) {
+                // Arrêt de la JVM: les dernières traces sont perdues
+            }
+        }, "traces-arret"));
+    }
+
+    private static void exporter(List<Segment> segments) {
+        String ligne = otlp(segments);
+        try {
+            ecrivain.execute(() -> {
+                synchronized (Traces.class) {
+                    try {
+                        sortie.write(ligne);
+                        sortie.write('\n');
+                        sortie.flush();
+                    } catch (IOException e) {
+                        System.err.println("✗ Erreur lors de l'écriture d'une trace: " + e.getMessage());
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // JVM en cours d'arrêt
+        }
+    }
+
+    /**
+     * Une trace au format OTLP/JSON (ExportTraceServiceRequest).
+     */
+    private static String otlp(List<Segment> segments) {
+        StringBuilder sb = new StringBuilder(512 * segments.size());
+        sb.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+        attribut(sb, "service.name", "bibliotheque");
+        sb.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"com.bibliotheque\"},\"spans\":[");
+        for (int i = 0; i < segments.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            segments.get(i).json(sb);
+        }
+        return sb.append("]}]}]}").toString();
+    }
+
+    private static void attribut(StringBuilder sb, String cle, String valeur) {
+        sb.append("{\"key\":");
+        Json.chaine(sb, cle).append(",\"value\":{\"stringValue\":");
+        Json.chaine(sb, valeur).append("}}");
+    }
+
+    // Entiers 64 bits en chaîne (correspondance JSON de protobuf)
+    private static void attribut(StringBuilder sb, String cle, long valeur) {
+        sb.append("{\"key\":");
+        Json.chaine(sb, cle).append(",\"value\":{\"intValue\":\"").append(valeur).append("\"}}");
+    }
+
+    private static String hex(int octets) {
+        ThreadLocalRandom aleatoire = ThreadLocalRandom.current();
+        StringBuilder sb = new StringBuilder(octets * 2);
+        for (int i = 0; i < octets; i += 8) {
+            String bloc = Long.toHexString(aleatoire.nextLong());
+            sb.append("0".repeat(16 - bloc.length())).append(bloc);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Segment (span) d'une trace, à fermer par try-with-resources.
+     */
+    public static final class Segment implements AutoCloseable {
+        private final String nom;
+        private final int genre;
+        private final Segment parent;
+        private final Segment racine;
+        private final String traceId;
+        private final String id;
+        private final long debutNs;
+        private long finNs;
+        private final List<Object[]> attributs;
+        private String erreur;
+
+        // Racine seulement: segments terminés de la trace
+        private final List<Segment> termines;
+        private boolean exportee;
+
+        // Segment inerte
+        private Segment() {
+            this.nom = null;
+            this.genre = INTERNE;
+            this.parent = null;
+            this.racine = null;
+            this.traceId = null;
+            this.id = null;
+            this.debutNs = 0;
+            this.attributs = null;
+            this.termines = null;
+        }
+
+        private Segment(String nom, int genre, Segment parent) {
+            this.nom = nom;
+            this.genre = genre;
+            this.parent = parent;
+            this.racine = parent != null ? parent.racine : this;
+            this.traceId = parent != null ? parent.traceId : hex(16);
+            this.id = hex(8);
+            this.attributs = new ArrayList<>(4);
+            this.termines = parent != null ? null : new ArrayList<>();
+            this.debutNs = ORIGINE_NS + System.nanoTime();
+            courant.set(this);
+        }
+
+        public Segment attribut(String cle, String valeur) {
+            if (attributs != null && valeur != null) {
+                attributs.add(new Object[] {cle, valeur});
+            }
+            return this;
+        }
+
+        public Segment attribut(String cle, long valeur) {
+            if (attributs != null) {
+                attributs.add(new Object[] {cle, valeur});
+            }
+            return this;
+        }
+
+        /**
+         * Marque le segment en erreur (statut OTLP ERROR).
+         */
+        public void erreur(String message) {
+            if (attributs != null) {
+                erreur = message != null ? message : "erreur";
+            }
+        }
+
+        @Override
+        public void close() {
+            if (attributs == null) {
+                return;
+            }
+            finNs = ORIGINE_NS + System.nanoTime();
+            if (courant.get() == this) {
+                courant.set(parent);
+            }
+
+            List<Segment> aExporter = null;
+            synchronized (racine.termines) {
+                if (racine.exportee) {
+                    // Tâche asynchrone terminée après la racine: exportée seule
+                    aExporter = List.of(this);
+                } else {
+                    racine.termines.add(this);
+                    if (racine == this) {
+                        racine.exportee = true;
+                        aExporter = new ArrayList<>(racine.termines);
+                    }
+                }
+            }
+            if (aExporter == null) {
+                return;
+            }
+            if (racine == this) {
+                int requetes = 0;
+                for (Segment s : aExporter) {
+                    if (s.genre == CLIENT) {
+                        requetes++;
+                    }
+                }
+                attribut("bibliotheque.segments", aExporter.size());
+                attribut("bibliotheque.requetes_sql", requetes);
+            }
+            exporter(aExporter);
+        }
+
+        private void json(StringBuilder sb) {
+            sb.append("{\"traceId\":\"").append(traceId).append("\",\"spanId\":\"").append(id).append('"');
+            if (parent != null) {
+                sb.append(",\"parentSpanId\":\"").append(parent.id).append('"');
+            }
+            sb.append(",\"name\":");
+            Json.chaine(sb, nom);
+            sb.append(",\"kind\":").append(genre)
+              .append(",\"startTimeUnixNano\":\"").append(debutNs)
+              .append("\",\"endTimeUnixNano\":\"").append(finNs).append("\",\"attributes\":[");
+            for (int i = 0; i < attributs.size(); i++) {
+                if (i > 0) {
+                    sb.append(',');
+                }
+                Object[] a = attributs.get(i);
+                if (a[1] instanceof Long) {
+                    Traces.attribut(sb, (String) a[0], (Long) a[1]);
+                } else {
+                    Traces.attribut(sb, (String) a[0], (String) a[1]);
+                }
+            }
+            sb.append("],\"status\":");
+            if (erreur != null) {
+                sb.append("{\"code\":2,\"message\":");
+                Json.chaine(sb, erreur).append('}');
+            } else {
+                sb.append("{\"code\":1}");
+            }
+            sb.append('}');
+        }
+    }
+}
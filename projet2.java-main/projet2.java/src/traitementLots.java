@@ -0,0 +1,371 @@
+package com.bibliotheque;
+
+import com.bibliotheque.dao.*;
+import com.bibliotheque.model.*;
+import com.bibliotheque.util.DatabaseConnection;
+import com.bibliotheque.util.Dates;
+import com.bibliotheque.util.Json;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mode batch non interactif: exécute des commandes lues ligne par ligne
+ * (fichier ou entrée standard) et écrit un résultat JSON par commande (NDJSON).
+ *
+ * Format: une commande par ligne, champs séparés par des tabulations
+ * (ou par ';' si la ligne ne contient pas de tabulation). Lignes vides
+ * et commentaires (#) ignorés.
+ *
+ *   livre;Titre;Auteur;Catégorie;Exemplaires
+ *   membre;Nom;Prénom;email
+ *   emprunt;membreId;livreId
+ *   retour;idEmprunt
+ *   recherche;titre|auteur|categorie;texte
+ *   stats
+ *
+ * Les écritures passent par une seule connexion et sont validées par lots
+ * (un COMMIT toutes les N commandes); chaque commande a son point de
+ * sauvegarde, de sorte qu'une erreur n'annule pas le reste du lot.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class TraitementLots {
+    // Nombre d'écritures par transaction par défaut
+    public static final int TAILLE_LOT_DEFAUT = 500;
+
+    private final LivreDAO livreDAO = new LivreDAO();
+    private final MembreDAO membreDAO = new MembreDAO();
+    private final EmpruntDAO empruntDAO = new EmpruntDAO();
+    private final StatistiquesDAO statistiquesDAO = new StatistiquesDAO();
+
+    private final Writer sortie;
+    private final int tailleLot;
+
+    // Résultats du lot courant, écrits seulement après le COMMIT
+    private final List<Resultat> enAttente = new ArrayList<>();
+    private int ecrituresEnAttente = 0;
+
+    private int commandes = 0;
+    private int reussites = 0;
+    private int echecs = 0;
+
+    // Réutilisé pour chaque ligne de résultat
+    private final StringBuilder sb = new StringBuilder(512);
+
+    // Message de la dernière commande refusée par echec()
+    private String messageEchec;
+
+    public TraitementLots(Writer sortie, int tailleLot) {
+        if (tailleLot < 1) {
+            throw new IllegalArgumentException("La taille de lot doit être au moins 1");
+        }
+        this.sortie = sortie;
+        this.tailleLot = tailleLot;
+    }
+
+    /**
+     * Exécute toutes les commandes de l'entrée puis écrit une ligne de résumé.
+     *
+     * @param entree Les commandes, une par ligne
+     * @return true si toutes les commandes ont réussi
+     * @throws IOException en cas d'erreur de lecture ou d'écriture
+     */
+    public boolean executer(BufferedReader entree) throws IOException {
+        long debut = System.nanoTime();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            String ligne;
+            int numero = 0;
+            while ((ligne = entree.readLine()) != null) {
+                numero++;
+                if (ligne.trim().isEmpty() || ligne.trim().startsWith("#")) {
+                    continue;
+                }
+                commandes++;
+                traiterLigne(conn, numero, ligne);
+
+                if (ecrituresEnAttente >= tailleLot) {
+                    valider(conn);
+                }
+            }
+            valider(conn);
+
+        } catch (SQLException | RuntimeException e) {
+            // Erreur fatale (connexion perdue...): le lot en cours est perdu
+            annulerEnAttente("Erreur fatale: " + e.getMessage());
+            ecrireEnAttente();
+        }
+
+        long dureeMs = (System.nanoTime() - debut) / 1_000_000;
+        sb.setLength(0);
+        sb.append("{\"resume\":true,\"commandes\":").append(commandes)
+          .append(",\"reussites\":").append(reussites)
+          .append(",\"echecs\":").append(echecs)
+          .append(",\"dureeMs\":").append(dureeMs).append('}');
+        sortie.append(sb).append('\n');
+        sortie.flush();
+
+        return echecs == 0;
+    }
+
+    /**
+     * Analyse et exécute une ligne de commande.
+     */
+    private void traiterLigne(Connection conn, int numero, String ligne) throws SQLException, IOException {
+        String[] champs = ligne.indexOf('\t') >= 0 ? ligne.split("\t", -1) : ligne.split(";", -1);
+        for (int i = 0; i < champs.length; i++) {
+            champs[i] = champs[i].trim();
+        }
+        String commande = champs[0].toLowerCase();
+
+        try {
+            switch (commande) {
+                case "livre":
+                    verifierChamps(champs, 5);
+                    ecrire(conn, numero, commande, () -> {
+                        Livre livre = new Livre(obligatoire(champs[1], "titre"), obligatoire(champs[2], "auteur"),
+                                                obligatoire(champs[3], "catégorie"), entier(champs[4]));
+                        if (livre.getNombreExemplaires() < 1) {
+                            return echec("Le nombre d'exemplaires doit être au moins 1.");
+                        }
+                        livreDAO.ajouterLivre(conn, livre);
+                        return Json.livre(debut(numero, commande, true).append(",\"livre\":"), livre).append('}');
+                    });
+                    break;
+
+                case "membre":
+                    verifierChamps(champs, 4);
+                    ecrire(conn, numero, commande, () -> {
+                        if (!champs[3].contains("@")) {
+                            return echec("L'email est invalide.");
+                        }
+                        Membre membre = new Membre(obligatoire(champs[1], "nom"), obligatoire(champs[2], "prénom"), champs[3]);
+                        membreDAO.ajouterMembre(conn, membre);
+                        return Json.membre(debut(numero, commande, true).append(",\"membre\":"), membre).append('}');
+                    });
+                    break;
+
+                case "emprunt":
+                    verifierChamps(champs, 3);
+                    ecrire(conn, numero, commande, () -> {
+                        Emprunt emprunt = Emprunt.nouveau(entier(champs[1]), entier(champs[2]));
+                        if (!empruntDAO.enregistrerEmprunt(conn, emprunt)) {
+                            return echec("Livre inexistant ou indisponible.");
+                        }
+                        return Json.emprunt(debut(numero, commande, true).append(",\"emprunt\":"), emprunt).append('}');
+                    });
+                    break;
+
+                case "retour":
+                    verifierChamps(champs, 2);
+                    ecrire(conn, numero, commande, () -> {
+                        Emprunt emprunt = empruntDAO.enregistrerRetour(conn, entier(champs[1]), Dates.aujourdhui());
+                        if (emprunt == null) {
+                            return echec("Emprunt introuvable ou déjà retourné.");
+                        }
+                        return Json.emprunt(debut(numero, commande, true).append(",\"emprunt\":"), emprunt).append('}');
+                    });
+                    break;
+
+                case "recherche":
+                    verifierChamps(champs, 3);
+                    // Les lectures doivent voir les écritures précédentes du lot
+                    valider(conn);
+                    List<Livre> livres = rechercher(champs[1].toLowerCase(), champs[2]);
+                    debut(numero, commande, true).append(",\"livres\":[");
+                    for (int i = 0; i < livres.size(); i++) {
+                        if (i > 0) {
+                            sb.append(',');
+                        }
+                        Json.livre(sb, livres.get(i));
+                    }
+                    sb.append("]}");
+                    ajouter(numero, false, true);
+                    break;
+
+                case "stats":
+                    valider(conn);
+                    Statistiques stats = statistiquesDAO.getStatistiques(conn);
+                    debut(numero, commande, true)
+                        .append(",\"statistiques\":{\"titres\":").append(stats.getNombreTitres())
+                        .append(",\"exemplaires\":").append(stats.getTotalExemplaires())
+                        .append(",\"livresDisponibles\":").append(stats.getLivresDisponibles())
+                        .append(",\"membres\":").append(stats.getNombreMembres())
+                        .append(",\"emprunts\":").append(stats.getTotalEmprunts())
+                        .append(",\"empruntsEnCours\":").append(stats.getEmpruntsEnCours())
+                        .append(",\"empruntsEnRetard\":").append(stats.getEmpruntsEnRetard())
+                        .append(",\"penalitesAPercevoir\":").append(stats.getPenalitesAPercevoir())
+                        .append("}}");
+                    conn.commit();
+                    ajouter(numero, false, true);
+                    break;
+
+                default:
+                    throw new IllegalArgumentException("Commande inconnue: " + champs[0]);
+            }
+        } catch (IllegalArgumentException e) {
+            erreurLigne(numero, commande, e.getMessage());
+        }
+    }
+
+    private List<Livre> rechercher(String critere, String texte) {
+        switch (critere) {
+            case "titre":
+                return livreDAO.rechercherParTitre(texte);
+            case "auteur":
+                return livreDAO.rechercherParAuteur(texte);
+            case "categorie":
+                return livreDAO.rechercherParCategorie(texte);
+            default:
+                throw new IllegalArgumentException("Critère de recherche inconnu: " + critere);
+        }
+    }
+
+    /**
+     * Opération d'écriture d'une commande: retourne le résultat JSON
+     * (dans sb) ou null si elle a échoué via echec().
+     */
+    private interface Ecriture {
+        StringBuilder executer() throws SQLException;
+    }
+
+    /**
+     * Exécute une écriture sous un point de sauvegarde: une erreur n'annule
+     * que cette commande, pas le reste du lot.
+     */
+    private void ecrire(Connection conn, int numero, String commande, Ecriture ecriture) throws SQLException {
+        Savepoint pointSauvegarde = conn.setSavepoint();
+        try {
+            StringBuilder resultat = ecriture.executer();
+            if (resultat == null) {
+                conn.rollback(pointSauvegarde);
+                erreurLigne(numero, commande, messageEchec);
+                return;
+            }
+            conn.releaseSavepoint(pointSauvegarde);
+            ajouter(numero, true, true);
+            ecrituresEnAttente++;
+
+        } catch (SQLException | IllegalArgumentException e) {
+            conn.rollback(pointSauvegarde);
+            erreurLigne(numero, commande, e.getMessage());
+        }
+    }
+
+    private StringBuilder echec(String message) {
+        messageEchec = message;
+        return null;
+    }
+
+    /**
+     * Valide le lot courant et écrit ses résultats.
+     */
+    private void valider(Connection conn) throws IOException {
+        if (ecrituresEnAttente > 0) {
+            try {
+                conn.commit();
+            } catch (SQLException e) {
+                annulerEnAttente("Validation du lot échouée: " + e.getMessage());
+                try {
+                    conn.rollback();
+                } catch (SQLException ex) {
+                    // La connexion sera rejetée par le pool
+                }
+            }
+        }
+        ecrireEnAttente();
+    }
+
+    /**
+     * Transforme les écritures réussies du lot en erreurs (lot annulé).
+     */
+    private void annulerEnAttente(String message) {
+        for (Resultat resultat : enAttente) {
+            if (resultat.ecriture && resultat.ok) {
+                sb.setLength(0);
+                sb.append("{\"ligne\":").append(resultat.ligne).append(",\"ok\":false,\"erreur\":");
+                Json.chaine(sb, message).append('}');
+                resultat.json = sb.toString();
+                resultat.ok = false;
+            }
+        }
+    }
+
+    private void ecrireEnAttente() throws IOException {
+        for (Resultat resultat : enAttente) {
+            if (resultat.ok) {
+                reussites++;
+            } else {
+                echecs++;
+            }
+            sortie.write(resultat.json);
+            sortie.write('\n');
+        }
+        enAttente.clear();
+        ecrituresEnAttente = 0;
+        sortie.flush();
+    }
+
+    private StringBuilder debut(int numero, String commande, boolean ok) {
+        sb.setLength(0);
+        sb.append("{\"ligne\":").append(numero).append(",\"commande\":");
+        return Json.chaine(sb, commande).append(",\"ok\":").append(ok);
+    }
+
+    private void erreurLigne(int numero, String commande, String message) {
+        Json.chaine(debut(numero, commande, false).append(",\"erreur\":"), message).append('}');
+        ajouter(numero, false, false);
+    }
+
+    private void ajouter(int numero, boolean ecriture, boolean ok) {
+        enAttente.add(new Resultat(numero, ecriture, ok, sb.toString()));
+    }
+
+    private static void verifierChamps(String[] champs, int attendus) {
+        if (champs.length != attendus) {
+            throw new IllegalArgumentException(attendus + " champs attendus, " + champs.length + " reçus");
+        }
+    }
+
+    private static String obligatoire(String valeur, String nom) {
+        if (valeur.isEmpty()) {
+            throw new IllegalArgumentException("Champ obligatoire vide: " + nom);
+        }
+        return valeur;
+    }
+
+    private static int entier(String valeur) {
+        try {
+            return Integer.parseInt(valeur);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Nombre invalide: " + valeur);
+        }
+    }
+
+    /**
+     * Résultat d'une commande en attente de validation du lot.
+     */
+    private static class Resultat {
+        final int ligne;
+        final boolean ecriture;
+        boolean ok;
+        String json;
+
+        Resultat(int ligne, boolean ecriture, boolean ok, String json) {
+            this.ligne = ligne;
+            this.ecriture = ecriture;
+            this.ok = ok;
+            this.json = json;
+        }
+    }
+}
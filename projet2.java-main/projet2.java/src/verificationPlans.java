@@ -0,0 +1,298 @@
+package com.bibliotheque.dao;
+
+import com.bibliotheque.util.DatabaseConnection;
+import java.io.PrintStream;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Vérification des plans d'exécution des requêtes DAO, à lancer sur une
+ * base remplie à l'échelle (GenerateurDonnees): chaque méthode est appelée
+ * pour de vrai et ses SELECT sont rejoués sous EXPLAIN (ANALYZE, BUFFERS)
+ * (PlanRequete). Une vérification échoue si le plan
+ *
+ *  - parcourt séquentiellement une table interdite (emprunts pour les
+ *    emprunts en cours et en retard, par exemple);
+ *  - n'utilise pas l'index attendu, ou le lit avec la table alors qu'un
+ *    parcours d'index seul est attendu;
+ *  - retourne plus de lignes, ou s'exécute plus longtemps que son budget.
+ *
+ * Les budgets de temps valent pour le volume de référence du README
+ * (200 000 livres, 50 000 membres, 5 000 000 d'emprunts), cache chaud;
+ * bibliotheque.plans.marge les multiplie (2: deux fois plus de temps).
+ *
+ * Les tables sont d'abord passées à VACUUM (ANALYZE): sans carte de
+ * visibilité à jour, PostgreSQL ne choisit pas les parcours d'index seul.
+ * Les caches locaux doivent être inactifs (pas d'écouteur) pour que les
+ * appels aillent jusqu'à la base.
+ *
+ * @author Votre Nom
+ * @version 1.0
+ */
+public class VerificationPlans {
+    private static final double MARGE =
+        Double.parseDouble(System.getProperty("bibliotheque.plans.marge", "1"));
+
+    // En dessous, les plans ne sont pas représentatifs (petites tables lues en entier)
+    private static final long EMPRUNTS_MINIMUM = 100_000;
+
+    private static final int TAILLE_PAGE = 20;
+
+    private final LivreDAO livreDAO = new LivreDAO();
+    private final MembreDAO membreDAO = new MembreDAO();
+    private final EmpruntDAO empruntDAO = new EmpruntDAO();
+
+    // Valeurs d'exemple lues en base par preparer()
+    private int membreId;
+    private String email;
+    private int empruntId;
+    private String categorie;
+    private String titre;
+    private String auteur;
+    private int[] livresIds;
+
+    /**
+     * Analyse les tables, exécute les vérifications et écrit le rapport.
+     *
+     * @param sortie Destination du rapport
+     * @return Le nombre de vérifications échouées
+     * @throws SQLException si la base ne peut pas être préparée
+     */
+    public int verifier(PrintStream sortie) throws SQLException {
+        if (CacheEntites.isActif()) {
+            throw new IllegalStateException("caches locaux actifs: les appels n'iraient pas jusqu'à la base");
+        }
+        preparer(sortie);
+
+        List<Verification> verifications = new ArrayList<>();
+
+        verifications.add(new Verification("LivreDAO.getLivreById", () -> livreDAO.getLivreById(livresIds[0]))
+            .index("livres_pkey").sansParcours("livres").lignes(1).duree(5));
+        verifications.add(new Verification("LivreDAO.getPageLivres", () -> livreDAO.getPageLivres(null, livresIds[0], 0, TAILLE_PAGE))
+            .index("livres_pkey").sansParcours("livres").lignes(TAILLE_PAGE).duree(5));
+        verifications.add(new Verification("LivreDAO.rechercherParCategorie", () -> livreDAO.rechercherParCategorie(categorie))
+            .index("idx_livres_categorie").sansParcours("livres").duree(100));
+        verifications.add(new Verification("LivreDAO.getExemplairesPossedes", () -> livreDAO.getExemplairesPossedes(livresIds))
+            .index("idx_emprunts_livre").sansParcours("emprunts").lignes(livresIds.length).duree(50));
+        // LIKE '%...%' sur LOWER(...): index trigrammes
+        verifications.add(new Verification("LivreDAO.rechercherParTitre", () -> livreDAO.rechercherParTitre(titre))
+            .index("idx_livres_titre").sansParcours("livres").duree(50));
+        verifications.add(new Verification("LivreDAO.rechercherParAuteur", () -> livreDAO.rechercherParAuteur(auteur))
+            .index("idx_auteurs_nom").sansParcours("auteurs").duree(50));
+
+        verifications.add(new Verification("LivreDAO.getPageLivresDisponibles", () -> livreDAO.getPageLivresDisponibles(livresIds[0], TAILLE_PAGE))
+            .index("livres_pkey").sansParcours("livres").duree(5));
+
+        verifications.add(new Verification("MembreDAO.getMembreById", () -> membreDAO.getMembreById(membreId))
+            .index("membres_pkey").sansParcours("membres").lignes(1).duree(5));
+        verifications.add(new Verification("MembreDAO.rechercherParEmail", () -> membreDAO.rechercherParEmail(email))
+            .index("idx_membres_email").sansParcours("membres").lignes(1).duree(5));
+        verifications.add(new Verification("MembreDAO.getPageMembres", () -> membreDAO.getPageMembres(null, membreId, 0, TAILLE_PAGE))
+            .index("membres_pkey").sansParcours("membres").lignes(TAILLE_PAGE).duree(5));
+
+        verifications.add(new Verification("EmpruntDAO.getEmpruntById", () -> empruntDAO.getEmpruntById(empruntId))
+            .index("emprunts_pkey").sansParcours("emprunts").lignes(1).duree(5));
+        verifications.add(new Verification("EmpruntDAO.getEmpruntsByMembre", () -> empruntDAO.getEmpruntsByMembre(membreId))
+            .index("idx_emprunts_membre").sansParcours("emprunts").duree(20));
+        verifications.add(new Verification("EmpruntDAO.getEmpruntsEnCours", () -> empruntDAO.getEmpruntsEnCours())
+            .index("idx_emprunts_en_cours").sansParcours("emprunts").duree(500));
+        verifications.add(new Verification("EmpruntDAO.getEmpruntsEnRetard", () -> empruntDAO.getEmpruntsEnRetard())
+            .index("idx_emprunts_en_cours").sansParcours("emprunts").duree(250));
+        verifications.add(new Verification("EmpruntDAO.getPageEnCours", () -> empruntDAO.getPageEnCours(null, 0, TAILLE_PAGE))
+            .index("idx_emprunts_en_cours").sansParcours("emprunts").duree(5));
+        verifications.add(new Verification("EmpruntDAO.getPageEnRetard", () -> empruntDAO.getPageEnRetard(null, 0, TAILLE_PAGE))
+            .index("idx_emprunts_en_cours").sansParcours("emprunts").duree(5));
+        verifications.add(new Verification("EmpruntDAO.getPageHistorique", () -> empruntDAO.getPageHistorique(null, null, 0, TAILLE_PAGE))
+            .index("emprunts_pkey").sansParcours("emprunts").lignes(TAILLE_PAGE).duree(5));
+        // Une ligne par échéance distincte des emprunts en cours
+        verifications.add(new Verification("EcheancierEmprunts.lire", EcheancierEmprunts::lire)
+            .indexSeul("idx_emprunts_en_cours").sansParcours("emprunts").lignes(1000).duree(100));
+
+        int echecs = 0;
+        sortie.println("\n🔎 Plans d'exécution (budgets × " + MARGE + ")");
+        for (Verification v : verifications) {
+            if (!v.executer(sortie)) {
+                echecs++;
+            }
+        }
+        sortie.println();
+        sortie.println(echecs == 0
+            ? "✓ " + verifications.size() + " vérifications réussies"
+            : "✗ " + echecs + " vérification(s) échouée(s) sur " + verifications.size());
+        return echecs;
+    }
+
+    /**
+     * VACUUM (ANALYZE) des tables et choix des valeurs d'exemple: le membre
+     * et les livres des emprunts les plus récents, la catégorie la moins fournie.
+     */
+    private void preparer(PrintStream sortie) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            sortie.println("  … VACUUM (ANALYZE)");
+            stmt.execute("VACUUM (ANALYZE) livres, auteurs, membres, emprunts");
+
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT (SELECT reltuples::bigint FROM pg_class WHERE relname = 'livres'), " +
+                    "(SELECT reltuples::bigint FROM pg_class WHERE relname = 'membres'), " +
+                    "(SELECT reltuples::bigint FROM pg_class WHERE relname = 'emprunts')")) {
+                rs.next();
+                sortie.println("  Volumes estimés: " + rs.getLong(1) + " livres, " + rs.getLong(2) +
+                               " membres, " + rs.getLong(3) + " emprunts");
+                if (rs.getLong(3) < EMPRUNTS_MINIMUM) {
+                    sortie.println("⚠️  Moins de " + EMPRUNTS_MINIMUM + " emprunts: plans peu représentatifs " +
+                                   "(remplir la base avec --generer)");
+                }
+            }
+
+            List<Integer> livres = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT id_emprunt, membre_id, livre_id FROM emprunts ORDER BY id_emprunt DESC LIMIT 100")) {
+                while (rs.next()) {
+                    if (livres.isEmpty()) {
+                        empruntId = rs.getInt(1);
+                        membreId = rs.getInt(2);
+                    }
+                    if (!livres.contains(rs.getInt(3))) {
+                        livres.add(rs.getInt(3));
+                    }
+                }
+            }
+            if (livres.isEmpty()) {
+                throw new IllegalStateException("aucun emprunt en base");
+            }
+            livresIds = livres.stream().mapToInt(Integer::intValue).toArray();
+
+            try (ResultSet rs = stmt.executeQuery("SELECT email FROM membres WHERE id = " + membreId)) {
+                email = rs.next() ? rs.getString(1) : "";
+            }
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT c.nom FROM categories c JOIN livres l ON l.categorie_id = c.id " +
+                    "GROUP BY c.nom ORDER BY COUNT(*), c.nom LIMIT 1")) {
+                categorie = rs.next() ? rs.getString(1) : "";
+            }
+            try (ResultSet rs = stmt.executeQuery("SELECT titre FROM livres WHERE id = " + livresIds[0])) {
+                titre = rs.next() ? rs.getString(1) : "";
+            }
+            try (ResultSet rs = stmt.executeQuery(
+                    "SELECT a.nom FROM auteurs a JOIN livres l ON l.auteur_id = a.id " +
+                    "GROUP BY a.nom ORDER BY COUNT(*), a.nom LIMIT 1")) {
+                auteur = rs.next() ? rs.getString(1) : "";
+            }
+        }
+    }
+
+    /**
+     * Attentes sur les plans des SELECT d'un appel DAO.
+     */
+    private static class Verification {
+        private final String nom;
+        private final Runnable appel;
+        private final Set<String> index = new TreeSet<>();
+        private final Set<String> indexSeuls = new TreeSet<>();
+        private final Set<String> tablesSansParcours = new TreeSet<>();
+        private long maxLignes = -1;
+        private double maxMs = -1;
+
+        Verification(String nom, Runnable appel) {
+            this.nom = nom;
+            this.appel = appel;
+        }
+
+        // Index à utiliser par au moins un des SELECT
+        Verification index(String nomIndex) {
+            index.add(nomIndex);
+            return this;
+        }
+
+        // Index à parcourir sans lire la table
+        Verification indexSeul(String nomIndex) {
+            indexSeuls.add(nomIndex);
+            return this;
+        }
+
+        // Table à ne jamais parcourir séquentiellement
+        Verification sansParcours(String table) {
+            tablesSansParcours.add(table);
+            return this;
+        }
+
+        Verification lignes(long max) {
+            maxLignes = max;
+            return this;
+        }
+
+        Verification duree(double ms) {
+            maxMs = ms * MARGE;
+            return this;
+        }
+
+        /**
+         * @return true si tous les plans respectent les attentes
+         */
+        boolean executer(PrintStream sortie) {
+            List<PlanRequete> plans = PlanRequete.capturer(appel);
+
+            Set<String> utilises = new TreeSet<>();
+            Set<String> seuls = new TreeSet<>();
+            Set<String> parcourues = new TreeSet<>();
+            long lignes = 0;
+            double ms = 0;
+            for (PlanRequete plan : plans) {
+                utilises.addAll(plan.getIndex());
+                seuls.addAll(plan.getIndexSeuls());
+                parcourues.addAll(plan.getParcoursSequentiels());
+                lignes += Math.max(0, plan.getLignesRetournees());
+                ms += Math.max(0, plan.getTempsExecutionMs());
+            }
+
+            List<String> erreurs = new ArrayList<>();
+            if (plans.isEmpty()) {
+                erreurs.add("aucune requête capturée (erreur d'accès ou réponse en cache)");
+            }
+            for (String table : tablesSansParcours) {
+                if (parcourues.contains(table)) {
+                    erreurs.add("parcours séquentiel de " + table);
+                }
+            }
+            for (String nomIndex : index) {
+                if (!utilises.contains(nomIndex)) {
+                    erreurs.add("index " + nomIndex + " inutilisé");
+                }
+            }
+            for (String nomIndex : indexSeuls) {
+                if (!seuls.contains(nomIndex)) {
+                    erreurs.add("pas de parcours d'index seul sur " + nomIndex +
+                                (utilises.contains(nomIndex) ? " (table lue)" : ""));
+                }
+            }
+            if (maxLignes >= 0 && lignes > maxLignes) {
+                erreurs.add(lignes + " lignes (budget " + maxLignes + ")");
+            }
+            if (maxMs >= 0 && ms > maxMs) {
+                erreurs.add(String.format("%.1f ms (budget %.1f ms)", ms, maxMs));
+            }
+
+            sortie.printf("%s %-36s %9.2f ms %9d lignes  index: %s%n", erreurs.isEmpty() ? "  ✓" : "  ✗",
+                          nom, ms, lignes, utilises.isEmpty() ? "aucun" : String.join(", ", utilises));
+            if (!erreurs.isEmpty()) {
+                for (String erreur : erreurs) {
+                    sortie.println("      ✗ " + erreur);
+                }
+                for (PlanRequete plan : plans) {
+                    sortie.println("      " + RequetesLentes.masquer(plan.getSql()));
+                    for (String ligne : plan.getLignes()) {
+                        sortie.println("        " + RequetesLentes.masquer(ligne));
+                    }
+                }
+            }
+            return erreurs.isEmpty();
+        }
+    }
+}